@@ -34,6 +34,9 @@ if %errorlevel% neq 0 (
     exit /b %errorlevel%
 )
 
+REM Ressources (déclaration du processeur d'index des routes)
+if exist src\main\resources xcopy src\main\resources %BUILD_DIR% /E /I /Y >nul
+
 REM Création du jar
 echo Création du jar : %JAR_FILE%...
 jar -cvf %JAR_FILE% -C %BUILD_DIR% .
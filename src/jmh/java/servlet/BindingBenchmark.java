@@ -0,0 +1,69 @@
+package servlet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import servlet.bench.Employe;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ObjectBinder.bindObject sur un formulaire plat et sur un formulaire imbriqué
+ * (departement.site.bureaux[i].numero, adresses[i].ville, ...).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BindingBenchmark {
+
+    @Param({ "flat", "nested" })
+    public String form;
+
+    // Éléments par liste du formulaire imbriqué
+    @Param({ "3", "20" })
+    public int elements;
+
+    private MockRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        request = new MockRequest().method("POST")
+                .param("id", "7")
+                .param("nom", "Rakoto")
+                .param("prenom", "Jean")
+                .param("email", "jean@example.com")
+                .param("salaire", "1500.5")
+                .param("actif", "true");
+        if (form.equals("nested")) {
+            request.param("departement.nom", "Informatique")
+                    .param("departement.code", "INF")
+                    .param("departement.site.ville", "Antananarivo")
+                    .param("departement.site.pays", "Madagascar");
+            for (int i = 0; i < elements; i++) {
+                request.param("departement.site.bureaux[" + i + "].numero", "B" + i)
+                        .param("departement.site.bureaux[" + i + "].etage", String.valueOf(i))
+                        .param("adresses[" + i + "].rue", i + " rue des Benchmarks")
+                        .param("adresses[" + i + "].ville", "Tana")
+                        .param("adresses[" + i + "].codePostal", "101");
+            }
+        }
+    }
+
+    @Benchmark
+    public Object bindObject() throws Exception {
+        request.reset(); // l'arbre des paramètres est reconstruit, comme pour une nouvelle requête
+        return ObjectBinder.bindObject(request, Employe.class);
+    }
+}
@@ -0,0 +1,130 @@
+package servlet;
+
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requête complète : FrontServlet.service (routage, liaison, appel, rendu) sur les routes de
+ * servlet.bench.BenchController, avec requête et réponse en mémoire.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+
+    @Param({ "text", "json", "pathVariable", "form" })
+    public String route;
+
+    private FrontServlet servlet;
+    private MockRequest request;
+    private MockResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        servlet = new FrontServlet();
+        servlet.init(config(Map.of(
+                "controllerPackages", "servlet.bench",
+                "logLevel", "WARN")));
+
+        request = new MockRequest();
+        switch (route) {
+            case "text":
+                request.uri("/bench/text");
+                break;
+            case "json":
+                request.uri("/bench/employes");
+                break;
+            case "pathVariable":
+                request.uri("/bench/employes/42");
+                break;
+            case "form":
+                request.method("POST").uri("/bench/employes")
+                        .param("id", "7")
+                        .param("nom", "Rakoto")
+                        .param("prenom", "Jean")
+                        .param("email", "jean@example.com")
+                        .param("salaire", "1500.5")
+                        .param("actif", "true");
+                break;
+            default:
+                throw new IllegalArgumentException(route);
+        }
+        response = new MockResponse();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        servlet.destroy();
+    }
+
+    @Benchmark
+    public int service() throws Exception {
+        request.reset();
+        response.reset();
+        servlet.service(request, response);
+        return response.bodyLength();
+    }
+
+    // Configuration minimale : paramètres d'init et contexte avec attributs
+    static ServletConfig config(Map<String, String> initParameters) {
+        Map<String, Object> attributes = new HashMap<>();
+        ServletContext context = (ServletContext) Proxy.newProxyInstance(
+                DispatchBenchmark.class.getClassLoader(), new Class<?>[] { ServletContext.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getAttribute":
+                            return attributes.get(args[0]);
+                        case "setAttribute":
+                            attributes.put((String) args[0], args[1]);
+                            return null;
+                        case "getContextPath":
+                            return "";
+                        default:
+                            return null;
+                    }
+                });
+        return new ServletConfig() {
+            @Override
+            public String getServletName() {
+                return "front";
+            }
+
+            @Override
+            public ServletContext getServletContext() {
+                return context;
+            }
+
+            @Override
+            public String getInitParameter(String name) {
+                return initParameters.get(name);
+            }
+
+            @Override
+            public java.util.Enumeration<String> getInitParameterNames() {
+                return Collections.enumeration(initParameters.keySet());
+            }
+        };
+    }
+}
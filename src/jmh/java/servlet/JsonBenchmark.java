@@ -0,0 +1,69 @@
+package servlet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import servlet.bench.Employe;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation JSON d'un graphe d'objets métier : toJson() (String) et writeTo (flux).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({ "10", "1000" })
+    public int employes;
+
+    private JsonResponse response;
+    private OutputStream sink;
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) {
+        List<Employe> data = new ArrayList<>(employes);
+        for (int i = 0; i < employes; i++) {
+            data.add(Employe.sample(i));
+        }
+        response = JsonResponse.success(data);
+        sink = new OutputStream() {
+            @Override
+            public void write(int b) {
+                blackhole.consume(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                blackhole.consume(b);
+            }
+        };
+    }
+
+    @Benchmark
+    public String toJson() {
+        return response.toJson();
+    }
+
+    @Benchmark
+    public void writeTo() throws Exception {
+        response.writeTo(sink);
+    }
+}
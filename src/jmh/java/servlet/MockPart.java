@@ -0,0 +1,77 @@
+package servlet;
+
+import jakarta.servlet.http.Part;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Partie multipart en mémoire (fichier de size octets).
+ */
+final class MockPart implements Part {
+
+    private final String name;
+    private final String filename;
+    private final byte[] content;
+
+    MockPart(String name, String filename, byte[] content) {
+        this.name = name;
+        this.filename = filename;
+        this.content = content;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ByteArrayInputStream(content);
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/octet-stream";
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getSubmittedFileName() {
+        return filename;
+    }
+
+    @Override
+    public long getSize() {
+        return content.length;
+    }
+
+    @Override
+    public void write(String fileName) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void delete() {
+    }
+
+    @Override
+    public String getHeader(String header) {
+        if ("content-disposition".equalsIgnoreCase(header)) {
+            return "form-data; name=\"" + name + "\"; filename=\"" + filename + "\"";
+        }
+        return null;
+    }
+
+    @Override
+    public Collection<String> getHeaders(String header) {
+        String value = getHeader(header);
+        return value == null ? List.of() : List.of(value);
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return List.of("content-disposition");
+    }
+}
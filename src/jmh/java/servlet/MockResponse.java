@@ -0,0 +1,196 @@
+package servlet;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Réponse en mémoire pour les benchmarks : corps dans un tampon réutilisé, en-têtes dans une Map.
+ * reset() la remet à l'état initial avant chaque invocation.
+ */
+final class MockResponse extends HttpServletResponseWrapper {
+
+    private static final HttpServletResponse UNSUPPORTED = (HttpServletResponse) Proxy.newProxyInstance(
+            MockResponse.class.getClassLoader(), new Class<?>[] { HttpServletResponse.class },
+            (proxy, method, args) -> {
+                throw new UnsupportedOperationException("MockResponse." + method.getName());
+            });
+
+    private int status;
+    private String contentType;
+    private String characterEncoding;
+    private final Map<String, String> headers = new HashMap<>();
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream(16 * 1024);
+    private ServletOutputStream stream;
+    private PrintWriter writer;
+
+    MockResponse() {
+        super(UNSUPPORTED);
+        reset();
+    }
+
+    @Override
+    public void reset() {
+        status = SC_OK;
+        contentType = null;
+        characterEncoding = "ISO-8859-1";
+        headers.clear();
+        body.reset();
+        stream = null;
+        writer = null;
+    }
+
+    int bodyLength() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return body.size();
+    }
+
+    @Override
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void sendError(int status) {
+        this.status = status;
+    }
+
+    @Override
+    public void sendError(int status, String message) {
+        this.status = status;
+    }
+
+    @Override
+    public void setContentType(String type) {
+        int charset = type == null ? -1 : type.indexOf(";charset=");
+        if (charset >= 0) {
+            characterEncoding = type.substring(charset + 9).trim();
+            type = type.substring(0, charset);
+        }
+        this.contentType = type;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType == null ? null : contentType + ";charset=" + characterEncoding;
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+        this.characterEncoding = charset;
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        headers.put("Content-Length", String.valueOf(len));
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        headers.put("Content-Length", String.valueOf(len));
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        headers.put(name, value);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        headers.merge(name, value, (a, b) -> a + ", " + b);
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        headers.put(name, String.valueOf(date));
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        headers.put(name, String.valueOf(value));
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return headers.containsKey(name);
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return false;
+    }
+
+    @Override
+    public void flushBuffer() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        body.reset();
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (stream == null) {
+            stream = new ServletOutputStream() {
+                @Override
+                public void write(int b) {
+                    body.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    body.write(b, off, len);
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+        return stream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), Charset.forName(characterEncoding)));
+        }
+        return writer;
+    }
+}
@@ -0,0 +1,88 @@
+package servlet;
+
+import jakarta.servlet.http.Part;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Écriture des fichiers uploadés (UploadStore.saveAll, utilisé par FrontServlet.processFileUploads) :
+ * copie, SHA-256 et CRC32C en un passage, parties écrites en parallèle.
+ * Les fichiers sont supprimés à chaque invocation pour borner l'espace disque.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UploadBenchmark {
+
+    @Param({ "1024", "65536", "1048576" })
+    public int partSize;
+
+    @Param({ "1", "4" })
+    public int parts;
+
+    private Path directory;
+    private UploadStore store;
+    private List<Part> request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        servlet.log.Logger.configure(servlet.log.Level.WARN, servlet.log.AsyncFileSink.console(1024, false));
+        directory = Files.createTempDirectory("upload-bench");
+        store = new UploadStore(directory, 64 * 1024, Math.max(2, Runtime.getRuntime().availableProcessors()));
+        byte[] content = new byte[partSize];
+        new Random(42).nextBytes(content);
+        request = new ArrayList<>();
+        for (int i = 0; i < parts; i++) {
+            request.add(new MockPart("fichiers", "fichier" + i + ".bin", content));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.shutdown();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+        servlet.log.Logger.shutdown();
+    }
+
+    @Benchmark
+    public int saveAll() throws IOException {
+        Map<String, List<Upload>> uploads = store.saveAll(request).join();
+        int count = 0;
+        for (List<Upload> files : uploads.values()) {
+            for (Upload upload : files) {
+                Files.delete(upload.asPath());
+                count++;
+            }
+        }
+        return count;
+    }
+}
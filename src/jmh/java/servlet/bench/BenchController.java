@@ -0,0 +1,47 @@
+package servlet.bench;
+
+import servlet.annotations.Controller;
+import servlet.annotations.GetMapping;
+import servlet.annotations.Json;
+import servlet.annotations.PostMapping;
+import servlet.annotations.RequestParam;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes appelées par DispatchBenchmark.
+ */
+@Controller
+public class BenchController {
+
+    private static final List<Employe> EMPLOYES = new ArrayList<>();
+
+    static {
+        for (int i = 0; i < 50; i++) {
+            EMPLOYES.add(Employe.sample(i));
+        }
+    }
+
+    @GetMapping("/bench/text")
+    public String text() {
+        return "hello";
+    }
+
+    @GetMapping("/bench/employes")
+    @Json
+    public List<Employe> employes() {
+        return EMPLOYES;
+    }
+
+    @GetMapping("/bench/employes/{id}")
+    @Json
+    public Employe employe(@RequestParam("id") int id) {
+        return EMPLOYES.get(id % EMPLOYES.size());
+    }
+
+    @PostMapping("/bench/employes")
+    public String save(Employe employe) {
+        return employe.getNom();
+    }
+}
@@ -0,0 +1,222 @@
+package servlet.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Objet métier des benchmarks : champs simples, objet imbriqué sur trois niveaux et liste.
+ */
+public class Employe {
+
+    private int id;
+    private String nom;
+    private String prenom;
+    private String email;
+    private double salaire;
+    private boolean actif;
+    private Departement departement;
+    private List<Adresse> adresses = new ArrayList<>();
+
+    public static Employe sample(int id) {
+        Employe e = new Employe();
+        e.id = id;
+        e.nom = "Rakoto" + id;
+        e.prenom = "Jean";
+        e.email = "jean.rakoto" + id + "@example.com";
+        e.salaire = 1500.5 + id;
+        e.actif = id % 2 == 0;
+        e.departement = new Departement();
+        e.departement.setNom("Informatique");
+        e.departement.setCode("INF");
+        e.departement.setSite(new Site());
+        e.departement.getSite().setVille("Antananarivo");
+        e.departement.getSite().setPays("Madagascar");
+        for (int i = 0; i < 3; i++) {
+            Bureau bureau = new Bureau();
+            bureau.setNumero("B" + i);
+            bureau.setEtage(i);
+            e.departement.getSite().getBureaux().add(bureau);
+            Adresse adresse = new Adresse();
+            adresse.setRue(i + " rue des Benchmarks");
+            adresse.setVille("Tana");
+            adresse.setCodePostal("101");
+            e.adresses.add(adresse);
+        }
+        return e;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    public void setNom(String nom) {
+        this.nom = nom;
+    }
+
+    public String getPrenom() {
+        return prenom;
+    }
+
+    public void setPrenom(String prenom) {
+        this.prenom = prenom;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public double getSalaire() {
+        return salaire;
+    }
+
+    public void setSalaire(double salaire) {
+        this.salaire = salaire;
+    }
+
+    public boolean isActif() {
+        return actif;
+    }
+
+    public void setActif(boolean actif) {
+        this.actif = actif;
+    }
+
+    public Departement getDepartement() {
+        return departement;
+    }
+
+    public void setDepartement(Departement departement) {
+        this.departement = departement;
+    }
+
+    public List<Adresse> getAdresses() {
+        return adresses;
+    }
+
+    public void setAdresses(List<Adresse> adresses) {
+        this.adresses = adresses;
+    }
+
+    public static class Departement {
+        private String nom;
+        private String code;
+        private Site site;
+
+        public String getNom() {
+            return nom;
+        }
+
+        public void setNom(String nom) {
+            this.nom = nom;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public void setCode(String code) {
+            this.code = code;
+        }
+
+        public Site getSite() {
+            return site;
+        }
+
+        public void setSite(Site site) {
+            this.site = site;
+        }
+    }
+
+    public static class Site {
+        private String ville;
+        private String pays;
+        private List<Bureau> bureaux = new ArrayList<>();
+
+        public String getVille() {
+            return ville;
+        }
+
+        public void setVille(String ville) {
+            this.ville = ville;
+        }
+
+        public String getPays() {
+            return pays;
+        }
+
+        public void setPays(String pays) {
+            this.pays = pays;
+        }
+
+        public List<Bureau> getBureaux() {
+            return bureaux;
+        }
+
+        public void setBureaux(List<Bureau> bureaux) {
+            this.bureaux = bureaux;
+        }
+    }
+
+    public static class Bureau {
+        private String numero;
+        private int etage;
+
+        public String getNumero() {
+            return numero;
+        }
+
+        public void setNumero(String numero) {
+            this.numero = numero;
+        }
+
+        public int getEtage() {
+            return etage;
+        }
+
+        public void setEtage(int etage) {
+            this.etage = etage;
+        }
+    }
+
+    public static class Adresse {
+        private String rue;
+        private String ville;
+        private String codePostal;
+
+        public String getRue() {
+            return rue;
+        }
+
+        public void setRue(String rue) {
+            this.rue = rue;
+        }
+
+        public String getVille() {
+            return ville;
+        }
+
+        public void setVille(String ville) {
+            this.ville = ville;
+        }
+
+        public String getCodePostal() {
+            return codePostal;
+        }
+
+        public void setCodePostal(String codePostal) {
+            this.codePostal = codePostal;
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package servlet;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plan de liaison d'une classe cible, calculé une seule fois et mis en cache.
+ * Chaque champ est résolu en setter typé ; le plan est appliqué à l'arbre des
+ * paramètres de la requête (ParamTree), nœud par nœud.
+ */
+final class BindingPlan {
+
+    private static final ClassValue<BindingPlan> PLANS = new ClassValue<>() {
+        @Override
+        protected BindingPlan computeValue(Class<?> type) {
+            return new BindingPlan(type);
+        }
+    };
+
+    final Class<?> type;
+    private final MethodHandle constructor;
+    private final Map<String, Property> properties;
+
+    static BindingPlan forClass(Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    private BindingPlan(Class<?> type) {
+        this.type = type;
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        MethodHandle ctor = null;
+        try {
+            var declared = type.getDeclaredConstructor();
+            if (declared.trySetAccessible()) {
+                ctor = lookup.unreflectConstructor(declared).asType(MethodType.methodType(Object.class));
+            }
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            // pas de constructeur par défaut : les champs de ce type ne seront pas créés
+        }
+        this.constructor = ctor;
+
+        Map<String, Property> props = new HashMap<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic() || !field.trySetAccessible()) {
+                    continue;
+                }
+                try {
+                    Property property = Property.of(field, lookup);
+                    if (property != null) {
+                        props.putIfAbsent(property.name, property); // le champ de la sous-classe l'emporte
+                    }
+                } catch (IllegalAccessException e) {
+                    // champ final ou inaccessible : ignoré
+                }
+            }
+        }
+        this.properties = props;
+    }
+
+    boolean instantiable() {
+        return constructor != null;
+    }
+
+    Object newInstance() throws Exception {
+        if (constructor == null) {
+            throw new NoSuchMethodException(type.getName() + ".<init>()");
+        }
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new java.lang.reflect.InvocationTargetException(t);
+        }
+    }
+
+    /**
+     * Applique les champs nommés du nœud sur l'objet cible.
+     * Les nœuds qui ne correspondent à aucun champ sont ignorés.
+     */
+    void bind(Object target, ParamTree.Node node) throws Exception {
+        try {
+            for (Map.Entry<String, ParamTree.Node> entry : node.fields().entrySet()) {
+                Property property = properties.get(entry.getKey());
+                if (property != null) {
+                    property.bind(target, entry.getValue());
+                }
+            }
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new java.lang.reflect.InvocationTargetException(t);
+        }
+    }
+
+    /**
+     * Crée et lie un objet, ou retourne null si le nœud est vide ou le type non instanciable.
+     */
+    Object create(ParamTree.Node node) throws Exception {
+        if (node.fields().isEmpty() || !instantiable()) {
+            return null;
+        }
+        Object instance = newInstance();
+        bind(instance, node);
+        return instance;
+    }
+
+    /**
+     * Valeur d'un élément (tableau, liste) : conversion simple ou objet lié par son plan.
+     */
+    static Object element(ParamTree.Node node, Class<?> elementType) throws Exception {
+        if (node == null) {
+            return null;
+        }
+        if (isScalar(elementType)) {
+            String value = node.value();
+            return value == null || value.isEmpty() ? null : convert(value, elementType);
+        }
+        return forClass(elementType).create(node);
+    }
+
+    /**
+     * Éléments d'un nœud : indexés (tags[0], tags[1], compactés dans l'ordre des indices) ou
+     * valeurs multiples (tags=a&amp;tags=b). Taille bornée par le nombre de paramètres.
+     */
+    static List<Object> elements(ParamTree.Node node, Class<?> elementType) throws Exception {
+        Collection<ParamTree.Node> indexed = node.elements();
+        List<Object> result = new ArrayList<>(Math.max(indexed.size(), 1));
+        if (!indexed.isEmpty()) {
+            for (ParamTree.Node element : indexed) {
+                result.add(element(element, elementType));
+            }
+        } else if (node.values != null && isScalar(elementType)) {
+            for (String value : node.values) {
+                result.add(value == null || value.isEmpty() ? null : convert(value, elementType));
+            }
+        }
+        return result;
+    }
+
+    // ---- Conversion des valeurs simples ----
+
+    static boolean isScalar(Class<?> type) {
+        return type == String.class || type.isPrimitive()
+                || type == Integer.class || type == Long.class || type == Double.class
+                || type == Float.class || type == Boolean.class || type == Short.class || type == Byte.class;
+    }
+
+    static Object convert(String value, Class<?> type) {
+        if (type == String.class) return value;
+        if (type == int.class || type == Integer.class) return Integer.parseInt(value);
+        if (type == long.class || type == Long.class) return Long.parseLong(value);
+        if (type == double.class || type == Double.class) return Double.parseDouble(value);
+        if (type == float.class || type == Float.class) return Float.parseFloat(value);
+        if (type == boolean.class || type == Boolean.class) return Boolean.parseBoolean(value);
+        if (type == short.class || type == Short.class) return Short.parseShort(value);
+        if (type == byte.class || type == Byte.class) return Byte.parseByte(value);
+        return null;
+    }
+
+    // ---- Champs ----
+
+    private abstract static class Property {
+        final String name;
+        final MethodHandle getter;
+        final MethodHandle setter;
+
+        Property(String name, MethodHandle getter, MethodHandle setter) {
+            this.name = name;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        // Nœud feuille : première valeur du paramètre
+        void bind(Object target, ParamTree.Node node) throws Throwable {
+            setValue(target, node.value());
+        }
+
+        void setValue(Object target, String value) throws Throwable {
+        }
+
+        static Property of(Field field, MethodHandles.Lookup lookup) throws IllegalAccessException {
+            Class<?> type = field.getType();
+            String name = field.getName();
+            MethodHandle getter = lookup.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+            MethodHandle setter = lookup.unreflectSetter(field);
+
+            if (type == int.class) {
+                return new IntProperty(name, getter, setter.asType(MethodType.methodType(void.class, Object.class, int.class)));
+            }
+            if (type == long.class) {
+                return new LongProperty(name, getter, setter.asType(MethodType.methodType(void.class, Object.class, long.class)));
+            }
+            if (type == double.class) {
+                return new DoubleProperty(name, getter, setter.asType(MethodType.methodType(void.class, Object.class, double.class)));
+            }
+            if (type == boolean.class) {
+                return new BooleanProperty(name, getter, setter.asType(MethodType.methodType(void.class, Object.class, boolean.class)));
+            }
+
+            setter = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            if (isScalar(type)) {
+                return new ScalarProperty(name, getter, setter, type);
+            }
+            if (type.isArray()) {
+                return new ArrayProperty(name, getter, setter, type.getComponentType());
+            }
+            if (List.class.isAssignableFrom(type)) {
+                return new ListProperty(name, getter, setter, elementType(field.getGenericType()));
+            }
+            if (type.isInterface() || type.isEnum() || Modifier.isAbstract(type.getModifiers())) {
+                return null;
+            }
+            return new ObjectProperty(name, getter, setter, type);
+        }
+
+        private static Class<?> elementType(Type genericType) {
+            if (genericType instanceof ParameterizedType pType
+                    && pType.getActualTypeArguments()[0] instanceof Class<?> c) {
+                return c;
+            }
+            return String.class;
+        }
+    }
+
+    private static final class IntProperty extends Property {
+        IntProperty(String name, MethodHandle getter, MethodHandle setter) {
+            super(name, getter, setter);
+        }
+
+        @Override
+        void setValue(Object target, String value) throws Throwable {
+            if (value != null && !value.isEmpty()) {
+                setter.invokeExact(target, Integer.parseInt(value));
+            }
+        }
+    }
+
+    private static final class LongProperty extends Property {
+        LongProperty(String name, MethodHandle getter, MethodHandle setter) {
+            super(name, getter, setter);
+        }
+
+        @Override
+        void setValue(Object target, String value) throws Throwable {
+            if (value != null && !value.isEmpty()) {
+                setter.invokeExact(target, Long.parseLong(value));
+            }
+        }
+    }
+
+    private static final class DoubleProperty extends Property {
+        DoubleProperty(String name, MethodHandle getter, MethodHandle setter) {
+            super(name, getter, setter);
+        }
+
+        @Override
+        void setValue(Object target, String value) throws Throwable {
+            if (value != null && !value.isEmpty()) {
+                setter.invokeExact(target, Double.parseDouble(value));
+            }
+        }
+    }
+
+    private static final class BooleanProperty extends Property {
+        BooleanProperty(String name, MethodHandle getter, MethodHandle setter) {
+            super(name, getter, setter);
+        }
+
+        @Override
+        void setValue(Object target, String value) throws Throwable {
+            if (value != null && !value.isEmpty()) {
+                setter.invokeExact(target, Boolean.parseBoolean(value));
+            }
+        }
+    }
+
+    private static final class ScalarProperty extends Property {
+        private final Class<?> type;
+
+        ScalarProperty(String name, MethodHandle getter, MethodHandle setter, Class<?> type) {
+            super(name, getter, setter);
+            this.type = type;
+        }
+
+        @Override
+        void setValue(Object target, String value) throws Throwable {
+            if (value != null && !value.isEmpty()) {
+                setter.invokeExact(target, convert(value, type));
+            }
+        }
+    }
+
+    // Objet imbriqué : e.department.name
+    private static final class ObjectProperty extends Property {
+        private final Class<?> type;
+
+        ObjectProperty(String name, MethodHandle getter, MethodHandle setter, Class<?> type) {
+            super(name, getter, setter);
+            this.type = type;
+        }
+
+        @Override
+        void bind(Object target, ParamTree.Node node) throws Throwable {
+            if (node.fields().isEmpty()) {
+                return;
+            }
+            BindingPlan plan = forClass(type); // résolu à la demande (types récursifs)
+            Object nested = (Object) getter.invokeExact(target);
+            if (nested == null) {
+                if (!plan.instantiable()) {
+                    return;
+                }
+                nested = plan.newInstance();
+                setter.invokeExact(target, nested);
+            }
+            plan.bind(nested, node);
+        }
+    }
+
+    // Tableau : employees[12].name, tags[0] ou tags=a&tags=b (taille finale allouée une seule fois)
+    private static final class ArrayProperty extends Property {
+        private final Class<?> componentType;
+
+        ArrayProperty(String name, MethodHandle getter, MethodHandle setter, Class<?> componentType) {
+            super(name, getter, setter);
+            this.componentType = componentType;
+        }
+
+        @Override
+        void bind(Object target, ParamTree.Node node) throws Throwable {
+            List<Object> values = elements(node, componentType);
+            if (values.isEmpty()) {
+                return;
+            }
+            Object existing = (Object) getter.invokeExact(target);
+            int existingLength = existing == null ? 0 : Array.getLength(existing);
+            Object array = existingLength >= values.size()
+                    ? existing
+                    : Array.newInstance(componentType, values.size());
+            if (existing != null && array != existing) {
+                System.arraycopy(existing, 0, array, 0, existingLength);
+            }
+            for (int i = 0; i < values.size(); i++) {
+                Object value = values.get(i);
+                if (value != null) {
+                    Array.set(array, i, value);
+                }
+            }
+            if (array != existing) {
+                setter.invokeExact(target, array);
+            }
+        }
+    }
+
+    // Liste : items[2].label (le type d'élément vient du paramètre générique)
+    private static final class ListProperty extends Property {
+        private final Class<?> elementType;
+
+        ListProperty(String name, MethodHandle getter, MethodHandle setter, Class<?> elementType) {
+            super(name, getter, setter);
+            this.elementType = elementType;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void bind(Object target, ParamTree.Node node) throws Throwable {
+            List<Object> values = elements(node, elementType);
+            if (values.isEmpty()) {
+                return;
+            }
+            List<Object> list = (List<Object>) (Object) getter.invokeExact(target);
+            if (list == null) {
+                setter.invokeExact(target, (Object) values);
+                return;
+            }
+            for (int i = 0; i < values.size(); i++) {
+                if (i < list.size()) {
+                    if (values.get(i) != null) list.set(i, values.get(i));
+                } else {
+                    list.add(values.get(i));
+                }
+            }
+        }
+    }
+}
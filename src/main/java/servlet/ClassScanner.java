@@ -0,0 +1,207 @@
+package servlet;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Recherche des contrôleurs dans des packages (sous-packages compris), en répertoire ou en JAR.
+ * Le pool de constantes de chaque .class est lu en parallèle (fork/join) : seules les classes
+ * qui référencent une annotation du framework sont chargées, sans initialisation.
+ */
+final class ClassScanner {
+
+    private static final servlet.log.Logger LOG = servlet.log.Logger.get(ClassScanner.class);
+
+    // Descripteurs cherchés dans les constantes Utf8 du fichier .class
+    private static final byte[][] ANNOTATIONS = {
+            descriptor(servlet.annotations.Controller.class),
+            descriptor(servlet.annotations.GetMapping.class),
+            descriptor(servlet.annotations.PostMapping.class),
+    };
+
+    private final ClassLoader loader;
+
+    ClassScanner(ClassLoader loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Classes annotées des packages donnés, triées par nom.
+     */
+    List<Class<?>> scan(List<String> packageNames) throws IOException {
+        List<ClassFile> candidates = new ArrayList<>();
+        for (String packageName : packageNames) {
+            String path = packageName.replace('.', '/');
+            Enumeration<URL> resources = loader.getResources(path);
+            while (resources.hasMoreElements()) {
+                collect(resources.nextElement(), path, candidates);
+            }
+        }
+
+        // Lecture et filtrage en parallèle (ForkJoinPool commun), chargement des seules classes retenues
+        try {
+            return candidates.parallelStream()
+                    .filter(ClassFile::referencesFramework)
+                    .map(this::load)
+                    .sorted(Comparator.comparing(Class::getName))
+                    .collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void collect(URL resource, String path, List<ClassFile> candidates) throws IOException {
+        URLConnection connection = resource.openConnection();
+        if (connection instanceof JarURLConnection jarConnection) {
+            JarFile jar = jarConnection.getJarFile();
+            String prefix = path + "/";
+            for (Enumeration<JarEntry> entries = jar.entries(); entries.hasMoreElements();) {
+                JarEntry entry = entries.nextElement();
+                if (entry.getName().startsWith(prefix) && isClassFile(entry.getName())) {
+                    candidates.add(new ClassFile(className(entry.getName()), () -> jar.getInputStream(entry)));
+                }
+            }
+        } else if ("file".equals(resource.getProtocol())) {
+            Path root;
+            try {
+                root = Paths.get(resource.toURI());
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+            Path base = root;
+            for (int i = 0, n = path.split("/").length; i < n; i++) {
+                base = base.getParent();
+            }
+            try (Stream<Path> files = Files.walk(root)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    String relative = base.relativize(file).toString().replace('\\', '/');
+                    if (isClassFile(relative)) {
+                        candidates.add(new ClassFile(className(relative), () -> Files.newInputStream(file)));
+                    }
+                }
+            }
+        } else {
+            LOG.warn("Scan ignoré (protocole {}) : {}", resource.getProtocol(), resource);
+        }
+    }
+
+    private Class<?> load(ClassFile file) {
+        try {
+            return Class.forName(file.name, false, loader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            throw new IllegalStateException("Cannot load controller " + file.name, e);
+        }
+    }
+
+    private static boolean isClassFile(String name) {
+        return name.endsWith(".class") && !name.endsWith("module-info.class")
+                && !name.endsWith("package-info.class");
+    }
+
+    private static String className(String entryName) {
+        return entryName.substring(0, entryName.length() - ".class".length()).replace('/', '.');
+    }
+
+    private static byte[] descriptor(Class<?> annotation) {
+        return ("L" + annotation.getName().replace('.', '/') + ";").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    private interface Source {
+        InputStream open() throws IOException;
+    }
+
+    private static final class ClassFile {
+        final String name;
+        final Source source;
+
+        ClassFile(String name, Source source) {
+            this.name = name;
+            this.source = source;
+        }
+
+        boolean referencesFramework() {
+            try (InputStream in = source.open()) {
+                return referencesFramework(in.readAllBytes());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // Parcours du pool de constantes (JVMS §4.4) sans rien décoder d'autre
+        static boolean referencesFramework(byte[] b) {
+            if (b.length < 10 || readInt(b, 0) != 0xCAFEBABE) {
+                return false;
+            }
+            int count = readShort(b, 8);
+            int pos = 10;
+            for (int i = 1; i < count; i++) {
+                if (pos + 3 > b.length) {
+                    return false; // fichier tronqué
+                }
+                int tag = b[pos] & 0xFF;
+                switch (tag) {
+                    case 1: // Utf8
+                        int length = readShort(b, pos + 1);
+                        if (pos + 3 + length <= b.length && matches(b, pos + 3, length)) {
+                            return true;
+                        }
+                        pos += 3 + length;
+                        break;
+                    case 7: case 8: case 16: case 19: case 20: // Class, String, MethodType, Module, Package
+                        pos += 3;
+                        break;
+                    case 15: // MethodHandle
+                        pos += 4;
+                        break;
+                    case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18:
+                        pos += 5;
+                        break;
+                    case 5: case 6: // Long, Double : deux entrées
+                        pos += 9;
+                        i++;
+                        break;
+                    default:
+                        return false; // format inconnu
+                }
+            }
+            return false;
+        }
+
+        private static boolean matches(byte[] b, int start, int length) {
+            for (byte[] annotation : ANNOTATIONS) {
+                if (annotation.length == length && Arrays.equals(
+                        b, start, start + length, annotation, 0, length)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static int readShort(byte[] b, int pos) {
+            return ((b[pos] & 0xFF) << 8) | (b[pos + 1] & 0xFF);
+        }
+
+        private static int readInt(byte[] b, int pos) {
+            return (readShort(b, pos) << 16) | readShort(b, pos + 2);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package servlet;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+
+/**
+ * Réponse compressée à la volée (voir Compression). Les premiers octets sont gardés
+ * jusqu'au seuil : un petit corps part tel quel avec sa longueur, un gros corps d'un type
+ * autorisé est compressé en flux, sans être gardé entier en mémoire.
+ * finish() doit être appelé une fois le corps écrit.
+ */
+final class CompressingResponse extends HttpServletResponseWrapper {
+
+    private final Compression compression;
+    private final String encoding;
+
+    private byte[] pending;
+    private int count;
+    private long contentLength = -1;
+    private Compression.Encoder encoder;
+    private ServletOutputStream target; // null tant que la décision n'est pas prise
+
+    private ServletOutputStream stream;
+    private boolean streamUsed;
+    private PrintWriter writer;
+
+    CompressingResponse(HttpServletResponse response, Compression compression, String encoding) {
+        super(response);
+        this.compression = compression;
+        this.encoding = encoding;
+        this.pending = new byte[compression.threshold()];
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (target != null && encoder == null) {
+            super.setContentLengthLong(len);
+        } else {
+            contentLength = len; // transmise seulement si le corps part non compressé
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called");
+        }
+        streamUsed = true;
+        return stream();
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            if (streamUsed) {
+                throw new IllegalStateException("getOutputStream() has already been called");
+            }
+            writer = new PrintWriter(new OutputStreamWriter(stream(), Charset.forName(getCharacterEncoding())));
+        }
+        return writer;
+    }
+
+    private ServletOutputStream stream() {
+        if (stream == null) {
+            stream = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    if (target == null && count < pending.length) {
+                        pending[count++] = (byte) b;
+                    } else {
+                        CompressingResponse.this.write(new byte[] { (byte) b }, 0, 1);
+                    }
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    CompressingResponse.this.write(b, off, len);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    CompressingResponse.this.flush();
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // Écritures bloquantes (tampon puis compresseur) : toujours prêt, onWritePossible aussitôt
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                    try {
+                        listener.onWritePossible();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+        return stream;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        flush();
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (target == null) {
+            count = 0;
+        }
+        super.resetBuffer();
+    }
+
+    private void write(byte[] b, int off, int len) throws IOException {
+        if (target == null) {
+            if (count + len <= pending.length) {
+                System.arraycopy(b, off, pending, count, len);
+                count += len;
+                return;
+            }
+            start(true);
+        }
+        if (encoder != null) {
+            encoder.write(b, off, len);
+        } else {
+            target.write(b, off, len);
+        }
+    }
+
+    // Seuil atteint (large) ou corps terminé : compression ou envoi tel quel
+    private void start(boolean large) throws IOException {
+        HttpServletResponse response = (HttpServletResponse) getResponse();
+        target = response.getOutputStream();
+        if (large && compression.compressible(response.getContentType(), Long.MAX_VALUE)
+                && !response.containsHeader("Content-Encoding")) {
+            Compression.markEncoded(response, encoding);
+            encoder = compression.encoder(encoding, target);
+            encoder.write(pending, 0, count);
+        } else {
+            if (contentLength >= 0) {
+                response.setContentLengthLong(contentLength);
+            } else if (!large) {
+                response.setContentLength(count);
+            }
+            target.write(pending, 0, count);
+        }
+        pending = null;
+    }
+
+    private void flush() throws IOException {
+        if (target == null) {
+            return; // rien ne part avant le seuil ou finish()
+        }
+        if (encoder != null) {
+            encoder.flush();
+        } else {
+            target.flush();
+        }
+    }
+
+    /**
+     * Termine le corps : envoi du reste, fin du flux compressé et retour du Deflater au pool.
+     */
+    void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (target == null) {
+            start(false);
+        }
+        if (encoder != null) {
+            encoder.finish();
+            encoder = null;
+        }
+    }
+
+    /**
+     * Erreur pendant l'écriture du corps : le compresseur est rendu sans terminer le flux ;
+     * l'appelant remet la réponse à zéro (reset) avant d'écrire l'erreur.
+     */
+    void abort() {
+        if (encoder != null) {
+            encoder.abort();
+            encoder = null;
+        }
+        pending = null;
+        count = 0;
+    }
+}
@@ -0,0 +1,253 @@
+package servlet;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compression gzip / deflate des réponses, négociée sur Accept-Encoding.
+ * Seuls les types de contenu autorisés et les corps d'au moins threshold octets sont compressés.
+ * Les Deflater (et leur mémoire native) sont réutilisés d'une requête à l'autre.
+ */
+final class Compression {
+
+    static final String GZIP = "gzip";
+    static final String DEFLATE = "deflate";
+
+    static final Set<String> DEFAULT_TYPES = Set.of("application/json", "text/plain", "text/html",
+            "text/css", "text/xml", "application/xml", "application/javascript", "text/javascript",
+            "image/svg+xml");
+
+    // En-tête gzip minimal (RFC 1952) : méthode deflate, sans nom ni date
+    private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0 };
+
+    private final int threshold;
+    private final Set<String> types;
+    private final int level;
+
+    // nowrap = true pour gzip (en-tête écrit à part), false pour deflate (format zlib)
+    private final BlockingQueue<Deflater> gzipPool;
+    private final BlockingQueue<Deflater> deflatePool;
+
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+
+    Compression(int threshold, Set<String> types, int level) {
+        this.threshold = threshold;
+        this.types = types;
+        this.level = level;
+        int poolSize = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+        this.gzipPool = new ArrayBlockingQueue<>(poolSize);
+        this.deflatePool = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    /**
+     * Encodage accepté par le client (gzip de préférence), ou null.
+     */
+    static String negotiate(HttpServletRequest req) {
+        String header = req.getHeader("Accept-Encoding");
+        if (header == null || header.isEmpty()) {
+            return null;
+        }
+        boolean deflate = false;
+        boolean any = false;
+        for (String token : header.split(",")) {
+            int semicolon = token.indexOf(';');
+            String coding = (semicolon < 0 ? token : token.substring(0, semicolon)).trim();
+            if (semicolon >= 0 && rejected(token.substring(semicolon + 1))) {
+                continue;
+            }
+            if (coding.equalsIgnoreCase(GZIP) || coding.equalsIgnoreCase("x-gzip")) {
+                return GZIP;
+            }
+            deflate |= coding.equalsIgnoreCase(DEFLATE);
+            any |= coding.equals("*");
+        }
+        return deflate ? DEFLATE : any ? GZIP : null;
+    }
+
+    // q=0 : encodage refusé explicitement
+    private static boolean rejected(String parameters) {
+        String q = parameters.trim().toLowerCase(Locale.ROOT);
+        if (!q.startsWith("q=")) {
+            return false;
+        }
+        try {
+            return Double.parseDouble(q.substring(2).trim()) <= 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Type de contenu autorisé (paramètres comme charset ignorés) et corps assez gros.
+     */
+    boolean compressible(String contentType, long length) {
+        if (contentType == null || length < threshold) {
+            return false;
+        }
+        int semicolon = contentType.indexOf(';');
+        String type = (semicolon < 0 ? contentType : contentType.substring(0, semicolon)).trim();
+        return types.contains(type.toLowerCase(Locale.ROOT));
+    }
+
+    int threshold() {
+        return threshold;
+    }
+
+    /**
+     * En-têtes d'une réponse compressée. Un ETag fort devient faible : les octets envoyés
+     * ne sont plus ceux de la représentation hachée (la comparaison de If-None-Match ignore W/).
+     */
+    static void markEncoded(HttpServletResponse resp, String encoding) {
+        resp.setHeader("Content-Encoding", encoding);
+        String vary = resp.getHeader("Vary");
+        if (vary == null) {
+            resp.setHeader("Vary", "Accept-Encoding");
+        } else if (!vary.toLowerCase(Locale.ROOT).contains("accept-encoding")) {
+            resp.setHeader("Vary", vary + ", Accept-Encoding");
+        }
+        String etag = resp.getHeader("ETag");
+        if (etag != null && !etag.startsWith("W/")) {
+            resp.setHeader("ETag", "W/" + etag);
+        }
+    }
+
+    /**
+     * Compression d'un corps complet (réponse capturée ou mise en cache).
+     */
+    byte[] encode(byte[] body, String encoding) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try {
+            Encoder encoder = encoder(encoding, out);
+            encoder.write(body, 0, body.length);
+            encoder.finish();
+        } catch (IOException e) {
+            throw new java.io.UncheckedIOException(e); // impossible en mémoire
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Flux compressé vers out ; finish() rend le Deflater au pool.
+     */
+    Encoder encoder(String encoding, OutputStream out) throws IOException {
+        boolean gzip = GZIP.equals(encoding);
+        BlockingQueue<Deflater> pool = gzip ? gzipPool : deflatePool;
+        Deflater deflater = pool.poll();
+        if (deflater == null) {
+            deflater = new Deflater(level, gzip);
+        }
+        if (gzip) {
+            out.write(GZIP_HEADER);
+        }
+        return new Encoder(deflater, pool, out, gzip ? new CRC32() : null);
+    }
+
+    long bytesIn() {
+        return bytesIn.sum();
+    }
+
+    long bytesOut() {
+        return bytesOut.sum();
+    }
+
+    /**
+     * Compresseur en flux. finish() ou abort() rend le Deflater au pool ; sinon sa mémoire
+     * native est libérée par le ramasse-miettes.
+     */
+    final class Encoder {
+        private final Deflater deflater;
+        private final BlockingQueue<Deflater> pool;
+        private final OutputStream out;
+        private final CRC32 crc; // null en deflate (la somme adler32 est écrite par le Deflater)
+        private final byte[] buffer = new byte[8192];
+        private long written;
+
+        private Encoder(Deflater deflater, BlockingQueue<Deflater> pool, OutputStream out, CRC32 crc) {
+            this.deflater = deflater;
+            this.pool = pool;
+            this.out = out;
+            this.crc = crc;
+            this.written = crc != null ? GZIP_HEADER.length : 0;
+        }
+
+        void write(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+            if (crc != null) {
+                crc.update(b, off, len);
+            }
+            bytesIn.add(len);
+            deflater.setInput(b, off, len);
+            while (!deflater.needsInput()) {
+                drain(Deflater.NO_FLUSH);
+            }
+        }
+
+        /**
+         * Envoie ce qui est déjà compressé (flush() explicite de l'application).
+         */
+        void flush() throws IOException {
+            drain(Deflater.SYNC_FLUSH);
+            out.flush();
+        }
+
+        void finish() throws IOException {
+            deflater.finish();
+            while (!deflater.finished()) {
+                drain(Deflater.NO_FLUSH);
+            }
+            if (crc != null) {
+                writeIntLE((int) crc.getValue());
+                writeIntLE((int) deflater.getBytesRead());
+                written += 8;
+            }
+            bytesOut.add(written);
+            release();
+        }
+
+        /**
+         * Abandon du flux (erreur pendant l'écriture) : rien de plus n'est écrit.
+         */
+        void abort() {
+            release();
+        }
+
+        private void release() {
+            deflater.reset();
+            if (!pool.offer(deflater)) {
+                deflater.end();
+            }
+        }
+
+        private void drain(int flush) throws IOException {
+            int n;
+            while ((n = deflater.deflate(buffer, 0, buffer.length, flush)) > 0) {
+                out.write(buffer, 0, n);
+                written += n;
+                if (n < buffer.length && flush == Deflater.NO_FLUSH) {
+                    break;
+                }
+            }
+        }
+
+        private void writeIntLE(int value) throws IOException {
+            out.write(value & 0xff);
+            out.write((value >>> 8) & 0xff);
+            out.write((value >>> 16) & 0xff);
+            out.write((value >>> 24) & 0xff);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package servlet;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * ETag et évaluation des en-têtes If-None-Match / If-Modified-Since (RFC 9110, section 13).
+ */
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * ETag fort d'un corps : longueur et CRC32C (calcul vectorisé par la JVM).
+     */
+    static String etag(byte[] body) {
+        CRC32C crc = new CRC32C();
+        crc.update(body, 0, body.length);
+        return '"' + Integer.toHexString(body.length) + '-' + Long.toHexString(crc.getValue()) + '"';
+    }
+
+    /**
+     * ETag fort d'une version fournie par le contrôleur.
+     */
+    static String etag(Object version) {
+        return etag(String.valueOf(version).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Date de dernière modification en millisecondes, ou -1 si la valeur n'est pas reconnue.
+     */
+    static long lastModified(Object value) {
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        if (value instanceof java.util.Date date) {
+            return date.getTime();
+        }
+        if (value instanceof java.time.Instant instant) {
+            return instant.toEpochMilli();
+        }
+        return -1;
+    }
+
+    /**
+     * Vrai si If-None-Match cite l'ETag (comparaison faible : W/ ignoré) ou vaut *.
+     */
+    static boolean matches(HttpServletRequest req, String etag) {
+        String header = req.getHeader("If-None-Match");
+        if (header == null) {
+            return false;
+        }
+        int start = 0;
+        while (start < header.length()) {
+            int end = header.indexOf(',', start);
+            if (end < 0) {
+                end = header.length();
+            }
+            String candidate = header.substring(start, end).trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+    /**
+     * Vrai si If-Modified-Since (ignoré en présence de If-None-Match) est postérieur
+     * ou égal à la date de modification, à la seconde près.
+     */
+    static boolean notModifiedSince(HttpServletRequest req, long lastModified) {
+        if (lastModified < 0 || req.getHeader("If-None-Match") != null) {
+            return false;
+        }
+        long since;
+        try {
+            since = req.getDateHeader("If-Modified-Since");
+        } catch (IllegalArgumentException invalidDate) {
+            return false;
+        }
+        return since >= 0 && lastModified / 1000 <= since / 1000;
+    }
+
+    /**
+     * 304 sans corps ; les en-têtes ETag / Last-Modified déjà posés sont conservés.
+     */
+    static void notModified(HttpServletResponse resp) {
+        resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    }
+}
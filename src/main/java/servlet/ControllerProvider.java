@@ -0,0 +1,189 @@
+package servlet;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import servlet.annotations.Scope;
+
+/**
+ * Fournit les instances d'un contrôleur selon sa portée (@Scope).
+ * Le constructeur est résolu une seule fois ; les instances partagées sont créées au démarrage.
+ */
+abstract class ControllerProvider {
+
+    private static final servlet.log.Logger LOG = servlet.log.Logger.get(ControllerProvider.class);
+
+    final Class<?> controllerClass;
+    private final MethodHandle constructor;
+
+    ControllerProvider(Class<?> controllerClass) throws ReflectiveOperationException {
+        this.controllerClass = controllerClass;
+        var ctor = controllerClass.getDeclaredConstructor();
+        ctor.setAccessible(true);
+        this.constructor = MethodHandles.lookup().unreflectConstructor(ctor)
+                .asType(MethodType.methodType(Object.class));
+    }
+
+    /** Instance à utiliser pour la requête courante. */
+    abstract Object acquire() throws Exception;
+
+    /** Rend l'instance après la requête (utile pour la portée POOLED). */
+    void release(Object instance) {
+    }
+
+    abstract Scope.Type scope();
+
+    Object newInstance() throws Exception {
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new java.lang.reflect.InvocationTargetException(t);
+        }
+    }
+
+    static ControllerProvider forClass(Class<?> controllerClass) throws Exception {
+        Scope scope = controllerClass.getAnnotation(Scope.class);
+        Scope.Type type = scope == null ? Scope.Type.SINGLETON : scope.value();
+
+        switch (type) {
+            case PROTOTYPE:
+                return new Prototype(controllerClass);
+            case THREAD:
+                return new PerThread(controllerClass);
+            case POOLED:
+                return new Pooled(controllerClass, Math.max(1, scope.size()), scope.timeout());
+            default:
+                return new Singleton(controllerClass);
+        }
+    }
+
+    // ---- Une seule instance ----
+    private static final class Singleton extends ControllerProvider {
+        private final Object instance;
+
+        Singleton(Class<?> c) throws Exception {
+            super(c);
+            this.instance = newInstance();
+        }
+
+        @Override
+        Object acquire() {
+            return instance;
+        }
+
+        @Override
+        Scope.Type scope() {
+            return Scope.Type.SINGLETON;
+        }
+    }
+
+    // ---- Une instance par requête ----
+    private static final class Prototype extends ControllerProvider {
+        Prototype(Class<?> c) throws Exception {
+            super(c);
+        }
+
+        @Override
+        Object acquire() throws Exception {
+            return newInstance();
+        }
+
+        @Override
+        Scope.Type scope() {
+            return Scope.Type.PROTOTYPE;
+        }
+    }
+
+    // ---- Une instance par thread ----
+    /**
+     * Instances gardées par le fournisseur et non dans un ThreadLocal : rien ne reste attaché aux
+     * threads du conteneur (ni au chargeur de classes) après l'arrêt du servlet, et les entrées des
+     * threads terminés sont libérées (clés faibles). Sur un thread virtuel, créé pour une seule
+     * requête, l'instance n'est pas conservée : la portée revient alors à PROTOTYPE.
+     */
+    private static final class PerThread extends ControllerProvider {
+        private final Map<Thread, Object> instances = Collections.synchronizedMap(new WeakHashMap<>());
+        private volatile boolean virtualWarned;
+
+        PerThread(Class<?> c) throws Exception {
+            super(c);
+            newInstance(); // vérifie la construction dès le démarrage, sans l'attacher au thread d'init
+        }
+
+        @Override
+        Object acquire() throws Exception {
+            Thread thread = Thread.currentThread();
+            if (VirtualThreads.isVirtual(thread)) {
+                if (!virtualWarned) {
+                    virtualWarned = true;
+                    LOG.warn("@Scope(THREAD) sur {} : thread virtuel, une instance par requête",
+                            controllerClass.getName());
+                }
+                return newInstance();
+            }
+            Object instance = instances.get(thread);
+            if (instance == null) {
+                instance = newInstance();
+                instances.put(thread, instance);
+            }
+            return instance;
+        }
+
+        @Override
+        Scope.Type scope() {
+            return Scope.Type.THREAD;
+        }
+    }
+
+    // ---- Pool borné ----
+    /**
+     * Pool vide : sans délai (timeout = 0), une instance temporaire est créée, sans limite de
+     * nombre, et abandonnée au retour si le pool est plein ; avec un délai, la requête attend une
+     * instance libre puis échoue (IllegalStateException).
+     */
+    private static final class Pooled extends ControllerProvider {
+        private final ArrayBlockingQueue<Object> pool;
+        private final long timeout;
+
+        Pooled(Class<?> c, int size, long timeout) throws Exception {
+            super(c);
+            this.pool = new ArrayBlockingQueue<>(size);
+            this.timeout = timeout;
+            for (int i = 0; i < size; i++) {
+                pool.offer(newInstance());
+            }
+        }
+
+        @Override
+        Object acquire() throws Exception {
+            if (timeout <= 0) {
+                Object instance = pool.poll();
+                return instance != null ? instance : newInstance();
+            }
+            Object instance = pool.poll(timeout, TimeUnit.MILLISECONDS);
+            if (instance == null) {
+                throw new IllegalStateException("Pool de " + controllerClass.getName()
+                        + " épuisé après " + timeout + " ms");
+            }
+            return instance;
+        }
+
+        @Override
+        void release(Object instance) {
+            pool.offer(instance);
+        }
+
+        @Override
+        Scope.Type scope() {
+            return Scope.Type.POOLED;
+        }
+    }
+}
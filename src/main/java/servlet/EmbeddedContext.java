@@ -0,0 +1,250 @@
+package servlet;
+
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.Servlet;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.SessionCookieConfig;
+import jakarta.servlet.SessionTrackingMode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * ServletContext du serveur embarqué : le répertoire root tient lieu de racine de l'application
+ * (pages/, fichiers statiques, upload/), getRequestDispatcher repasse par le FrontServlet.
+ * Le contexte est considéré comme déjà initialisé : la configuration dynamique (add*, declareRoles,
+ * setInitParameter, setSessionTimeout, setSessionTrackingModes, set*CharacterEncoding) lève
+ * IllegalStateException comme dans un conteneur, et create* UnsupportedOperationException.
+ * Aucun servlet ni filtre déclaré (registrations vides, getNamedDispatcher null), pas de JSP
+ * (getJspConfigDescriptor null) ; getSessionCookieConfig décrit le cookie JSESSIONID, en lecture seule.
+ */
+final class EmbeddedContext implements InvocationHandler {
+
+    private static final servlet.log.Logger LOG = servlet.log.Logger.get(EmbeddedContext.class);
+
+    private final Path root;
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private volatile Servlet dispatchTarget; // cible des RequestDispatcher
+
+    private EmbeddedContext(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    static ServletContext create(Path root) {
+        return (ServletContext) Proxy.newProxyInstance(ServletContext.class.getClassLoader(),
+                new Class<?>[] { ServletContext.class }, new EmbeddedContext(root));
+    }
+
+    /**
+     * Servlet qui reçoit les forward et include.
+     */
+    static void bind(ServletContext context, Servlet servlet) {
+        ((EmbeddedContext) Proxy.getInvocationHandler(context)).dispatchTarget = servlet;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "getRealPath":
+                return realPath((String) args[0]);
+            case "getResource":
+                return resource((String) args[0]);
+            case "getResourceAsStream":
+                return resourceAsStream((String) args[0]);
+            case "getMimeType":
+                return URLConnection.guessContentTypeFromName((String) args[0]);
+            case "getAttribute":
+                return attributes.get((String) args[0]);
+            case "setAttribute":
+                if (args[1] == null) {
+                    attributes.remove((String) args[0]);
+                } else {
+                    attributes.put((String) args[0], args[1]);
+                }
+                return null;
+            case "removeAttribute":
+                attributes.remove((String) args[0]);
+                return null;
+            case "getAttributeNames":
+                return Collections.enumeration(attributes.keySet());
+            case "getInitParameter":
+                return null;
+            case "getInitParameterNames":
+                return Collections.emptyEnumeration();
+            case "getContextPath":
+                return "";
+            case "getServletContextName":
+            case "getVirtualServerName":
+                return "embedded";
+            case "getServerInfo":
+                return "servlet.EmbeddedServer (com.sun.net.httpserver)";
+            case "getMajorVersion":
+            case "getEffectiveMajorVersion":
+                return 6;
+            case "getMinorVersion":
+            case "getEffectiveMinorVersion":
+                return 0;
+            case "getContext":
+                return "/".equals(args[0]) || "".equals(args[0]) ? proxy : null;
+            case "getResourcePaths":
+                return resourcePaths((String) args[0]);
+            case "getRequestCharacterEncoding":
+            case "getResponseCharacterEncoding":
+                return null; // ISO-8859-1 par défaut, comme dans Tomcat
+            case "getSessionTimeout":
+                return -1; // durée fixée par le paramètre sessionTimeout du serveur
+            case "getDefaultSessionTrackingModes":
+            case "getEffectiveSessionTrackingModes":
+                return EnumSet.of(SessionTrackingMode.COOKIE);
+            case "getClassLoader":
+                return Thread.currentThread().getContextClassLoader();
+            case "getRequestDispatcher":
+                return dispatcher((String) args[0]);
+            case "getNamedDispatcher":
+                return null; // pas de servlet par défaut
+            case "getServletRegistration":
+            case "getFilterRegistration":
+            case "getJspConfigDescriptor":
+                return null; // rien de déclaré, pas de JSP
+            case "getServletRegistrations":
+            case "getFilterRegistrations":
+                return Collections.emptyMap();
+            case "getSessionCookieConfig":
+                return sessionCookieConfig();
+            // Configuration réservée au démarrage de l'application : contexte déjà initialisé
+            case "addServlet":
+            case "addFilter":
+            case "addJspFile":
+            case "addListener":
+            case "declareRoles":
+            case "setInitParameter":
+            case "setSessionTimeout":
+            case "setSessionTrackingModes":
+            case "setRequestCharacterEncoding":
+            case "setResponseCharacterEncoding":
+                throw new IllegalStateException("ServletContext." + method.getName()
+                        + " : contexte du serveur embarqué déjà initialisé");
+            case "log":
+                if (args.length == 2 && args[1] instanceof Throwable t) {
+                    LOG.error("{}", args[0], t);
+                } else {
+                    LOG.info("{}", args[0]);
+                }
+                return null;
+            // Méthodes de Object
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "EmbeddedContext[" + root + "]";
+            default:
+                throw new UnsupportedOperationException("ServletContext." + method.getName()
+                        + " non disponible dans le serveur embarqué");
+        }
+    }
+
+    // Cookie de session d'EmbeddedSessions ; modifications refusées après l'initialisation
+    private static SessionCookieConfig sessionCookieConfig() {
+        return (SessionCookieConfig) Proxy.newProxyInstance(SessionCookieConfig.class.getClassLoader(),
+                new Class<?>[] { SessionCookieConfig.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getName":
+                            return EmbeddedSessions.COOKIE;
+                        case "getPath":
+                            return "/";
+                        case "isHttpOnly":
+                            return true;
+                        case "isSecure":
+                            return false;
+                        case "getMaxAge":
+                            return -1;
+                        case "getAttributes":
+                            return Collections.emptyMap();
+                        case "getDomain":
+                        case "getComment":
+                        case "getAttribute":
+                            return null;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "SessionCookieConfig[" + EmbeddedSessions.COOKIE + "]";
+                        default:
+                            throw new IllegalStateException("SessionCookieConfig." + method.getName()
+                                    + " : contexte du serveur embarqué déjà initialisé");
+                    }
+                });
+    }
+
+    private RequestDispatcher dispatcher(String path) {
+        Servlet target = dispatchTarget;
+        if (target == null || path == null || !path.startsWith("/")) {
+            return null;
+        }
+        int question = path.indexOf('?');
+        String normalized = ExchangeRequest.normalize(question < 0 ? path : path.substring(0, question));
+        return normalized == null ? null
+                : new EmbeddedDispatcher(target, question < 0 ? normalized : normalized + path.substring(question));
+    }
+
+    // Chemin sous root, null s'il en sort (../)
+    private String realPath(String path) {
+        Path resolved = resolve(path);
+        return resolved == null ? null : resolved.toString();
+    }
+
+    // Même normalisation que les chemins de requête (\ et NUL refusés), puis vérification sous root
+    private Path resolve(String path) {
+        if (path == null) {
+            return null;
+        }
+        String normalized = ExchangeRequest.normalize(path.startsWith("/") ? path : "/" + path);
+        if (normalized == null) {
+            return null;
+        }
+        Path resolved = root.resolve(normalized.substring(1)).normalize();
+        return resolved.startsWith(root) ? resolved : null;
+    }
+
+    // Entrées directes d'un répertoire, les sous-répertoires terminés par /
+    private Set<String> resourcePaths(String path) throws IOException {
+        Path directory = resolve(path);
+        if (directory == null || !Files.isDirectory(directory)) {
+            return null;
+        }
+        String prefix = path.endsWith("/") ? path : path + "/";
+        Set<String> paths = new TreeSet<>();
+        try (Stream<Path> entries = Files.list(directory)) {
+            entries.forEach(entry -> paths.add(prefix + entry.getFileName()
+                    + (Files.isDirectory(entry) ? "/" : "")));
+        }
+        return paths;
+    }
+
+    private URL resource(String path) throws MalformedURLException {
+        Path resolved = resolve(path);
+        return resolved != null && Files.exists(resolved) ? resolved.toUri().toURL() : null;
+    }
+
+    private InputStream resourceAsStream(String path) throws IOException {
+        Path resolved = resolve(path);
+        return resolved != null && Files.isRegularFile(resolved) ? Files.newInputStream(resolved) : null;
+    }
+}
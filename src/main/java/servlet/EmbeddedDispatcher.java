@@ -0,0 +1,260 @@
+package servlet;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.Servlet;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RequestDispatcher du serveur embarqué : la requête repasse par le FrontServlet avec le chemin
+ * cible (paramètres de sa query en tête des paramètres d'origine, attributs jakarta.servlet.forward.*
+ * ou jakarta.servlet.include.* posés). Le FrontServlet routant sur getRequestURI, une inclusion
+ * voit elle aussi le chemin cible ; ses changements de statut et d'en-têtes sont ignorés.
+ * Pas de JSP : une cible .jsp lève ServletException.
+ */
+final class EmbeddedDispatcher implements RequestDispatcher {
+
+    private final Servlet servlet;
+    private final String path;
+    private final String query;
+
+    /**
+     * @param target chemin absolu dans l'application, avec sa query éventuelle
+     */
+    EmbeddedDispatcher(Servlet servlet, String target) {
+        this.servlet = servlet;
+        int question = target.indexOf('?');
+        this.path = question < 0 ? target : target.substring(0, question);
+        this.query = question < 0 ? null : target.substring(question + 1);
+    }
+
+    @Override
+    public void forward(ServletRequest request, ServletResponse response) throws ServletException, IOException {
+        checkTarget();
+        if (response.isCommitted()) {
+            throw new IllegalStateException("Réponse déjà validée");
+        }
+        response.resetBuffer();
+        servlet.service(new Dispatched((HttpServletRequest) request, DispatcherType.FORWARD), response);
+    }
+
+    @Override
+    public void include(ServletRequest request, ServletResponse response) throws ServletException, IOException {
+        checkTarget();
+        servlet.service(new Dispatched((HttpServletRequest) request, DispatcherType.INCLUDE),
+                new Included((HttpServletResponse) response));
+    }
+
+    private void checkTarget() throws ServletException {
+        if (path.endsWith(".jsp")) {
+            throw new ServletException("Vue " + path + " : pas de JSP dans le serveur embarqué"
+                    + " (utiliser viewEngine=template)");
+        }
+    }
+
+    // Requête vue depuis la cible
+    private final class Dispatched extends HttpServletRequestWrapper {
+        private final HttpServletRequest original;
+        private final DispatcherType type;
+        private Map<String, String[]> parameters;
+
+        Dispatched(HttpServletRequest original, DispatcherType type) {
+            super(original);
+            this.original = original;
+            this.type = type;
+        }
+
+        @Override
+        public DispatcherType getDispatcherType() {
+            return type;
+        }
+
+        @Override
+        public String getRequestURI() {
+            return original.getContextPath() + path;
+        }
+
+        @Override
+        public StringBuffer getRequestURL() {
+            StringBuffer url = original.getRequestURL();
+            url.setLength(url.length() - original.getRequestURI().length());
+            return url.append(getRequestURI());
+        }
+
+        @Override
+        public String getServletPath() {
+            return path;
+        }
+
+        @Override
+        public String getPathInfo() {
+            return null;
+        }
+
+        @Override
+        public String getQueryString() {
+            return query != null ? query : original.getQueryString();
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            if (type == DispatcherType.FORWARD && name.startsWith("jakarta.servlet.forward.")
+                    && original.getDispatcherType() != DispatcherType.FORWARD) {
+                switch (name) {
+                    case FORWARD_REQUEST_URI:
+                        return original.getRequestURI();
+                    case FORWARD_CONTEXT_PATH:
+                        return original.getContextPath();
+                    case FORWARD_SERVLET_PATH:
+                        return original.getServletPath();
+                    case FORWARD_PATH_INFO:
+                        return original.getPathInfo();
+                    case FORWARD_QUERY_STRING:
+                        return original.getQueryString();
+                    default:
+                        break;
+                }
+            }
+            if (type == DispatcherType.INCLUDE && name.startsWith("jakarta.servlet.include.")) {
+                switch (name) {
+                    case INCLUDE_REQUEST_URI:
+                        return getRequestURI();
+                    case INCLUDE_CONTEXT_PATH:
+                        return original.getContextPath();
+                    case INCLUDE_SERVLET_PATH:
+                        return path;
+                    case INCLUDE_PATH_INFO:
+                        return null;
+                    case INCLUDE_QUERY_STRING:
+                        return query;
+                    default:
+                        break;
+                }
+            }
+            return super.getAttribute(name);
+        }
+
+        @Override
+        public String getParameter(String name) {
+            String[] values = parameters().get(name);
+            return values == null ? null : values[0];
+        }
+
+        @Override
+        public String[] getParameterValues(String name) {
+            String[] values = parameters().get(name);
+            return values == null ? null : values.clone();
+        }
+
+        @Override
+        public Map<String, String[]> getParameterMap() {
+            return Collections.unmodifiableMap(parameters());
+        }
+
+        @Override
+        public Enumeration<String> getParameterNames() {
+            return Collections.enumeration(parameters().keySet());
+        }
+
+        // Paramètres de la query cible d'abord, puis ceux de la requête d'origine
+        private Map<String, String[]> parameters() {
+            if (parameters == null) {
+                if (query == null || query.isEmpty()) {
+                    parameters = original.getParameterMap();
+                } else {
+                    String encoding = original.getCharacterEncoding();
+                    Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+                    Map<String, List<String>> values = new LinkedHashMap<>();
+                    ExchangeRequest.decode(query, charset, values);
+                    for (Map.Entry<String, String[]> entry : original.getParameterMap().entrySet()) {
+                        Collections.addAll(values.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()),
+                                entry.getValue());
+                    }
+                    Map<String, String[]> map = new LinkedHashMap<>();
+                    values.forEach((name, list) -> map.put(name, list.toArray(new String[0])));
+                    parameters = map;
+                }
+            }
+            return parameters;
+        }
+    }
+
+    // Réponse vue depuis une inclusion : corps seulement
+    private static final class Included extends HttpServletResponseWrapper {
+        Included(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public void setStatus(int status) {
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+        }
+
+        @Override
+        public void setDateHeader(String name, long date) {
+        }
+
+        @Override
+        public void addDateHeader(String name, long date) {
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+        }
+
+        @Override
+        public void addIntHeader(String name, int value) {
+        }
+
+        @Override
+        public void setContentType(String type) {
+        }
+
+        @Override
+        public void setCharacterEncoding(String charset) {
+        }
+
+        @Override
+        public void setContentLength(int len) {
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+        }
+
+        @Override
+        public void addCookie(jakarta.servlet.http.Cookie cookie) {
+        }
+
+        @Override
+        public void reset() {
+        }
+
+        @Override
+        public void resetBuffer() {
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package servlet;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serveur autonome, sans conteneur de servlets : le FrontServlet (mêmes routes @Controller,
+ * mêmes init-params) est servi par le serveur HTTP du JDK (com.sun.net.httpserver), un thread
+ * virtuel par requête (Java 21+, sinon pool borné de serverThreads threads).
+ * <pre>
+ * java -cp framework.jar;classes;lib\* servlet.EmbeddedServer port=8080 root=web controllerPackages=app
+ * </pre>
+ * Paramètres propres au serveur : port (8080), root (obligatoire : répertoire de l'application,
+ * pages/, fichiers statiques, upload/ ; tout ce qu'il contient hors WEB-INF et META-INF est
+ * public), serverThreads (200), maxRequestSize (octets, 50 Mo, corps multipart lu en flux),
+ * fileSizeThreshold (octets, 256 Ko : parties multipart en mémoire jusqu'à ce total par requête,
+ * fichiers temporaires au-delà), maxPartCount (100 parties multipart), maxFormSize (octets, 2 Mo, formulaire urlencoded lu en mémoire),
+ * sessionTimeout (secondes, 1800), responseBufferSize (octets, 8192). Les autres sont transmis
+ * au FrontServlet comme init-params.
+ * Un chemin qui sort de la racine après décodage, ou contenant %2F, %5C ou %00, est refusé (400).
+ * Limites : pas de JSP (utiliser viewEngine=template), pas d'asynchrone servlet (les routes
+ * CompletionStage et @VirtualThread s'exécutent sur le thread de la requête) ; voir ExchangeRequest,
+ * ExchangeResponse et EmbeddedContext pour les méthodes non disponibles.
+ */
+public final class EmbeddedServer {
+
+    private static final servlet.log.Logger LOG = servlet.log.Logger.get(EmbeddedServer.class);
+
+    private final int port;
+    private final Path root;
+    private final Map<String, String> initParameters;
+    private int serverThreads = 200;
+    private long maxRequestSize = 50L * 1024 * 1024;
+    private long fileSizeThreshold = 256 * 1024;
+    private int maxPartCount = 100;
+    private long maxFormSize = 2L * 1024 * 1024;
+    private int sessionTimeout = 1800; // s
+    private int responseBufferSize = 8192;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private FrontServlet frontServlet;
+    private ServletContext context;
+    private EmbeddedSessions sessions;
+
+    /**
+     * @param port           0 : port libre choisi par le système (voir port())
+     * @param root           racine de l'application (équivalent du répertoire du WAR), servie telle quelle
+     * @param initParameters init-params du FrontServlet et paramètres du serveur
+     */
+    public EmbeddedServer(int port, Path root, Map<String, String> initParameters) {
+        this.port = port;
+        this.root = Objects.requireNonNull(root, "root");
+        this.initParameters = new LinkedHashMap<>(initParameters);
+
+        String configThreads = initParameters.get("serverThreads");
+        if (configThreads != null && !configThreads.isEmpty()) {
+            this.serverThreads = Integer.parseInt(configThreads);
+        }
+        String configMaxRequestSize = initParameters.get("maxRequestSize");
+        if (configMaxRequestSize != null && !configMaxRequestSize.isEmpty()) {
+            this.maxRequestSize = Long.parseLong(configMaxRequestSize);
+        }
+        String configFileSizeThreshold = initParameters.get("fileSizeThreshold");
+        if (configFileSizeThreshold != null && !configFileSizeThreshold.isEmpty()) {
+            this.fileSizeThreshold = Long.parseLong(configFileSizeThreshold);
+        }
+        String configMaxPartCount = initParameters.get("maxPartCount");
+        if (configMaxPartCount != null && !configMaxPartCount.isEmpty()) {
+            this.maxPartCount = Integer.parseInt(configMaxPartCount);
+        }
+        String configMaxFormSize = initParameters.get("maxFormSize");
+        if (configMaxFormSize != null && !configMaxFormSize.isEmpty()) {
+            this.maxFormSize = Long.parseLong(configMaxFormSize);
+        }
+        String configSessionTimeout = initParameters.get("sessionTimeout");
+        if (configSessionTimeout != null && !configSessionTimeout.isEmpty()) {
+            this.sessionTimeout = Integer.parseInt(configSessionTimeout);
+        }
+        String configBufferSize = initParameters.get("responseBufferSize");
+        if (configBufferSize != null && !configBufferSize.isEmpty()) {
+            this.responseBufferSize = Integer.parseInt(configBufferSize);
+        }
+    }
+
+    /**
+     * Initialise le FrontServlet (scan ou index des routes) puis ouvre le port.
+     */
+    public synchronized void start() throws IOException, ServletException {
+        if (server != null) {
+            throw new IllegalStateException("Serveur déjà démarré");
+        }
+        if (!Files.isDirectory(root)) {
+            throw new IOException("Racine de l'application introuvable : " + root.toAbsolutePath());
+        }
+        context = EmbeddedContext.create(root);
+        sessions = new EmbeddedSessions(context, sessionTimeout);
+        frontServlet = new FrontServlet();
+        EmbeddedContext.bind(context, frontServlet);
+        frontServlet.init(config());
+
+        executor = VirtualThreads.newExecutor("http", serverThreads);
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+        LOG.info("Serveur embarqué : http://localhost:{}/ (racine {}, threads virtuels : {})",
+                port(), root.toAbsolutePath().normalize(), VirtualThreads.supported());
+    }
+
+    /**
+     * Ferme le port (les échanges en cours ont delaySeconds pour finir) puis détruit le servlet.
+     */
+    public synchronized void stop(int delaySeconds) {
+        if (server == null) {
+            return;
+        }
+        LOG.info("Arrêt du serveur embarqué (port {})", port());
+        server.stop(delaySeconds);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        frontServlet.destroy();
+        server = null;
+    }
+
+    /**
+     * Port effectivement ouvert (utile avec port=0).
+     */
+    public int port() {
+        return server == null ? port : server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) {
+        ExchangeResponse resp = new ExchangeResponse(exchange, responseBufferSize);
+        String path = path(exchange);
+        ExchangeRequest req = new ExchangeRequest(exchange, path, context, sessions, resp,
+                maxRequestSize, maxFormSize, fileSizeThreshold, maxPartCount);
+        try {
+            if (path == null) {
+                resp.sendError(HttpServletResponse.SC_BAD_REQUEST);
+                return;
+            }
+            if (!supported(exchange.getRequestMethod())) {
+                resp.setHeader("Allow", "GET, HEAD, POST");
+                resp.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+                return;
+            }
+            frontServlet.service(req, resp);
+            resp.finish();
+        } catch (Exception e) {
+            LOG.log(servlet.log.Level.ERROR, "{} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            if (!resp.isCommitted()) {
+                try {
+                    resp.reset();
+                    resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                } catch (IOException | RuntimeException ignored) {
+                    // client parti
+                }
+            }
+        } finally {
+            req.finish();
+            exchange.close();
+        }
+    }
+
+    // Chemin décodé et normalisé, null si refusé : séparateurs ou NUL encodés (comme Tomcat), sortie de la racine
+    private static String path(HttpExchange exchange) {
+        String raw = exchange.getRequestURI().getRawPath();
+        if (raw == null) {
+            return null;
+        }
+        String lower = raw.toLowerCase(Locale.ROOT);
+        if (lower.contains("%2f") || lower.contains("%5c") || lower.contains("%00")) {
+            return null;
+        }
+        return ExchangeRequest.normalize(exchange.getRequestURI().getPath());
+    }
+
+    // Méthodes routables (HttpMethod), plus HEAD vue comme un GET ; PUT/... ne sont pas transmises au servlet
+    private static boolean supported(String method) {
+        if ("HEAD".equals(method)) {
+            return true;
+        }
+        for (servlet.http.HttpMethod candidate : servlet.http.HttpMethod.values()) {
+            if (candidate.name().equals(method)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ServletConfig config() {
+        return new ServletConfig() {
+            @Override
+            public String getServletName() {
+                return "FrontServlet";
+            }
+
+            @Override
+            public ServletContext getServletContext() {
+                return context;
+            }
+
+            @Override
+            public String getInitParameter(String name) {
+                return initParameters.get(name);
+            }
+
+            @Override
+            public Enumeration<String> getInitParameterNames() {
+                return Collections.enumeration(initParameters.keySet());
+            }
+        };
+    }
+
+    /**
+     * Arguments nom=valeur : port, root, paramètres du serveur et init-params du FrontServlet.
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals <= 0) {
+                System.err.println("Argument ignoré (nom=valeur attendu) : " + arg);
+                continue;
+            }
+            String name = arg.startsWith("--") ? arg.substring(2, equals) : arg.substring(0, equals);
+            parameters.put(name, arg.substring(equals + 1));
+        }
+        String configPort = parameters.remove("port");
+        String configRoot = parameters.remove("root");
+        if (configRoot == null || configRoot.isEmpty()) {
+            // Pas de racine par défaut : servir le répertoire courant exposerait sources et configuration
+            System.err.println("Paramètre root obligatoire (répertoire de l'application), ex. root=web");
+            System.exit(2);
+        }
+        int port = configPort != null && !configPort.isEmpty() ? Integer.parseInt(configPort) : 8080;
+        Path root = Paths.get(configRoot);
+
+        EmbeddedServer server = new EmbeddedServer(port, root, parameters);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(2), "http-shutdown"));
+    }
+}
@@ -0,0 +1,188 @@
+package servlet;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpSession;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sessions en mémoire du serveur embarqué, identifiées par le cookie JSESSIONID.
+ * Une session inactive plus de maxInactiveInterval secondes est invalidée à la lecture
+ * suivante, et les sessions expirées sont purgées au plus une fois par minute.
+ */
+final class EmbeddedSessions {
+
+    static final String COOKIE = "JSESSIONID";
+
+    private static final long SWEEP_INTERVAL = 60_000; // ms
+
+    private final ServletContext context;
+    private final int maxInactiveInterval;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private volatile long lastSweep = System.currentTimeMillis();
+
+    EmbeddedSessions(ServletContext context, int maxInactiveInterval) {
+        this.context = context;
+        this.maxInactiveInterval = maxInactiveInterval;
+    }
+
+    /**
+     * Session valide d'identifiant id (date d'accès mise à jour), ou null.
+     */
+    HttpSession find(String id) {
+        if (id == null) {
+            return null;
+        }
+        Session session = sessions.get(id);
+        if (session == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (session.expired(now)) {
+            session.valid = false;
+            sessions.remove(id, session);
+            return null;
+        }
+        session.lastAccessedTime = now;
+        session.isNew = false;
+        return session;
+    }
+
+    HttpSession create() {
+        long now = System.currentTimeMillis();
+        if (now - lastSweep > SWEEP_INTERVAL) {
+            lastSweep = now;
+            sessions.values().removeIf(session -> session.expired(now));
+        }
+        Session session = new Session(newId(), now);
+        sessions.put(session.id, session);
+        return session;
+    }
+
+    /**
+     * Nouvel identifiant pour une session existante (attributs conservés).
+     */
+    String changeId(HttpSession current) {
+        Session session = (Session) current;
+        synchronized (session) {
+            session.checkValid();
+            String id = newId();
+            sessions.put(id, session);
+            sessions.remove(session.id, session);
+            session.id = id;
+            return id;
+        }
+    }
+
+    private String newId() {
+        byte[] bytes = new byte[18];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private final class Session implements HttpSession {
+        volatile String id;
+        final long creationTime;
+        final Map<String, Object> attributes = new ConcurrentHashMap<>();
+        volatile long lastAccessedTime;
+        volatile int maxInactive = maxInactiveInterval;
+        volatile boolean isNew = true;
+        volatile boolean valid = true;
+
+        Session(String id, long now) {
+            this.id = id;
+            this.creationTime = now;
+            this.lastAccessedTime = now;
+        }
+
+        boolean expired(long now) {
+            return !valid || (maxInactive > 0 && now - lastAccessedTime > maxInactive * 1000L);
+        }
+
+        private void checkValid() {
+            if (!valid) {
+                throw new IllegalStateException("Session " + id + " invalidée");
+            }
+        }
+
+        @Override
+        public long getCreationTime() {
+            checkValid();
+            return creationTime;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public long getLastAccessedTime() {
+            checkValid();
+            return lastAccessedTime;
+        }
+
+        @Override
+        public ServletContext getServletContext() {
+            return context;
+        }
+
+        @Override
+        public void setMaxInactiveInterval(int interval) {
+            this.maxInactive = interval;
+        }
+
+        @Override
+        public int getMaxInactiveInterval() {
+            return maxInactive;
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            checkValid();
+            return attributes.get(name);
+        }
+
+        @Override
+        public Enumeration<String> getAttributeNames() {
+            checkValid();
+            return Collections.enumeration(attributes.keySet());
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+            checkValid();
+            if (value == null) {
+                attributes.remove(name);
+            } else {
+                attributes.put(name, value);
+            }
+        }
+
+        @Override
+        public void removeAttribute(String name) {
+            checkValid();
+            attributes.remove(name);
+        }
+
+        @Override
+        public void invalidate() {
+            checkValid();
+            valid = false;
+            sessions.remove(id, this);
+            attributes.clear();
+        }
+
+        @Override
+        public boolean isNew() {
+            checkValid();
+            return isNew;
+        }
+    }
+}
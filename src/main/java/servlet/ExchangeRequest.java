@@ -0,0 +1,831 @@
+package servlet;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpsExchange;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.Part;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * HttpServletRequest au-dessus d'un HttpExchange (serveur embarqué).
+ * Paramètres lus dans la query puis dans le corps (formulaire urlencoded, en mémoire jusqu'à
+ * maxFormSize, ou champs multipart, lus en flux) ; session par cookie JSESSIONID.
+ * getServletPath() est le chemin décodé et normalisé (getPathInfo() null, servlet mappé sur "/").
+ * Non disponibles : asynchrone (startAsync lève IllegalStateException, les routes CompletionStage
+ * et @VirtualThread s'exécutent sur le thread de la requête), authentification du conteneur
+ * (login/authenticate lèvent ServletException, SecurityRule lit la session), upgrade, push et
+ * trailers.
+ */
+final class ExchangeRequest extends HttpServletRequestWrapper {
+
+    private static final HttpServletRequest UNSUPPORTED = (HttpServletRequest) Proxy.newProxyInstance(
+            ExchangeRequest.class.getClassLoader(), new Class<?>[] { HttpServletRequest.class },
+            (proxy, method, args) -> {
+                throw new UnsupportedOperationException("HttpServletRequest." + method.getName()
+                        + " non disponible dans le serveur embarqué");
+            });
+
+    private static final String FORM = "application/x-www-form-urlencoded";
+
+    private final HttpExchange exchange;
+    private final ServletContext context;
+    private final EmbeddedSessions sessions;
+    private final ExchangeResponse response;
+    private final String path; // décodé et normalisé
+    private final long maxBodySize;
+    private final long maxFormSize;
+    private final long fileSizeThreshold;
+    private final int maxPartCount;
+    private final Map<String, Object> attributes = new HashMap<>();
+    private String characterEncoding;
+    private Map<String, String[]> parameters;
+    private List<Part> parts;
+    private byte[] body; // corps urlencoded lu pour les paramètres
+    private boolean streamUsed;
+    private Cookie[] cookies;
+    private HttpSession session;
+    private boolean sessionLookedUp;
+
+    /**
+     * @param path              chemin décodé et normalisé (voir normalize)
+     * @param maxBodySize       taille maximale d'un corps multipart (lu en flux)
+     * @param maxFormSize       taille maximale d'un formulaire urlencoded (lu en mémoire)
+     * @param fileSizeThreshold parties multipart gardées en mémoire jusqu'à ce total, fichier temporaire ensuite
+     * @param maxPartCount      nombre maximal de parties multipart
+     */
+    ExchangeRequest(HttpExchange exchange, String path, ServletContext context, EmbeddedSessions sessions,
+            ExchangeResponse response, long maxBodySize, long maxFormSize, long fileSizeThreshold, int maxPartCount) {
+        super(UNSUPPORTED);
+        this.exchange = exchange;
+        this.path = path;
+        this.context = context;
+        this.sessions = sessions;
+        this.response = response;
+        this.maxBodySize = maxBodySize;
+        this.maxFormSize = maxFormSize;
+        this.fileSizeThreshold = fileSizeThreshold;
+        this.maxPartCount = maxPartCount;
+    }
+
+    /**
+     * Chemin décodé ramené à sa forme normale (segments vides et "." retirés, ".." résolus),
+     * ou null s'il sort de la racine ou contient \ ou NUL : la requête est alors refusée (400).
+     */
+    static String normalize(String decoded) {
+        if (decoded == null || decoded.isEmpty() || decoded.charAt(0) != '/'
+                || decoded.indexOf('\\') >= 0 || decoded.indexOf('\0') >= 0) {
+            return null;
+        }
+        if (!decoded.contains("//") && !decoded.contains("/./") && !decoded.contains("/../")
+                && !decoded.endsWith("/.") && !decoded.endsWith("/..")) {
+            return decoded; // cas courant : déjà normalisé
+        }
+        java.util.Deque<String> segments = new java.util.ArrayDeque<>();
+        for (String segment : decoded.split("/")) {
+            if (segment.isEmpty() || segment.equals(".")) {
+                continue;
+            }
+            if (segment.equals("..")) {
+                if (segments.pollLast() == null) {
+                    return null;
+                }
+            } else {
+                segments.addLast(segment);
+            }
+        }
+        String normalized = "/" + String.join("/", segments);
+        boolean directory = decoded.endsWith("/") || decoded.endsWith("/.") || decoded.endsWith("/..");
+        return directory && !segments.isEmpty() ? normalized + "/" : normalized;
+    }
+
+    /**
+     * Fin de la requête : fichiers temporaires des parties multipart supprimés.
+     */
+    void finish() {
+        if (parts != null) {
+            for (Part part : parts) {
+                try {
+                    part.delete();
+                } catch (IOException ignored) {
+                    // fichier temporaire laissé au système
+                }
+            }
+        }
+    }
+
+    // ---- Ligne de requête ----
+    @Override
+    public String getMethod() {
+        String method = exchange.getRequestMethod();
+        return "HEAD".equals(method) ? "GET" : method; // corps écarté par ExchangeResponse
+    }
+
+    @Override
+    public String getRequestURI() {
+        return exchange.getRequestURI().getRawPath();
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        StringBuffer url = new StringBuffer(getScheme()).append("://").append(getServerName());
+        int port = getServerPort();
+        if (port != (isSecure() ? 443 : 80)) {
+            url.append(':').append(port);
+        }
+        return url.append(getRequestURI());
+    }
+
+    @Override
+    public String getQueryString() {
+        return exchange.getRequestURI().getRawQuery();
+    }
+
+    @Override
+    public String getContextPath() {
+        return "";
+    }
+
+    // Servlet mappé sur "/" : tout le chemin est le servletPath, comme dans Tomcat
+    @Override
+    public String getServletPath() {
+        return path;
+    }
+
+    @Override
+    public String getPathInfo() {
+        return null;
+    }
+
+    @Override
+    public String getPathTranslated() {
+        return null;
+    }
+
+    @Override
+    public jakarta.servlet.http.HttpServletMapping getHttpServletMapping() {
+        return new jakarta.servlet.http.HttpServletMapping() {
+            @Override
+            public String getMatchValue() {
+                return "";
+            }
+
+            @Override
+            public String getPattern() {
+                return "/";
+            }
+
+            @Override
+            public String getServletName() {
+                return "FrontServlet";
+            }
+
+            @Override
+            public jakarta.servlet.http.MappingMatch getMappingMatch() {
+                return jakarta.servlet.http.MappingMatch.DEFAULT;
+            }
+        };
+    }
+
+    @Override
+    public String getProtocol() {
+        return exchange.getProtocol();
+    }
+
+    @Override
+    public String getScheme() {
+        return isSecure() ? "https" : "http";
+    }
+
+    @Override
+    public boolean isSecure() {
+        return exchange instanceof HttpsExchange;
+    }
+
+    @Override
+    public String getServerName() {
+        String host = getHeader("Host");
+        if (host == null) {
+            return exchange.getLocalAddress().getHostString();
+        }
+        int colon = host.lastIndexOf(':');
+        return colon > 0 && host.indexOf(']', colon) < 0 ? host.substring(0, colon) : host;
+    }
+
+    @Override
+    public int getServerPort() {
+        String host = getHeader("Host");
+        int colon = host == null ? -1 : host.lastIndexOf(':');
+        if (colon > 0 && host.indexOf(']', colon) < 0) {
+            try {
+                return Integer.parseInt(host.substring(colon + 1));
+            } catch (NumberFormatException e) {
+                // Host invalide : port local
+            }
+        }
+        return host == null ? getLocalPort() : isSecure() ? 443 : 80;
+    }
+
+    @Override
+    public int getLocalPort() {
+        return exchange.getLocalAddress().getPort();
+    }
+
+    @Override
+    public String getLocalAddr() {
+        return exchange.getLocalAddress().getAddress().getHostAddress();
+    }
+
+    @Override
+    public String getLocalName() {
+        return exchange.getLocalAddress().getHostString();
+    }
+
+    @Override
+    public String getRemoteAddr() {
+        InetSocketAddress remote = exchange.getRemoteAddress();
+        return remote.getAddress() == null ? remote.getHostString() : remote.getAddress().getHostAddress();
+    }
+
+    @Override
+    public String getRemoteHost() {
+        return getRemoteAddr(); // pas de résolution DNS
+    }
+
+    @Override
+    public int getRemotePort() {
+        return exchange.getRemoteAddress().getPort();
+    }
+
+    @Override
+    public DispatcherType getDispatcherType() {
+        return DispatcherType.REQUEST;
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        return context;
+    }
+
+    // ---- En-têtes ----
+    @Override
+    public String getHeader(String name) {
+        return exchange.getRequestHeaders().getFirst(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        List<String> values = exchange.getRequestHeaders().get(name);
+        return values == null ? Collections.emptyEnumeration() : Collections.enumeration(values);
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(exchange.getRequestHeaders().keySet());
+    }
+
+    @Override
+    public int getIntHeader(String name) {
+        String value = getHeader(name);
+        return value == null ? -1 : Integer.parseInt(value.trim());
+    }
+
+    @Override
+    public long getDateHeader(String name) {
+        String value = getHeader(name);
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("En-tête " + name + " : date invalide " + value, e);
+        }
+    }
+
+    @Override
+    public String getContentType() {
+        return getHeader("Content-Type");
+    }
+
+    @Override
+    public int getContentLength() {
+        long length = getContentLengthLong();
+        return length > Integer.MAX_VALUE ? -1 : (int) length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        String value = getHeader("Content-Length");
+        return value == null ? -1 : Long.parseLong(value.trim());
+    }
+
+    @Override
+    public Locale getLocale() {
+        String language = getHeader("Accept-Language");
+        if (language == null || language.isBlank()) {
+            return Locale.getDefault();
+        }
+        String first = language.split(",")[0];
+        int quality = first.indexOf(';');
+        return Locale.forLanguageTag((quality < 0 ? first : first.substring(0, quality)).trim());
+    }
+
+    @Override
+    public Enumeration<Locale> getLocales() {
+        return Collections.enumeration(List.of(getLocale()));
+    }
+
+    @Override
+    public Cookie[] getCookies() {
+        if (cookies == null) {
+            List<Cookie> parsed = new ArrayList<>();
+            for (String header : exchange.getRequestHeaders().getOrDefault("Cookie", List.of())) {
+                for (String pair : header.split(";")) {
+                    int equals = pair.indexOf('=');
+                    if (equals > 0) {
+                        String value = pair.substring(equals + 1).trim();
+                        if (value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) {
+                            value = value.substring(1, value.length() - 1);
+                        }
+                        try {
+                            parsed.add(new Cookie(pair.substring(0, equals).trim(), value));
+                        } catch (IllegalArgumentException e) {
+                            // nom de cookie invalide : ignoré
+                        }
+                    }
+                }
+            }
+            cookies = parsed.toArray(new Cookie[0]);
+        }
+        return cookies.length == 0 ? null : cookies.clone();
+    }
+
+    // ---- Attributs ----
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    // ---- Paramètres ----
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding;
+    }
+
+    @Override
+    public void setCharacterEncoding(String encoding) throws UnsupportedEncodingException {
+        if (!Charset.isSupported(encoding)) {
+            throw new UnsupportedEncodingException(encoding);
+        }
+        if (parameters == null) {
+            characterEncoding = encoding;
+        }
+    }
+
+    @Override
+    public String getParameter(String name) {
+        String[] values = parameters().get(name);
+        return values == null || values.length == 0 ? null : values[0];
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        String[] values = parameters().get(name);
+        return values == null ? null : values.clone();
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return Collections.unmodifiableMap(parameters());
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parameters().keySet());
+    }
+
+    private Map<String, String[]> parameters() {
+        if (parameters == null) {
+            Map<String, List<String>> values = new LinkedHashMap<>();
+            Charset charset = charset();
+            decode(getQueryString(), charset, values);
+            if (!streamUsed && "POST".equals(getMethod())) {
+                String contentType = getContentType();
+                try {
+                    if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith(FORM)) {
+                        decode(new String(body(), StandardCharsets.ISO_8859_1), charset, values);
+                    } else if (MultipartBody.boundary(contentType) != null) {
+                        for (Part part : multipart()) {
+                            if (part.getSubmittedFileName() == null && part.getName() != null) {
+                                values.computeIfAbsent(part.getName(), k -> new ArrayList<>())
+                                        .add(((MultipartBody.StoredPart) part).text(charset));
+                            }
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException("Lecture du corps impossible : " + e.getMessage(), e);
+                }
+            }
+            Map<String, String[]> map = new LinkedHashMap<>();
+            values.forEach((name, list) -> map.put(name, list.toArray(new String[0])));
+            parameters = map;
+        }
+        return parameters;
+    }
+
+    private Charset charset() {
+        return characterEncoding == null ? StandardCharsets.UTF_8 : Charset.forName(characterEncoding);
+    }
+
+    // a=1&b=2&a=3 ; les octets sont gardés tels quels (ISO-8859-1) puis décodés avec charset
+    static void decode(String query, Charset charset, Map<String, List<String>> values) {
+        if (query == null || query.isEmpty()) {
+            return;
+        }
+        for (String pair : query.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            try {
+                values.computeIfAbsent(URLDecoder.decode(name, charset), k -> new ArrayList<>())
+                        .add(URLDecoder.decode(value, charset));
+            } catch (IllegalArgumentException e) {
+                // séquence %xx invalide : paramètre ignoré, comme le fait Tomcat
+            }
+        }
+    }
+
+    // ---- Corps ----
+    // Formulaire urlencoded : en mémoire, borné par maxFormSize
+    private byte[] body() throws IOException {
+        if (body == null) {
+            long length = getContentLengthLong();
+            if (length > maxFormSize) {
+                throw new IOException("Formulaire de " + length + " octets (maximum " + maxFormSize + ")");
+            }
+            try (InputStream in = exchange.getRequestBody()) {
+                byte[] read = in.readNBytes((int) Math.min(maxFormSize + 1, Integer.MAX_VALUE - 8));
+                if (read.length > maxFormSize) {
+                    throw new IOException("Formulaire supérieur à " + maxFormSize + " octets");
+                }
+                body = read;
+            }
+        }
+        return body;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        streamUsed = true;
+        InputStream in = body != null ? new ByteArrayInputStream(body) : exchange.getRequestBody();
+        return new ServletInputStream() {
+            private boolean finished;
+
+            @Override
+            public int read() throws IOException {
+                int b = in.read();
+                finished = b < 0;
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = in.read(b, off, len);
+                finished = n < 0;
+                return n;
+            }
+
+            @Override
+            public boolean isFinished() {
+                return finished;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            // Lecture bloquante : onDataAvailable puis onAllDataRead, aussitôt
+            @Override
+            public void setReadListener(ReadListener listener) {
+                try {
+                    listener.onDataAvailable();
+                    listener.onAllDataRead();
+                } catch (IOException e) {
+                    listener.onError(e);
+                }
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        return new BufferedReader(new InputStreamReader(getInputStream(), charset()));
+    }
+
+    @Override
+    public Collection<Part> getParts() throws IOException, ServletException {
+        return Collections.unmodifiableList(multipart());
+    }
+
+    @Override
+    public Part getPart(String name) throws IOException, ServletException {
+        for (Part part : multipart()) {
+            if (name.equals(part.getName())) {
+                return part;
+            }
+        }
+        return null;
+    }
+
+    // Corps lu en flux : parties en mémoire jusqu'à fileSizeThreshold, puis fichiers temporaires
+    private List<Part> multipart() throws IOException {
+        if (parts == null) {
+            String boundary = MultipartBody.boundary(getContentType());
+            if (boundary == null) {
+                throw new IllegalStateException("Requête non multipart : " + getContentType());
+            }
+            if (streamUsed) {
+                throw new IllegalStateException("Corps déjà lu par getInputStream()");
+            }
+            long length = getContentLengthLong();
+            if (length > maxBodySize) {
+                throw new IOException("Corps de " + length + " octets (maximum " + maxBodySize + ")");
+            }
+            try (InputStream in = exchange.getRequestBody()) {
+                parts = MultipartBody.parse(in, boundary, charset(), fileSizeThreshold, maxBodySize, maxPartCount);
+            }
+        }
+        return parts;
+    }
+
+    // ---- Session ----
+    @Override
+    public HttpSession getSession() {
+        return getSession(true);
+    }
+
+    @Override
+    public HttpSession getSession(boolean create) {
+        if (session != null && !isValid(session)) {
+            session = null;
+        }
+        if (session == null && !sessionLookedUp) {
+            sessionLookedUp = true;
+            session = sessions.find(getRequestedSessionId());
+        }
+        if (session == null && create) {
+            session = sessions.create();
+            addSessionCookie(session.getId());
+        }
+        return session;
+    }
+
+    private void addSessionCookie(String id) {
+        Cookie cookie = new Cookie(EmbeddedSessions.COOKIE, id);
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setSecure(isSecure());
+        response.addCookie(cookie);
+    }
+
+    private static boolean isValid(HttpSession session) {
+        try {
+            session.getCreationTime();
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    // Nouvel identifiant pour la session courante (après connexion : pas de fixation de session)
+    @Override
+    public String changeSessionId() {
+        HttpSession current = getSession(false);
+        if (current == null) {
+            throw new IllegalStateException("Aucune session associée à la requête");
+        }
+        String id = sessions.changeId(current);
+        addSessionCookie(id);
+        return id;
+    }
+
+    @Override
+    public String getRequestedSessionId() {
+        Cookie[] all = getCookies();
+        if (all != null) {
+            for (Cookie cookie : all) {
+                if (EmbeddedSessions.COOKIE.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdValid() {
+        HttpSession current = getSession(false);
+        return current != null && current.getId().equals(getRequestedSessionId());
+    }
+
+    @Override
+    public boolean isRequestedSessionIdFromCookie() {
+        return getRequestedSessionId() != null;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdFromURL() {
+        return false;
+    }
+
+    // ---- Sécurité du conteneur : non utilisée (SecurityRule lit la session) ----
+    @Override
+    public String getAuthType() {
+        return null;
+    }
+
+    @Override
+    public String getRemoteUser() {
+        return null;
+    }
+
+    @Override
+    public java.security.Principal getUserPrincipal() {
+        return null;
+    }
+
+    @Override
+    public boolean isUserInRole(String role) {
+        return false;
+    }
+
+    @Override
+    public boolean authenticate(HttpServletResponse response) throws ServletException {
+        throw new ServletException("Authentification du conteneur non disponible dans le serveur embarqué");
+    }
+
+    @Override
+    public void login(String username, String password) throws ServletException {
+        throw new ServletException("Authentification du conteneur non disponible dans le serveur embarqué");
+    }
+
+    @Override
+    public void logout() {
+        // pas d'utilisateur authentifié par le conteneur
+    }
+
+    @Override
+    public <T extends jakarta.servlet.http.HttpUpgradeHandler> T upgrade(Class<T> handlerClass)
+            throws ServletException {
+        throw new ServletException("Upgrade non disponible dans le serveur embarqué");
+    }
+
+    @Override
+    public jakarta.servlet.http.PushBuilder newPushBuilder() {
+        return null; // push non disponible
+    }
+
+    @Override
+    public Map<String, String> getTrailerFields() {
+        return Map.of();
+    }
+
+    @Override
+    public boolean isTrailerFieldsReady() {
+        return true;
+    }
+
+    // ---- Connexion ----
+    @Override
+    public String getRequestId() {
+        return Integer.toHexString(System.identityHashCode(this));
+    }
+
+    @Override
+    public String getProtocolRequestId() {
+        return "";
+    }
+
+    @Override
+    public jakarta.servlet.ServletConnection getServletConnection() {
+        return new jakarta.servlet.ServletConnection() {
+            @Override
+            public String getConnectionId() {
+                return Integer.toHexString(System.identityHashCode(exchange.getHttpContext()))
+                        + "-" + exchange.getRemoteAddress().getPort();
+            }
+
+            @Override
+            public String getProtocol() {
+                return exchange.getProtocol();
+            }
+
+            @Override
+            public String getProtocolConnectionId() {
+                return "";
+            }
+
+            @Override
+            public boolean isSecure() {
+                return ExchangeRequest.this.isSecure();
+            }
+        };
+    }
+
+    // ---- Asynchrone : non disponible ----
+    @Override
+    public boolean isAsyncSupported() {
+        return false;
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return false;
+    }
+
+    @Override
+    public AsyncContext startAsync() {
+        throw new IllegalStateException("Asynchrone non disponible dans le serveur embarqué");
+    }
+
+    @Override
+    public AsyncContext startAsync(ServletRequest request, ServletResponse response) {
+        return startAsync();
+    }
+
+    @Override
+    public AsyncContext getAsyncContext() {
+        throw new IllegalStateException("Requête non asynchrone");
+    }
+
+    // ---- Dispatch : de nouveau vers le FrontServlet (chemin relatif : par rapport au chemin courant) ----
+    @Override
+    public RequestDispatcher getRequestDispatcher(String target) {
+        if (target == null) {
+            return null;
+        }
+        if (!target.startsWith("/")) {
+            target = path.substring(0, path.lastIndexOf('/') + 1) + target;
+        }
+        return context.getRequestDispatcher(target);
+    }
+}
@@ -0,0 +1,465 @@
+package servlet;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.nio.charset.Charset;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * HttpServletResponse au-dessus d'un HttpExchange (serveur embarqué).
+ * Le corps est tamponné (bufferSize octets) : une réponse qui tient dans le tampon part avec
+ * son Content-Length, une plus grosse en chunked dès que le tampon déborde (réponse validée).
+ * Non disponibles : trailers (setTrailerFields lève IllegalStateException) et Content-Language
+ * (setLocale ignoré) ; l'écriture « non bloquante » est bloquante (onWritePossible appelé aussitôt).
+ */
+final class ExchangeResponse extends HttpServletResponseWrapper {
+
+    private static final HttpServletResponse UNSUPPORTED = (HttpServletResponse) Proxy.newProxyInstance(
+            ExchangeResponse.class.getClassLoader(), new Class<?>[] { HttpServletResponse.class },
+            (proxy, method, args) -> {
+                throw new UnsupportedOperationException("HttpServletResponse." + method.getName()
+                        + " non disponible dans le serveur embarqué");
+            });
+
+    static final DateTimeFormatter HTTP_DATE = DateTimeFormatter
+            .ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US).withZone(ZoneOffset.UTC);
+
+    private final HttpExchange exchange;
+    private final Headers headers;
+    private int status = SC_OK;
+    private String contentType;
+    private String characterEncoding = "ISO-8859-1";
+    private boolean charsetSet; // charset explicite ou writer demandé : ajouté au Content-Type
+    private long contentLength = -1;
+    private byte[] buffer;
+    private int count;
+    private boolean committed;
+    private final boolean head; // HEAD : traitée comme GET, corps ignoré
+    private boolean discard; // HEAD, 1xx, 204, 304 : corps ignoré
+    private boolean closed;
+    private OutputStream body; // flux de l'échange, une fois les en-têtes envoyés
+    private ServletOutputStream stream;
+    private PrintWriter writer;
+
+    ExchangeResponse(HttpExchange exchange, int bufferSize) {
+        super(UNSUPPORTED);
+        this.exchange = exchange;
+        this.headers = exchange.getResponseHeaders();
+        this.buffer = new byte[bufferSize];
+        this.head = "HEAD".equals(exchange.getRequestMethod());
+    }
+
+    /**
+     * Fin de la requête : vide le writer, envoie les en-têtes si besoin et ferme le corps.
+     */
+    void finish() throws IOException {
+        if (closed) {
+            return;
+        }
+        if (writer != null) {
+            writer.flush();
+        }
+        if (!committed) {
+            commit(count);
+        }
+        if (count > 0) {
+            body.write(buffer, 0, count);
+            count = 0;
+        }
+        closed = true;
+        body.close();
+    }
+
+    // Envoi des en-têtes ; length >= 0 : taille totale connue (0 => pas de corps pour HttpServer)
+    private void commit(long length) throws IOException {
+        committed = true;
+        if (contentType != null) {
+            headers.set("Content-Type", getContentType());
+        }
+        long declared = contentLength >= 0 ? contentLength : length;
+        discard = head || status == SC_NO_CONTENT || status == SC_NOT_MODIFIED || status < 200;
+        if (head && declared > 0 && status >= 200 && status != SC_NO_CONTENT && status != SC_NOT_MODIFIED) {
+            headers.set("Content-Length", Long.toString(declared)); // celui qu'aurait eu le GET
+        }
+        // sendResponseHeaders : -1 = sans corps, 0 = chunked
+        exchange.sendResponseHeaders(status, discard || declared == 0 ? -1 : declared < 0 ? 0 : declared);
+        // HEAD : HttpServer ne fournit aucun flux de corps (écriture comme fermeture lèvent IOException)
+        body = head ? OutputStream.nullOutputStream() : exchange.getResponseBody();
+        if (discard) {
+            count = 0;
+        }
+    }
+
+    private void write(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            return; // après sendError / sendRedirect
+        }
+        if (committed && count == 0) {
+            if (!discard) {
+                body.write(b, off, len);
+            }
+            return;
+        }
+        if (count + len <= buffer.length) {
+            System.arraycopy(b, off, buffer, count, len);
+            count += len;
+            return;
+        }
+        // Tampon plein : en-têtes envoyés (Content-Length si déclaré, sinon chunked)
+        if (!committed) {
+            commit(-1);
+        }
+        if (!discard) {
+            body.write(buffer, 0, count);
+            body.write(b, off, len);
+        }
+        count = 0;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (stream == null) {
+            stream = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    ExchangeResponse.this.write(new byte[] { (byte) b }, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    ExchangeResponse.this.write(b, off, len);
+                }
+
+                // Ne valide pas la réponse (le writer et JsonWriter vident leur flux en fin d'écriture) :
+                // seul flushBuffer() envoie les en-têtes avant la fin, sinon le Content-Length serait perdu
+                @Override
+                public void flush() throws IOException {
+                    if (committed && !closed) {
+                        body.flush();
+                    }
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // Écriture bloquante : isReady() toujours vrai, onWritePossible appelé aussitôt
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                    try {
+                        listener.onWritePossible();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+        return stream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            charsetSet = true;
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), Charset.forName(characterEncoding)));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (closed) {
+            return;
+        }
+        if (writer != null) {
+            writer.flush();
+        }
+        if (!committed) {
+            commit(-1);
+        }
+        if (count > 0) {
+            if (!discard) {
+                body.write(buffer, 0, count);
+            }
+            count = 0;
+        }
+        body.flush();
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        status = SC_OK;
+        contentType = null;
+        charsetSet = false;
+        contentLength = -1;
+        headers.clear();
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (committed) {
+            throw new IllegalStateException("Réponse déjà validée");
+        }
+        count = 0;
+        writer = null;
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+        if (count > 0 || committed) {
+            throw new IllegalStateException("Contenu déjà écrit");
+        }
+        buffer = new byte[Math.max(size, 0)];
+    }
+
+    @Override
+    public int getBufferSize() {
+        return buffer.length;
+    }
+
+    @Override
+    public void setStatus(int status) {
+        if (!committed) {
+            this.status = status;
+        }
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void sendError(int status) throws IOException {
+        sendError(status, null);
+    }
+
+    @Override
+    public void sendError(int status, String message) throws IOException {
+        resetBuffer();
+        this.status = status;
+        setContentType("text/plain");
+        setCharacterEncoding("UTF-8");
+        getWriter().print(status + (message == null ? "" : " - " + message));
+        finish();
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        resetBuffer();
+        status = SC_FOUND;
+        headers.set("Location", location);
+        finish();
+    }
+
+    @Override
+    public void setContentType(String type) {
+        if (committed) {
+            return;
+        }
+        if (type == null) {
+            contentType = null;
+            return;
+        }
+        int separator = type.indexOf(';');
+        if (separator < 0) {
+            contentType = type.trim();
+            return;
+        }
+        contentType = type.substring(0, separator).trim();
+        for (String parameter : type.substring(separator + 1).split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.regionMatches(true, 0, "charset=", 0, 8) && writer == null) {
+                characterEncoding = trimmed.substring(8).replace("\"", "");
+                charsetSet = true;
+            }
+        }
+    }
+
+    @Override
+    public String getContentType() {
+        if (contentType == null) {
+            return null;
+        }
+        return charsetSet ? contentType + ";charset=" + characterEncoding : contentType;
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+        if (!committed && writer == null && charset != null) {
+            characterEncoding = charset;
+            charsetSet = true;
+        }
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (!committed) {
+            contentLength = len;
+        }
+    }
+
+    @Override
+    public void setLocale(Locale locale) {
+        // pas de Content-Language : ignoré
+    }
+
+    @Override
+    public Locale getLocale() {
+        return Locale.getDefault();
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (committed) {
+            return;
+        }
+        if ("Content-Type".equalsIgnoreCase(name)) {
+            setContentType(value);
+        } else if ("Content-Length".equalsIgnoreCase(name)) {
+            setContentLengthLong(value == null ? -1 : Long.parseLong(value.trim()));
+        } else if (value == null) {
+            headers.remove(name);
+        } else {
+            headers.set(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (!committed && value != null) {
+            headers.add(name, value);
+        }
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        setHeader(name, HTTP_DATE.format(Instant.ofEpochMilli(date)));
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        addHeader(name, HTTP_DATE.format(Instant.ofEpochMilli(date)));
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        addHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        if ("Content-Type".equalsIgnoreCase(name)) {
+            return contentType != null;
+        }
+        if ("Content-Length".equalsIgnoreCase(name)) {
+            return contentLength >= 0;
+        }
+        return headers.containsKey(name);
+    }
+
+    @Override
+    public String getHeader(String name) {
+        if ("Content-Type".equalsIgnoreCase(name)) {
+            return getContentType();
+        }
+        if ("Content-Length".equalsIgnoreCase(name)) {
+            return contentLength < 0 ? null : String.valueOf(contentLength);
+        }
+        return headers.getFirst(name);
+    }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        List<String> values = headers.get(name);
+        return values == null ? List.of() : List.copyOf(values);
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return List.copyOf(headers.keySet());
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        StringBuilder header = new StringBuilder(cookie.getName()).append('=').append(cookie.getValue());
+        if (cookie.getPath() != null) {
+            header.append("; Path=").append(cookie.getPath());
+        }
+        if (cookie.getDomain() != null) {
+            header.append("; Domain=").append(cookie.getDomain());
+        }
+        if (cookie.getMaxAge() >= 0) {
+            header.append("; Max-Age=").append(cookie.getMaxAge());
+        }
+        if (cookie.getSecure()) {
+            header.append("; Secure");
+        }
+        if (cookie.isHttpOnly()) {
+            header.append("; HttpOnly");
+        }
+        String sameSite = cookie.getAttribute("SameSite");
+        if (sameSite != null) {
+            header.append("; SameSite=").append(sameSite);
+        }
+        addHeader("Set-Cookie", header.toString());
+    }
+
+    @Override
+    public void setTrailerFields(java.util.function.Supplier<java.util.Map<String, String>> supplier) {
+        throw new IllegalStateException("Trailers non disponibles dans le serveur embarqué");
+    }
+
+    @Override
+    public java.util.function.Supplier<java.util.Map<String, String>> getTrailerFields() {
+        return null;
+    }
+
+    @Override
+    public String encodeURL(String url) {
+        return url; // session par cookie uniquement
+    }
+
+    @Override
+    public String encodeRedirectURL(String url) {
+        return url;
+    }
+}
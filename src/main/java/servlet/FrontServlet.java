@@ -7,32 +7,112 @@ import servlet.annotations.Url;
 
 import java.io.IOException;
 import java.io.File;
-import java.io.InputStream;
-import java.io.FileOutputStream;
-import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import servlet.annotations.Url;
 
 @MultipartConfig
 public class FrontServlet extends HttpServlet {
 
+    private static final servlet.log.Logger LOG = servlet.log.Logger.get(FrontServlet.class);
+
+    // Attribut de requête contenant les valeurs capturées par un chemin paramétré ({id})
+    public static final String PATH_VARIABLES = "servlet.pathVariables";
+
+    // 1er niveau : chemins exacts ; 2e niveau : chemins paramétrés
     private Map<String, Map<servlet.http.HttpMethod, MethodInvoker>> routes = new HashMap<>();
+    private servlet.http.RouteTrie<Map<servlet.http.HttpMethod, MethodInvoker>> templateRoutes =
+            new servlet.http.RouteTrie<>();
+
+    // Une instance (ou un pool) par classe de contrôleur, créée dans init()
+    private Map<Class<?>, ControllerProvider> controllers = new HashMap<>();
     
     // Configuration pour l'authentification et les rôles
     private String authSessionKey = "auth";  // clé par défaut
     private String roleSessionKey = "role";  // clé par défaut
 
+    // Compteurs par route, exposés sur metricsPath (init-param, ex. /_metrics) : non authentifié et
+    // prioritaire sur les routes, donc désactivé par défaut
+    private final servlet.metrics.MetricsRegistry metrics = new servlet.metrics.MetricsRegistry();
+    private String metricsPath;
+
+    // Cache des réponses @Cacheable (taille max en octets : init-param responseCacheSize)
+    private long responseCacheSize = 16 * 1024 * 1024;
+    private ResponseCache responseCache;
+    private boolean hasCachedRoutes;
+    private static final String CACHE_KEY = "servlet.cacheKey";
+    private static final String CACHE_GENERATION = "servlet.cacheGeneration";
+
+    // ETag calculé sur toutes les réponses GET (init-param etag) ; sinon seulement les routes @ETag
+    private boolean etags = false;
+
+    // Compression gzip/deflate des réponses JSON et texte négociée sur Accept-Encoding (null si désactivée)
+    private boolean compressionEnabled = true;
+    private int compressionThreshold = 1024; // octets
+    private int compressionLevel = java.util.zip.Deflater.DEFAULT_COMPRESSION;
+    private java.util.Set<String> compressionTypes = Compression.DEFAULT_TYPES;
+    private Compression compression;
+
+    // Fichiers statiques servis par le framework (init-params staticResources, staticCacheSize,
+    // staticCacheControl) ; sinon, ou pour les JSP, par le servlet "default" du conteneur
+    private boolean serveStatic = true;
+    private long staticCacheSize = 64 * 1024 * 1024;
+    private String staticCacheControl = "public, max-age=3600";
+    private StaticResources staticResources;
+
+    // Rendu des ModelView : "jsp" (forward vers /pages/, défaut) ou "template" (gabarits compilés,
+    // les vues .jsp restant transmises à la JSP) ; init-params templateCacheSize et templateReload
+    private String viewEngine = "jsp";
+    private int templateCacheSize = 256;
+    private boolean templateReload = false;
+    private servlet.view.TemplateEngine templates;
+
+    // Numérotation des rôles cités par les @Role (masques de bits)
+    private final SecurityRule.Roles roles = new SecurityRule.Roles();
+
+    // Packages scannés (init-param controllerPackages, séparés par des virgules) ; avec un index des routes,
+    // pas de scan, sauf routeIndexCheck=true (développement) : les méthodes absentes de l'index sont
+    // alors enregistrées par le scan, avec un avertissement
+    private List<String> controllerPackages = List.of("com.itu.gest_emp.controller");
+    private boolean routeIndexCheck = false;
+
+    // Moteur d'appel des contrôleurs : "methodhandle" (défaut) ou "reflection"
+    private String invocationEngine = InvocationEngine.METHOD_HANDLE;
+
+    // Délai max (ms) d'attente d'un contrôleur qui retourne un CompletionStage
+    private long asyncTimeout = 30_000;
+
+    // Taille max (octets) d'un fichier uploadé conservé aussi en mémoire (Upload.getContent())
+    private long uploadMemoryThreshold = 64 * 1024;
+
+    // Écritures d'uploads en parallèle (threads virtuels si disponibles, sinon pool borné)
+    private int uploadThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private volatile UploadStore uploadStore;
+    private static final String PENDING_UPLOADS = "servlet.pendingUploads";
+
+    // Contrôleurs @VirtualThread (ou tous si virtualThreads=true) : exécution hors du thread du conteneur
+    private boolean virtualThreads = false;
+    private int virtualThreadMaxConcurrency = 256;
+    private long virtualThreadPinnedThreshold = 20; // ms
+    private HandlerExecutor handlerExecutor;
+    private boolean hasVirtualThreadRoutes;
+
     // init est executé une seule fois au lancement de ce servlet
     @Override
     public void init() throws ServletException {
+        configureLogging();
+
         // Lire la configuration depuis web.xml
         String configAuthKey = getInitParameter("authSessionKey");
         String configRoleKey = getInitParameter("roleSessionKey");
@@ -45,42 +125,343 @@ public class FrontServlet extends HttpServlet {
             this.roleSessionKey = configRoleKey;
         }
         
-        System.out.println("🔐 Security config: authKey=" + authSessionKey + ", roleKey=" + roleSessionKey);
+        String configPackages = getInitParameter("controllerPackages");
+        if (configPackages != null && !configPackages.isEmpty()) {
+            List<String> packages = new ArrayList<>();
+            for (String packageName : configPackages.split(",")) {
+                if (!packageName.trim().isEmpty()) {
+                    packages.add(packageName.trim());
+                }
+            }
+            this.controllerPackages = packages;
+        }
+
+        String configRouteIndexCheck = getInitParameter("routeIndexCheck");
+        if (configRouteIndexCheck != null && !configRouteIndexCheck.isEmpty()) {
+            this.routeIndexCheck = Boolean.parseBoolean(configRouteIndexCheck.trim());
+        }
+
+        String configEngine = getInitParameter("invocationEngine");
+        if (configEngine != null && !configEngine.isEmpty()) {
+            this.invocationEngine = configEngine;
+        }
+
+        String configThreshold = getInitParameter("uploadMemoryThreshold");
+        if (configThreshold != null && !configThreshold.isEmpty()) {
+            this.uploadMemoryThreshold = Long.parseLong(configThreshold.trim());
+        }
+
+        String configAsyncTimeout = getInitParameter("asyncTimeout");
+        if (configAsyncTimeout != null && !configAsyncTimeout.isEmpty()) {
+            this.asyncTimeout = Long.parseLong(configAsyncTimeout.trim());
+        }
+
+        String configUploadThreads = getInitParameter("uploadThreads");
+        if (configUploadThreads != null && !configUploadThreads.isEmpty()) {
+            this.uploadThreads = Integer.parseInt(configUploadThreads.trim());
+        }
+
+        String configVirtualThreads = getInitParameter("virtualThreads");
+        if (configVirtualThreads != null && !configVirtualThreads.isEmpty()) {
+            this.virtualThreads = Boolean.parseBoolean(configVirtualThreads.trim());
+        }
+
+        String configMaxConcurrency = getInitParameter("virtualThreadMaxConcurrency");
+        if (configMaxConcurrency != null && !configMaxConcurrency.isEmpty()) {
+            this.virtualThreadMaxConcurrency = Integer.parseInt(configMaxConcurrency.trim());
+        }
+
+        String configPinnedThreshold = getInitParameter("virtualThreadPinnedThreshold");
+        if (configPinnedThreshold != null && !configPinnedThreshold.isEmpty()) {
+            this.virtualThreadPinnedThreshold = Long.parseLong(configPinnedThreshold.trim());
+        }
+
+        String configCacheSize = getInitParameter("responseCacheSize");
+        if (configCacheSize != null && !configCacheSize.isEmpty()) {
+            this.responseCacheSize = Long.parseLong(configCacheSize.trim());
+        }
+
+        String configEtags = getInitParameter("etag");
+        if (configEtags != null && !configEtags.isEmpty()) {
+            this.etags = Boolean.parseBoolean(configEtags.trim());
+        }
+
+        String configCompression = getInitParameter("compression");
+        if (configCompression != null && !configCompression.isEmpty()) {
+            this.compressionEnabled = Boolean.parseBoolean(configCompression.trim());
+        }
+
+        String configCompressionThreshold = getInitParameter("compressionThreshold");
+        if (configCompressionThreshold != null && !configCompressionThreshold.isEmpty()) {
+            this.compressionThreshold = Integer.parseInt(configCompressionThreshold.trim());
+        }
+
+        String configCompressionLevel = getInitParameter("compressionLevel");
+        if (configCompressionLevel != null && !configCompressionLevel.isEmpty()) {
+            this.compressionLevel = Integer.parseInt(configCompressionLevel.trim());
+        }
+
+        String configCompressionTypes = getInitParameter("compressionTypes");
+        if (configCompressionTypes != null && !configCompressionTypes.isEmpty()) {
+            java.util.Set<String> types = new java.util.HashSet<>();
+            for (String type : configCompressionTypes.split(",")) {
+                if (!type.trim().isEmpty()) {
+                    types.add(type.trim().toLowerCase());
+                }
+            }
+            this.compressionTypes = types;
+        }
+
+        String configStatic = getInitParameter("staticResources");
+        if (configStatic != null && !configStatic.isEmpty()) {
+            this.serveStatic = Boolean.parseBoolean(configStatic.trim());
+        }
+
+        String configStaticCacheSize = getInitParameter("staticCacheSize");
+        if (configStaticCacheSize != null && !configStaticCacheSize.isEmpty()) {
+            this.staticCacheSize = Long.parseLong(configStaticCacheSize.trim());
+        }
+
+        String configCacheControl = getInitParameter("staticCacheControl");
+        if (configCacheControl != null) {
+            this.staticCacheControl = configCacheControl.trim().isEmpty() ? null : configCacheControl.trim();
+        }
+
+        String configViewEngine = getInitParameter("viewEngine");
+        if (configViewEngine != null && !configViewEngine.isEmpty()) {
+            this.viewEngine = configViewEngine.trim();
+        }
+
+        String configTemplateCacheSize = getInitParameter("templateCacheSize");
+        if (configTemplateCacheSize != null && !configTemplateCacheSize.isEmpty()) {
+            this.templateCacheSize = Integer.parseInt(configTemplateCacheSize.trim());
+        }
+
+        String configTemplateReload = getInitParameter("templateReload");
+        if (configTemplateReload != null && !configTemplateReload.isEmpty()) {
+            this.templateReload = Boolean.parseBoolean(configTemplateReload.trim());
+        }
+
+        String configMetricsPath = getInitParameter("metricsPath");
+        if (configMetricsPath != null) {
+            this.metricsPath = configMetricsPath.trim().isEmpty() ? null : configMetricsPath.trim();
+        }
+
+        LOG.info("🔐 Security config: authKey={}, roleKey={}", authSessionKey, roleSessionKey);
         try {
-            // 1 Scanner les classes du package "controller"
-            List<Class<?>> classes = getClasses("com.itu.gest_emp.controller");
+            // 0 Index généré à la compilation (RouteIndexProcessor) ; scan seulement sans index ou en vérification
+            List<RouteIndex.Entry> index = RouteIndex.load(Thread.currentThread().getContextClassLoader());
+            java.util.Set<java.lang.reflect.Method> indexed = new java.util.HashSet<>();
+            if (index != null) {
+                for (RouteIndex.Entry entry : index) {
+                    registerRoute(entry.path, entry.httpMethod, entry.controller, entry.method,
+                            entry.parameterNames);
+                    indexed.add(entry.method);
+                }
+                LOG.info("Routes chargées depuis {} : {}", RouteIndex.RESOURCE, index.size());
+            }
+            if (index == null || routeIndexCheck) {
+                scanControllers(indexed, index != null);
+            }
 
-            // 2 Parcourir leurs méthodes pour trouver celles annotées avec @Url
-            for (Class<?> c : classes) {
-                for (var m : c.getDeclaredMethods()) {
+        } catch (Exception e) {
+            throw new ServletException(e);
+        }
 
-                    if (m.isAnnotationPresent(servlet.annotations.GetMapping.class)) {
-                        String path = m.getAnnotation(servlet.annotations.GetMapping.class).value();
-                        registerRoute(path, servlet.http.HttpMethod.GET, c, m);
-                    }
+        if (hasCachedRoutes) {
+            responseCache = new ResponseCache(responseCacheSize);
+            getServletContext().setAttribute(ResponseCache.ATTRIBUTE, responseCache);
+            ResponseCache cache = responseCache;
+            metrics.gauge("cache_hits_total", "Responses served from the response cache.", cache::hits);
+            metrics.gauge("cache_misses_total", "Cacheable requests that invoked the controller.", cache::misses);
+            metrics.gauge("cache_evictions_total", "Entries evicted to stay under the size limit.", cache::evictions);
+            metrics.gauge("cache_bytes", "Approximate size of the response cache.", cache::bytes);
+        }
+
+        if (compressionEnabled) {
+            compression = new Compression(compressionThreshold, compressionTypes, compressionLevel);
+            Compression c = compression;
+            metrics.gauge("compression_input_bytes_total", "Bytes given to the response compressor.", c::bytesIn);
+            metrics.gauge("compression_output_bytes_total", "Compressed bytes produced.", c::bytesOut);
+        }
+
+        if ("template".equalsIgnoreCase(viewEngine)) {
+            templates = new servlet.view.TemplateEngine(getServletContext(), "/pages/", templateCacheSize,
+                    templateReload);
+            LOG.info("View engine: templates (cache={}, reload={})", templateCacheSize, templateReload);
+        }
+
+        if (serveStatic) {
+            staticResources = new StaticResources(getServletContext(), staticCacheSize, staticCacheControl);
+            StaticResources files = staticResources;
+            metrics.gauge("static_cache_bytes", "Static file bytes held on heap or mapped.", files::bytes);
+        }
+
+        if (hasVirtualThreadRoutes) {
+            handlerExecutor = new HandlerExecutor(virtualThreadMaxConcurrency,
+                    java.time.Duration.ofMillis(virtualThreadPinnedThreshold));
+            LOG.info("Handler executor: virtual={}, maxConcurrency={}", handlerExecutor.virtual(),
+                    virtualThreadMaxConcurrency);
+
+            HandlerExecutor executor = handlerExecutor;
+            metrics.gauge("handler_active", "Handlers running on the handler executor.", executor::active);
+            metrics.gauge("handler_rejected_total", "Handlers refused by the concurrency cap.", executor::rejected);
+            metrics.gauge("virtual_thread_pinned_total", "Carrier thread pinning events.", executor::pinned);
+            metrics.gauge("virtual_thread_pinned_micros_total", "Time spent pinned.",
+                    () -> executor.pinnedNanos() / 1000);
+        }
+    }
+
+    // Scan des packages des contrôleurs (classes @Controller seulement, comme RouteIndexProcessor) ;
+    // les méthodes déjà chargées depuis l'index sont ignorées, les autres (contrôleur compilé sans le
+    // processeur) enregistrées avec un avertissement
+    private void scanControllers(java.util.Set<java.lang.reflect.Method> indexed, boolean hasIndex)
+            throws Exception {
+        // 1 Scanner les packages configurés (répertoires et JAR), sans initialiser les classes
+        List<Class<?>> classes = new ClassScanner(Thread.currentThread().getContextClassLoader())
+                .scan(controllerPackages);
+
+        // ✅ Debug : affichage de ce qui a été trouvé
+        LOG.info("Classes trouvées dans {} :", controllerPackages);
+        for (Class<?> c : classes) {
+            LOG.info(" → {}", c.getName());
+        }
 
-                    if (m.isAnnotationPresent(servlet.annotations.PostMapping.class)) {
-                        String path = m.getAnnotation(servlet.annotations.PostMapping.class).value();
-                        registerRoute(path, servlet.http.HttpMethod.POST, c, m);
+        // 2 Parcourir leurs méthodes pour trouver celles annotées avec @Url
+        for (Class<?> c : classes) {
+            if (!c.isAnnotationPresent(servlet.annotations.Controller.class)) {
+                for (var m : c.getDeclaredMethods()) {
+                    if (m.isAnnotationPresent(servlet.annotations.GetMapping.class)
+                            || m.isAnnotationPresent(servlet.annotations.PostMapping.class)) {
+                        LOG.warn("Route ignorée : {} n'est pas annotée @Controller", c.getName());
+                        break;
                     }
                 }
+                continue;
+            }
+            for (var m : c.getDeclaredMethods()) {
+                if (indexed.contains(m)) {
+                    continue;
+                }
+                if (hasIndex && (m.isAnnotationPresent(servlet.annotations.GetMapping.class)
+                        || m.isAnnotationPresent(servlet.annotations.PostMapping.class))) {
+                    LOG.warn("{} absent de {} : route enregistrée par scan (recompiler avec RouteIndexProcessor)",
+                            c.getName() + "." + m.getName(), RouteIndex.RESOURCE);
+                }
+
+                if (m.isAnnotationPresent(servlet.annotations.GetMapping.class)) {
+                    String path = m.getAnnotation(servlet.annotations.GetMapping.class).value();
+                    registerRoute(path, servlet.http.HttpMethod.GET, c, m, null);
+                }
+
+                if (m.isAnnotationPresent(servlet.annotations.PostMapping.class)) {
+                    String path = m.getAnnotation(servlet.annotations.PostMapping.class).value();
+                    registerRoute(path, servlet.http.HttpMethod.POST, c, m, null);
+                }
             }
+        }
+    }
 
+    // Niveau et destination des logs : logLevel, logFile, logFormat (text|json), logBufferSize, logSink
+    private void configureLogging() throws ServletException {
+        String level = getInitParameter("logLevel");
+        String file = getInitParameter("logFile");
+        String format = getInitParameter("logFormat");
+        String bufferSize = getInitParameter("logBufferSize");
+        String sinkClass = getInitParameter("logSink");
+
+        boolean json = "json".equalsIgnoreCase(format == null ? null : format.trim());
+        int capacity = bufferSize == null || bufferSize.isEmpty() ? 8192 : Integer.parseInt(bufferSize.trim());
+        try {
+            servlet.log.LogSink sink;
+            if (sinkClass != null && !sinkClass.isEmpty()) {
+                sink = (servlet.log.LogSink) Class.forName(sinkClass.trim(), true,
+                        Thread.currentThread().getContextClassLoader()).getDeclaredConstructor().newInstance();
+            } else if (file != null && !file.isEmpty()) {
+                sink = servlet.log.AsyncFileSink.file(Paths.get(file.trim()), capacity, json);
+            } else {
+                sink = servlet.log.AsyncFileSink.console(capacity, json);
+            }
+            servlet.log.Logger.configure(level == null || level.isEmpty()
+                    ? servlet.log.Level.INFO
+                    : servlet.log.Level.valueOf(level.trim().toUpperCase()), sink);
         } catch (Exception e) {
-            throw new ServletException(e);
+            throw new ServletException("Invalid logging configuration", e);
         }
     }
 
     private void registerRoute(String path,
             servlet.http.HttpMethod method,
             Class<?> controller,
-            java.lang.reflect.Method m) {
+            java.lang.reflect.Method m,
+            String[] parameterNames) throws Exception {
+
+        ControllerProvider provider = controllers.get(controller);
+        if (provider == null) {
+            provider = ControllerProvider.forClass(controller);
+            controllers.put(controller, provider);
+            LOG.info("Controller {} scope={}", controller.getName(), provider.scope());
+        }
+
+        Map<servlet.http.HttpMethod, MethodInvoker> methods;
+        List<String> pathVariables;
+        if (servlet.http.RouteTrie.isTemplate(path)) {
+            methods = templateRoutes.insert(path, HashMap::new);
+            pathVariables = servlet.http.RouteTrie.variables(path);
+        } else {
+            methods = routes.computeIfAbsent(path, k -> new HashMap<>());
+            pathVariables = List.of();
+        }
 
-        routes.computeIfAbsent(path, k -> new HashMap<>())
-                .put(method, new MethodInvoker(controller, m));
+        MethodInvoker invoker = new MethodInvoker(provider, m, buildResolvers(m, parameterNames, pathVariables),
+                InvocationEngine.forMethod(m, invocationEngine));
+        invoker.offload = virtualThreads
+                || m.isAnnotationPresent(servlet.annotations.VirtualThread.class)
+                || controller.isAnnotationPresent(servlet.annotations.VirtualThread.class);
+        if (invoker.offload && provider.scope() == servlet.annotations.Scope.Type.THREAD) {
+            // Un thread virtuel par appel : l'instance par thread serait recréée à chaque requête
+            throw new IllegalStateException("@Scope(THREAD) incompatible avec @VirtualThread : "
+                    + controller.getName() + "." + m.getName());
+        }
+        invoker.metrics = metrics.register(path, method.name());
+        servlet.annotations.Cacheable cacheable = m.getAnnotation(servlet.annotations.Cacheable.class);
+        if (cacheable != null) {
+            if (method == servlet.http.HttpMethod.GET) {
+                invoker.cache = new ResponseCache.Policy(path, cacheable);
+            } else {
+                LOG.warn("@Cacheable ignoré sur {} {} : GET uniquement", method, path);
+            }
+        }
+        servlet.annotations.ETag conditional = m.getAnnotation(servlet.annotations.ETag.class);
+        if (method == servlet.http.HttpMethod.GET && (conditional != null || etags)) {
+            invoker.etag = true;
+            if (conditional != null && !conditional.version().isEmpty()) {
+                invoker.version = hook(provider, controller, conditional.version(), pathVariables);
+            }
+            if (conditional != null && !conditional.lastModified().isEmpty()) {
+                invoker.lastModified = hook(provider, controller, conditional.lastModified(), pathVariables);
+            }
+        } else if (conditional != null) {
+            LOG.warn("@ETag ignoré sur {} {} : GET uniquement", method, path);
+        }
+        invoker.security = SecurityRule.forMethod(m, roles, authSessionKey, roleSessionKey);
+        hasVirtualThreadRoutes |= invoker.offload;
+        hasCachedRoutes |= invoker.cache != null;
+        methods.put(method, invoker);
+
+        LOG.info("Mapped [{}] {} -> {}", method, path, controller.getName() + "." + m.getName());
+    }
 
-        System.out.println("Mapped [" + method + "] " + path +
-                " -> " + controller.getName() + "." + m.getName());
+    // Méthode de version ou de date (@ETag) du même contrôleur, liée comme une route
+    private MethodInvoker hook(ControllerProvider provider, Class<?> controller, String name,
+            List<String> pathVariables) {
+        for (java.lang.reflect.Method h : controller.getDeclaredMethods()) {
+            if (h.getName().equals(name)) {
+                return new MethodInvoker(provider, h, buildResolvers(h, null, pathVariables),
+                        InvocationEngine.forMethod(h, invocationEngine));
+            }
+        }
+        throw new IllegalStateException("@ETag : méthode " + name + " introuvable dans " + controller.getName());
     }
 
     // }
@@ -92,12 +473,30 @@ public class FrontServlet extends HttpServlet {
         String httpMethodStr = req.getMethod(); // GET, POST
         servlet.http.HttpMethod httpMethod = servlet.http.HttpMethod.valueOf(httpMethodStr);
 
+        // Endpoint des métriques (Prometheus ou JSON)
+        if (metricsPath != null && path.equals(metricsPath)) {
+            metrics.handle(req, resp);
+            return;
+        }
+
         Map<servlet.http.HttpMethod, MethodInvoker> methods = routes.get(path);
 
+        if (methods == null) {
+            servlet.http.RouteTrie.Match<Map<servlet.http.HttpMethod, MethodInvoker>> match =
+                    templateRoutes.match(path);
+            if (match != null) {
+                methods = match.value;
+                req.setAttribute(PATH_VARIABLES, match.variables);
+            }
+        }
+
         if (methods == null) {
             // Si pas de mapping trouvé, vérifier si c'est un fichier statique
-            if (isStaticResource(path)) {
-                // Utiliser le servlet par défaut de Tomcat pour servir les fichiers statiques
+            if (StaticResources.isStatic(path)) {
+                if (staticResources != null && staticResources.serve(StaticResources.requestPath(req), req, resp)) {
+                    return;
+                }
+                // Utiliser le servlet par défaut de Tomcat (JSP, fichiers hors du répertoire de l'application)
                 RequestDispatcher defaultServlet = getServletContext().getNamedDispatcher("default");
                 if (defaultServlet != null) {
                     defaultServlet.forward(req, resp);
@@ -105,6 +504,7 @@ public class FrontServlet extends HttpServlet {
                 }
             }
             
+            metrics.unmatched();
             resp.setStatus(HttpServletResponse.SC_NOT_FOUND);
             resp.getWriter().print("404 - No mapping for " + path);
             return;
@@ -113,6 +513,7 @@ public class FrontServlet extends HttpServlet {
         MethodInvoker invoker = methods.get(httpMethod);
 
         if (invoker == null) {
+            metrics.unmatched();
             resp.setStatus(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
             resp.getWriter().print("405 - Method " + httpMethod + " not allowed for " + path);
             return;
@@ -121,388 +522,648 @@ public class FrontServlet extends HttpServlet {
         resp.setContentType("text/plain");
 
         if (invoker != null) {
+            long start = invoker.metrics.begin();
+            boolean failed = false;
+            boolean asynchronous = false; // la fin est alors enregistrée par l'AsyncListener
             try {
                 // ✅ VÉRIFICATION DE SÉCURITÉ AVANT D'INVOQUER LA MÉTHODE
-                String securityError = checkSecurity(invoker.method, req);
+                String securityError = invoker.security == null ? null : invoker.security.check(req);
                 if (securityError != null) {
                     resp.setStatus(HttpServletResponse.SC_FORBIDDEN);
                     resp.getWriter().print(securityError);
                     return;
                 }
                 
-                Object controller = invoker.controllerClass.getDeclaredConstructor().newInstance();
-
-                // --- Nouvelle partie : injection des paramètres ---
-                java.lang.reflect.Method method = invoker.method;
-                java.lang.reflect.Parameter[] parameters = method.getParameters();
-                Object[] args = new Object[parameters.length];
-
-                for (int i = 0; i < parameters.length; i++) {
-                    java.lang.reflect.Parameter p = parameters[i];
-                    Class<?> paramType = p.getType();
-
-                    // 🆕 Gestion de l'annotation @Session
-                    if (p.isAnnotationPresent(servlet.annotations.Session.class)) {
-                        if (Map.class.isAssignableFrom(paramType)) {
-                            // Injection de Map<String, Object> représentant la session
-                            HttpSession session = req.getSession();
-                            Map<String, Object> sessionMap = new HashMap<>();
-                            
-                            // Copier tous les attributs de session dans la map
-                            Enumeration<String> attributeNames = session.getAttributeNames();
-                            while (attributeNames.hasMoreElements()) {
-                                String name = attributeNames.nextElement();
-                                sessionMap.put(name, session.getAttribute(name));
-                            }
-                            
-                            args[i] = sessionMap;
-                        } else if (paramType == HttpSession.class) {
-                            // Injection directe de HttpSession
-                            args[i] = req.getSession();
-                        } else {
-                            args[i] = null;
-                        }
-                        continue;
-                    }
-
-                    // Gestion de Map<String, List<Upload>> pour les fichiers uploadés
-                    if (Map.class.isAssignableFrom(paramType)) {
-                        // Vérifier si c'est un Map<String, List<Upload>>
-                        java.lang.reflect.Type genericType = p.getParameterizedType();
-                        if (genericType instanceof java.lang.reflect.ParameterizedType) {
-                            java.lang.reflect.ParameterizedType pType = (java.lang.reflect.ParameterizedType) genericType;
-                            java.lang.reflect.Type[] typeArgs = pType.getActualTypeArguments();
-                            
-                            // Si le deuxième argument est List<Upload>
-                            if (typeArgs.length == 2 && typeArgs[1] instanceof java.lang.reflect.ParameterizedType) {
-                                java.lang.reflect.ParameterizedType listType = (java.lang.reflect.ParameterizedType) typeArgs[1];
-                                if (listType.getRawType().equals(List.class)) {
-                                    java.lang.reflect.Type listArg = listType.getActualTypeArguments()[0];
-                                    if (listArg.equals(Upload.class)) {
-                                        // C'est un Map<String, List<Upload>> !
-                                        args[i] = processFileUploads(req);
-                                        continue;
-                                    }
-                                }
-                            }
-                        }
-
-                        // Sinon, comportement par défaut : Map<String, Object>
-                        Map<String, Object> map = new HashMap<>();
-                        Enumeration<String> paramNames = req.getParameterNames();
-                        while (paramNames.hasMoreElements()) {
-                            String name = paramNames.nextElement();
-                            String value = req.getParameter(name);
-                            map.put(name, value);
-                        }
-
-                        args[i] = map;
-                        continue;
-                    }
-
-                    // 1️⃣ Récupérer le nom du paramètre depuis @RequestParam si présent
-                    String paramName;
-                    if (p.isAnnotationPresent(servlet.annotations.RequestParam.class)) {
-                        paramName = p.getAnnotation(servlet.annotations.RequestParam.class).value();
-                    } else {
-                        paramName = p.getName(); // fallback (si javac -parameters)
-                    }
+                // --- Requête conditionnelle : version ou date fournie par le contrôleur, 304 sans appel ---
+                if ((invoker.version != null || invoker.lastModified != null) && notModified(invoker, req, resp)) {
+                    return;
+                }
 
-                    // 2️⃣ Récupérer la valeur depuis req.getParameter
-                    String valueStr = req.getParameter(paramName);
-
-                    // 3️⃣ Conversion type
-                    if (valueStr == null && (paramType == int.class || paramType == Integer.class)) {
-                        args[i] = 0;
-                    } else if (valueStr == null) {
-                        args[i] = null;
-                    } else if (paramType == int.class || paramType == Integer.class) {
-                        args[i] = Integer.parseInt(valueStr);
-                    } else if (paramType == String.class) {
-                        args[i] = valueStr;
-                    } else {
-                        args[i] = null;
+                // --- Cache des réponses : un hit ne crée ni contrôleur, ni appel, ni sérialisation ---
+                if (invoker.cache != null) {
+                    String cacheKey = invoker.cache.key(path, req, roleSessionKey);
+                    ResponseCache.Entry hit = responseCache.get(cacheKey);
+                    if (hit != null) {
+                        writeCached(hit, req, resp, compression == null ? null : Compression.negotiate(req));
+                        return;
                     }
+                    req.setAttribute(CACHE_KEY, cacheKey);
+                    req.setAttribute(CACHE_GENERATION, responseCache.generation());
                 }
 
-                // --- Appel de la méthode avec injection ---
-                Object result = method.invoke(controller, args);
-
-                // --- Gestion de l'annotation @Json ---
-                boolean isJson = method.isAnnotationPresent(servlet.annotations.Json.class);
-                
-                if (isJson) {
-                    resp.setContentType("application/json");
-                    
-                    // Si le résultat est déjà un JsonResponse, le convertir directement
-                    if (result instanceof JsonResponse) {
-                        resp.getWriter().print(((JsonResponse) result).toJson());
-                    } else {
-                        // Sinon, envelopper dans un JsonResponse.success()
-                        JsonResponse jsonResponse = JsonResponse.success(result);
-                        resp.getWriter().print(jsonResponse.toJson());
-                    }
+                // --- Thread virtuel : liaison, appel et rendu hors du thread du conteneur ---
+                if (invoker.offload && handlerExecutor != null && req.isAsyncSupported()) {
+                    invokeOnExecutor(invoker, req, resp, start);
+                    asynchronous = true;
                     return;
                 }
 
-                // --- Gestion retour (ton code existant) ---
-                if (result instanceof String) {
-                    System.out.println(invoker.method.getName() + " -> String : " + result);
-                } else if (result == null) {
-                    System.out.println(invoker.method.getName() + " -> null");
-                } else if (result instanceof ModelView mv) {
-                    for (var entry : mv.getData().entrySet()) {
-                        req.setAttribute(entry.getKey(), entry.getValue());
-                    }
-                    req.getRequestDispatcher("/pages/" + mv.getView()).forward(req, resp);
+                Object result = invoke(invoker, req);
+
+                // --- Retour asynchrone : la réponse est terminée quand le CompletionStage l'est ---
+                if (invoker.async && result instanceof CompletionStage<?> stage) {
+                    renderAsync(invoker, stage, req, resp, start);
+                    asynchronous = req.isAsyncSupported();
                     return;
-                } else {
-                    System.out.println(
-                            invoker.method.getName() + " -> NON-String : " + result.getClass().getSimpleName());
                 }
-                resp.getWriter().print(result);
+
+                render(invoker, result, req, resp, null);
 
             } catch (Exception e) {
-                e.printStackTrace(resp.getWriter());
+                failed = true;
+                if (!printError(resp, e)) {
+                    throw new ServletException(e); // réponse déjà partie : le conteneur coupe la connexion
+                }
+            } finally {
+                if (!asynchronous) {
+                    invoker.metrics.end(start, failed || resp.getStatus() >= 500);
+                    holdForUploads(req, resp);
+                }
             }
         } else {
             resp.getWriter().print("404 - Aucun contrôleur trouvé pour " + path);
         }
     }
-    // ---- Gestion des fichiers uploadés ----
-    private Map<String, List<Upload>> processFileUploads(HttpServletRequest req) throws IOException, ServletException {
-        Map<String, List<Upload>> uploads = new HashMap<>();
-        
-        // Définir le dossier d'upload
-        String uploadDir = getServletContext().getRealPath("/") + File.separator + "upload";
-        File uploadDirectory = new File(uploadDir);
-        if (!uploadDirectory.exists()) {
-            uploadDirectory.mkdirs();
+
+    // Injection des paramètres puis appel du contrôleur
+    private Object invoke(MethodInvoker invoker, HttpServletRequest req) throws Exception {
+        // --- Injection des paramètres (plan précalculé au démarrage) ---
+        ArgumentResolver[] resolvers = invoker.resolvers;
+        Object[] args = new Object[resolvers.length];
+
+        for (int i = 0; i < resolvers.length; i++) {
+            args[i] = resolvers[i].resolve(req);
         }
 
-        // Récupérer toutes les parties de la requête multipart
-        Collection<Part> parts = req.getParts();
-        
-        for (Part part : parts) {
-            String fieldName = part.getName();
-            String filename = getSubmittedFileName(part);
-            
-            // Si c'est un fichier (pas un champ de formulaire simple)
-            if (filename != null && !filename.isEmpty()) {
-                // Lire le contenu du fichier
-                InputStream inputStream = part.getInputStream();
-                byte[] content = inputStream.readAllBytes();
-                inputStream.close();
-                
-                // Créer un nom unique pour éviter les conflits
-                String uniqueFilename = System.currentTimeMillis() + "_" + filename;
-                String savedPath = uploadDir + File.separator + uniqueFilename;
-                
-                // Sauvegarder le fichier
-                try (FileOutputStream outputStream = new FileOutputStream(savedPath)) {
-                    outputStream.write(content);
+        // --- Appel de la méthode avec injection ---
+        Object controller = invoker.controllers.acquire();
+        try {
+            return invoker.engine.invoke(controller, args);
+        } finally {
+            invoker.controllers.release(controller);
+        }
+    }
+
+    // ---- Écriture du résultat (JSON, texte ou vue) ----
+    /**
+     * @param async contexte asynchrone en cours, ou null : une vue est alors transmise
+     *              par async.dispatch au lieu d'un forward
+     */
+    private void render(MethodInvoker invoker, Object result, HttpServletRequest req,
+            HttpServletResponse resp, AsyncContext async) throws Exception {
+
+        boolean view = forwards(invoker, result);
+        String encoding = compression == null || view ? null : Compression.negotiate(req);
+
+        // Route @Cacheable ou @ETag : corps capturé, mis en cache et/ou haché si 200, puis recopié
+        String cacheKey = invoker.cache == null ? null : (String) req.getAttribute(CACHE_KEY);
+        boolean etag = (invoker.etag || cacheKey != null) && !resp.containsHeader("ETag");
+        if ((cacheKey != null || etag) && !view) {
+            CapturingResponse capture = new CapturingResponse(resp);
+            write(invoker, result, req, capture, async);
+            byte[] body = capture.body();
+            byte[] gzip = null;
+            if (resp.getStatus() == HttpServletResponse.SC_OK) {
+                ResponseCache.Entry entry = null;
+                if (cacheKey != null) {
+                    // Version gzip calculée une fois, servie telle quelle aux hits suivants
+                    if (compression != null && compression.compressible(resp.getContentType(), body.length)) {
+                        gzip = compression.encode(body, Compression.GZIP);
+                    }
+                    entry = responseCache.put(cacheKey, invoker.cache.route, body, gzip, resp.getContentType(),
+                            resp.getCharacterEncoding(), invoker.cache.tags, invoker.cache.ttlNanos,
+                            (Long) req.getAttribute(CACHE_GENERATION));
+                }
+                if (etag) {
+                    String tag = entry != null ? entry.etag : ConditionalGet.etag(body);
+                    resp.setHeader("ETag", tag);
+                    if (ConditionalGet.matches(req, tag)) {
+                        ConditionalGet.notModified(resp); // corps calculé mais pas envoyé
+                        return;
+                    }
                 }
-                
-                // Créer l'objet Upload
-                Upload upload = new Upload(filename, part.getContentType(), part.getSize(), content);
-                upload.setSavedPath(savedPath);
-                
-                // Ajouter au map (grouper par nom de champ)
-                uploads.computeIfAbsent(fieldName, k -> new ArrayList<>()).add(upload);
-                
-                System.out.println("Fichier uploadé : " + filename +
-                        " (" + part.getSize() + " bytes) -> " + savedPath);
             }
+            send(resp, body, gzip, encoding);
+            return;
         }
-        
-        return uploads;
+        if (encoding != null) {
+            CompressingResponse compressing = new CompressingResponse(resp, compression, encoding);
+            try {
+                write(invoker, result, req, compressing, async);
+            } catch (Exception e) {
+                compressing.abort(); // pas de trace en clair dans un flux gzip entamé
+                throw e;
+            }
+            compressing.finish();
+            return;
+        }
+        write(invoker, result, req, resp, async);
     }
-    
-    // Méthode utilitaire pour extraire le nom du fichier depuis Part
-    private String getSubmittedFileName(Part part) {
-        String contentDisposition = part.getHeader("content-disposition");
-        if (contentDisposition != null) {
-            for (String token : contentDisposition.split(";")) {
-                if (token.trim().startsWith("filename")) {
-                    String filename = token.substring(token.indexOf('=') + 1).trim().replace("\"", "");
-                    return filename;
+
+    // Corps complet (capturé ou en cache), compressé si le client l'accepte et si le type s'y prête
+    private void send(HttpServletResponse resp, byte[] body, byte[] gzip, String encoding) throws IOException {
+        byte[] bytes = body;
+        if (encoding != null && compression.compressible(resp.getContentType(), body.length)) {
+            bytes = gzip != null && encoding.equals(Compression.GZIP) ? gzip : compression.encode(body, encoding);
+            Compression.markEncoded(resp, encoding);
+        }
+        resp.setContentLength(bytes.length);
+        resp.getOutputStream().write(bytes);
+    }
+
+    // ETag / Last-Modified donnés par les méthodes @ETag ; vrai si un 304 a été envoyé
+    private boolean notModified(MethodInvoker invoker, HttpServletRequest req, HttpServletResponse resp)
+            throws Exception {
+        if (invoker.version != null) {
+            Object version = invoke(invoker.version, req);
+            if (version != null) {
+                String etag = ConditionalGet.etag(version);
+                resp.setHeader("ETag", etag);
+                if (ConditionalGet.matches(req, etag)) {
+                    ConditionalGet.notModified(resp);
+                    return true;
                 }
             }
         }
-        return null;
+        if (invoker.lastModified != null) {
+            long lastModified = ConditionalGet.lastModified(invoke(invoker.lastModified, req));
+            if (lastModified >= 0) {
+                resp.setDateHeader("Last-Modified", lastModified);
+                if (ConditionalGet.notModifiedSince(req, lastModified)) {
+                    ConditionalGet.notModified(resp);
+                    return true;
+                }
+            }
+        }
+        return false;
     }
-    
-    // Méthode pour vérifier si c'est un fichier statique
-    private boolean isStaticResource(String path) {
-        String lowerPath = path.toLowerCase();
-        return lowerPath.endsWith(".html") || 
-               lowerPath.endsWith(".htm") ||
-               lowerPath.endsWith(".css") || 
-               lowerPath.endsWith(".js") || 
-               lowerPath.endsWith(".jpg") || 
-               lowerPath.endsWith(".jpeg") || 
-               lowerPath.endsWith(".png") || 
-               lowerPath.endsWith(".gif") || 
-               lowerPath.endsWith(".ico") || 
-               lowerPath.endsWith(".svg") || 
-               lowerPath.endsWith(".woff") || 
-               lowerPath.endsWith(".woff2") || 
-               lowerPath.endsWith(".ttf") || 
-               lowerPath.endsWith(".eot") ||
-               lowerPath.endsWith(".jsp") ||
-               lowerPath.startsWith("/images/") ||
-               lowerPath.startsWith("/css/") ||
-               lowerPath.startsWith("/js/") ||
-               lowerPath.startsWith("/pages/");
+
+    private void writeCached(ResponseCache.Entry hit, HttpServletRequest req, HttpServletResponse resp,
+            String encoding) throws IOException {
+        resp.setHeader("X-Cache", "HIT");
+        if (!resp.containsHeader("ETag")) {
+            resp.setHeader("ETag", hit.etag);
+            if (ConditionalGet.matches(req, hit.etag)) {
+                ConditionalGet.notModified(resp);
+                return;
+            }
+        }
+        resp.setContentType(hit.contentType);
+        resp.setCharacterEncoding(hit.characterEncoding);
+        send(resp, hit.body, hit.gzip, encoding);
     }
 
-    // ---- Classe utilitaire ----
-    private static class MethodInvoker {
-        Class<?> controllerClass;
-        java.lang.reflect.Method method;
+    private void write(MethodInvoker invoker, Object result, HttpServletRequest req,
+            HttpServletResponse resp, AsyncContext async) throws Exception {
 
-        MethodInvoker(Class<?> c, java.lang.reflect.Method m) {
-            this.controllerClass = c;
-            this.method = m;
+        // --- Gestion de l'annotation @Json ---
+        if (invoker.json) {
+            resp.setContentType("application/json");
+            resp.setCharacterEncoding("UTF-8");
+
+            // Si le résultat n'est pas déjà un JsonResponse, l'envelopper dans un JsonResponse.success()
+            JsonResponse jsonResponse = result instanceof JsonResponse
+                    ? (JsonResponse) result
+                    : JsonResponse.success(result);
+
+            // Écriture en flux directement dans la réponse, sans String intermédiaire
+            jsonResponse.writeTo(resp.getOutputStream());
+            return;
+        }
+
+        // --- Gestion retour (ton code existant) ---
+        if (result instanceof String) {
+            LOG.debug("{} -> String : {}", invoker.method.getName(), result);
+        } else if (result == null) {
+            LOG.debug("{} -> null", invoker.method.getName());
+        } else if (result instanceof ModelView mv && templates != null && !mv.getView().endsWith(".jsp")) {
+            // Gabarit compilé : rendu en flux dans la réponse, sans forward ni attributs de requête
+            if (resp.getContentType() == null || resp.getContentType().startsWith("text/plain")) {
+                resp.setContentType("text/html");
+                resp.setCharacterEncoding("UTF-8");
+            }
+            java.io.PrintWriter out = resp.getWriter();
+            templates.render(mv.getView(), mv.getData(), req::getAttribute, out);
+            out.flush();
+            return;
+        } else if (result instanceof ModelView mv) {
+            for (var entry : mv.getData().entrySet()) {
+                req.setAttribute(entry.getKey(), entry.getValue());
+            }
+            if (async != null) {
+                async.dispatch("/pages/" + mv.getView());
+            } else {
+                req.getRequestDispatcher("/pages/" + mv.getView()).forward(req, resp);
+            }
+            return;
+        } else {
+            LOG.debug("{} -> NON-String : {}", invoker.method.getName(), result.getClass().getSimpleName());
         }
+        resp.getWriter().print(result);
+    }
+
+    // Vue transmise à une JSP (forward ou async.dispatch) : la réponse est écrite ailleurs
+    private boolean forwards(MethodInvoker invoker, Object result) {
+        return result instanceof ModelView mv && !invoker.json
+                && (templates == null || mv.getView().endsWith(".jsp"));
     }
 
-    // ---- Scanner récursif des classes ----
-    private List<Class<?>> getClasses(String packageName) throws Exception {
-        List<Class<?>> classes = new ArrayList<>();
+    // ---- Retours CompletionStage ----
+    private void renderAsync(MethodInvoker invoker, CompletionStage<?> stage,
+            HttpServletRequest req, HttpServletResponse resp, long start) throws Exception {
+
+        // Servlet non déclaré <async-supported> : on attend sur le thread du conteneur
+        if (!req.isAsyncSupported()) {
+            Object value;
+            try {
+                value = stage.toCompletableFuture().get(asyncTimeout, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                resp.getWriter().print("503 - Request timed out after " + asyncTimeout + " ms");
+                return;
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+            render(invoker, value, req, resp, null);
+            return;
+        }
 
-        // Récupérer tous les noms de classes chargées dans le classpath
-        String path = packageName.replace('.', '/');
-        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-        Enumeration<URL> resources = classLoader.getResources(path);
+        AtomicBoolean finished = new AtomicBoolean();
+        AsyncContext async = startAsync(invoker, req, resp, finished, start);
+        stage.whenComplete((value, error) -> complete(invoker, value, error, async, finished, req, resp));
+    }
 
-        while (resources.hasMoreElements()) {
-            URL resource = resources.nextElement();
-            File directory = new File(resource.toURI());
+    // ---- Exécution sur thread virtuel (@VirtualThread) ----
+    private void invokeOnExecutor(MethodInvoker invoker, HttpServletRequest req, HttpServletResponse resp,
+            long start) {
+        AtomicBoolean finished = new AtomicBoolean();
+        AsyncContext async = startAsync(invoker, req, resp, finished, start);
 
-            if (directory.exists()) {
-                File[] files = directory.listFiles();
-                if (files != null) {
-                    for (File file : files) {
-                        if (file.getName().endsWith(".class")) {
-                            String className = packageName + '.' + file.getName().replace(".class", "");
-                            classes.add(Class.forName(className));
-                        }
-                    }
+        handlerExecutor.submit(() -> {
+            if (finished.get()) {
+                return; // délai dépassé avant d'obtenir une place
+            }
+            Object result;
+            try {
+                result = invoke(invoker, req);
+            } catch (Exception e) {
+                complete(invoker, null, e, async, finished, req, resp);
+                return;
+            }
+            if (invoker.async && result instanceof CompletionStage<?> stage) {
+                stage.whenComplete((value, error) -> complete(invoker, value, error, async, finished, req, resp));
+            } else {
+                complete(invoker, result, null, async, finished, req, resp);
+            }
+        }, () -> unavailable(async, finished, "503 - Too many concurrent requests"), asyncTimeout);
+    }
+
+    // Passage en mode asynchrone ; au-delà de asyncTimeout, réponse 503. Métriques enregistrées à la fin.
+    private AsyncContext startAsync(MethodInvoker invoker, HttpServletRequest req, HttpServletResponse resp,
+            AtomicBoolean finished, long start) {
+        AsyncContext async = req.startAsync(req, resp);
+        async.setTimeout(asyncTimeout);
+
+        async.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                unavailable(async, finished, "503 - Request timed out after " + asyncTimeout + " ms");
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                finished.set(true);
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+                invoker.metrics.end(start, resp.getStatus() >= 500);
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+        return async;
+    }
+
+    private static void unavailable(AsyncContext async, AtomicBoolean finished, String message) {
+        if (finished.compareAndSet(false, true)) {
+            try {
+                HttpServletResponse r = (HttpServletResponse) async.getResponse();
+                r.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                r.getWriter().print(message);
+            } catch (IOException ignored) {
+                // client déconnecté
+            } finally {
+                async.complete();
+            }
+        }
+    }
+
+    // Rendu du résultat (ou de l'erreur) puis fin de la requête asynchrone
+    private void complete(MethodInvoker invoker, Object value, Throwable error, AsyncContext async,
+            AtomicBoolean finished, HttpServletRequest req, HttpServletResponse resp) {
+        java.util.concurrent.CompletableFuture<?> uploads = pendingUploads(req);
+        if (uploads != null && !uploads.isDone()) {
+            // Parties temporaires encore lues : rendu et fin de requête après les écritures
+            uploads.whenComplete((done, ignored) -> complete(invoker, value, error, async, finished, req, resp));
+            return;
+        }
+        if (!finished.compareAndSet(false, true)) {
+            return; // délai dépassé : la réponse est déjà partie
+        }
+        boolean dispatched = false;
+        try {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                Exception failure = cause instanceof Exception e ? e : new ExecutionException(cause);
+                if (!printError(resp, failure)) {
+                    LOG.error("Erreur après l'envoi de la réponse", failure);
                 }
+            } else {
+                dispatched = forwards(invoker, value);
+                render(invoker, value, req, resp, async);
+            }
+        } catch (Exception e) {
+            try {
+                if (!printError(resp, e)) {
+                    LOG.error("Erreur après l'envoi de la réponse", e);
+                }
+            } catch (IOException ignored) {
+                // client déconnecté
+            }
+        } finally {
+            if (!dispatched) {
+                async.complete();
             }
         }
+    }
 
-        // ✅ Debug : affichage de ce qui a été trouvé
-        System.out.println("Classes trouvées dans " + packageName + " :");
-        for (Class<?> c : classes) {
-            System.out.println(" → " + c.getName());
+    // Trace d'erreur en texte brut (500) sur une réponse remise à zéro : statut, en-têtes (dont
+    // Content-Encoding) et corps en tampon. Réponse déjà validée : rien n'est ajouté au corps
+    // (compressé ou tronqué) et false est retourné.
+    private static boolean printError(HttpServletResponse resp, Exception e) throws IOException {
+        if (resp.isCommitted()) {
+            return false;
         }
+        resp.reset();
+        resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        resp.setContentType("text/plain;charset=UTF-8");
+        java.io.PrintWriter writer;
+        try {
+            writer = resp.getWriter();
+        } catch (IllegalStateException outputStreamAlreadyUsed) {
+            writer = new java.io.PrintWriter(new java.io.OutputStreamWriter(
+                    resp.getOutputStream(), java.nio.charset.StandardCharsets.UTF_8));
+        }
+        e.printStackTrace(writer);
+        writer.flush();
+        return true;
+    }
 
-        return classes;
+    // ---- Gestion des fichiers uploadés ----
+    // Attend la fin de toutes les écritures : le contrôleur reçoit des fichiers complets
+    private Map<String, List<Upload>> processFileUploads(HttpServletRequest req) throws IOException, ServletException {
+        try {
+            return processFileUploadsAsync(req).join();
+        } catch (java.util.concurrent.CompletionException e) {
+            if (e.getCause() instanceof java.io.UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new ServletException(e.getCause());
+        }
     }
-    
-    // ---- Vérification de sécurité ----
+
+    // Écritures parallèles ; le futur est aussi mémorisé : la requête ne se termine pas avant lui (holdForUploads)
+    private java.util.concurrent.CompletableFuture<Map<String, List<Upload>>> processFileUploadsAsync(
+            HttpServletRequest req) throws IOException, ServletException {
+        java.util.concurrent.CompletableFuture<Map<String, List<Upload>>> uploads = uploadStore().saveAll(req.getParts());
+        req.setAttribute(PENDING_UPLOADS, uploads);
+        return uploads;
+    }
+
+    private static java.util.concurrent.CompletableFuture<?> pendingUploads(HttpServletRequest req) {
+        return req.getAttribute(PENDING_UPLOADS) instanceof java.util.concurrent.CompletableFuture<?> future
+                ? future : null;
+    }
+
+    // Les parties temporaires du conteneur sont supprimées en fin de requête : si le contrôleur n'a pas
+    // attendu son futur, la réponse est envoyée et la requête reste ouverte (asynchrone) jusqu'à la fin
+    // des écritures, sans bloquer le thread du conteneur. Sans support asynchrone : attente sur place.
+    private static void holdForUploads(HttpServletRequest req, HttpServletResponse resp) {
+        java.util.concurrent.CompletableFuture<?> uploads = pendingUploads(req);
+        if (uploads == null || uploads.isDone()) {
+            return;
+        }
+        if (req.isAsyncSupported() && !req.isAsyncStarted()) {
+            try {
+                resp.flushBuffer();
+                AsyncContext async = req.startAsync(req, resp);
+                async.setTimeout(0);
+                uploads.whenComplete((done, ignored) -> async.complete());
+                return;
+            } catch (IOException | IllegalStateException e) {
+                // client déconnecté ou réponse déjà fermée (forward) : attente ci-dessous
+            }
+        }
+        try {
+            uploads.join();
+        } catch (RuntimeException e) {
+            // l'erreur a déjà été transmise au contrôleur par le futur
+        }
+    }
+
+    private UploadStore uploadStore() {
+        UploadStore store = uploadStore;
+        if (store == null) {
+            synchronized (this) {
+                if (uploadStore == null) {
+                    // Définir le dossier d'upload
+                    String uploadDir = getServletContext().getRealPath("/") + File.separator + "upload";
+                    uploadStore = new UploadStore(Paths.get(uploadDir), uploadMemoryThreshold, uploadThreads);
+                }
+                store = uploadStore;
+            }
+        }
+        return store;
+    }
+
+    @Override
+    public void destroy() {
+        if (uploadStore != null) {
+            uploadStore.shutdown();
+        }
+        if (handlerExecutor != null) {
+            LOG.info("{}", handlerExecutor);
+            handlerExecutor.shutdown();
+        }
+        servlet.log.Logger.shutdown();
+        super.destroy();
+    }
+
+    // ---- Classe utilitaire ----
+    private static class MethodInvoker {
+        Class<?> controllerClass;
+        ControllerProvider controllers;
+        java.lang.reflect.Method method;
+        ArgumentResolver[] resolvers;
+        InvocationEngine engine;
+        boolean json;
+        boolean async;
+        boolean offload; // @VirtualThread
+        SecurityRule security; // null : route publique
+        ResponseCache.Policy cache; // @Cacheable
+        boolean etag; // @ETag ou init-param etag : empreinte du corps si aucune version n'est fournie
+        MethodInvoker version; // @ETag(version)
+        MethodInvoker lastModified; // @ETag(lastModified)
+        servlet.metrics.RouteMetrics metrics;
+
+        MethodInvoker(ControllerProvider controllers, java.lang.reflect.Method m,
+                ArgumentResolver[] resolvers, InvocationEngine engine) {
+            this.controllerClass = controllers.controllerClass;
+            this.controllers = controllers;
+            this.method = m;
+            this.resolvers = resolvers;
+            this.engine = engine;
+            this.json = m.isAnnotationPresent(servlet.annotations.Json.class);
+            this.async = CompletionStage.class.isAssignableFrom(m.getReturnType());
+        }
+    }
+
+    // ---- Plan de résolution des arguments ----
     /**
-     * Vérifie si l'utilisateur est autorisé à accéder à la méthode.
-     * @param method La méthode du contrôleur à invoquer
-     * @param req La requête HTTP contenant la session
-     * @return null si autorisé, sinon un message d'erreur
+     * Produit la valeur d'un paramètre de méthode à partir de la requête.
+     * Un tableau de résolveurs est construit une seule fois par route dans registerRoute.
      */
-    private String checkSecurity(java.lang.reflect.Method method, HttpServletRequest req) {
-        HttpSession session = req.getSession(false);
-        
-        // Vérifier @Authorized
-        if (method.isAnnotationPresent(servlet.annotations.Authorized.class)) {
-            if (session == null) {
-                return "❌ 403 Forbidden - Authentication required (no session)";
+    @FunctionalInterface
+    private interface ArgumentResolver {
+        Object resolve(HttpServletRequest req) throws Exception;
+    }
+
+    // parameterNames : noms précalculés par l'index des routes, ou null (noms lus par réflexion)
+    private ArgumentResolver[] buildResolvers(java.lang.reflect.Method m, String[] parameterNames,
+            List<String> pathVariables) {
+        java.lang.reflect.Parameter[] parameters = m.getParameters();
+        ArgumentResolver[] resolvers = new ArgumentResolver[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            String name = parameterNames != null ? parameterNames[i] : parameters[i].getName();
+            resolvers[i] = buildResolver(parameters[i], name, pathVariables);
+        }
+        return resolvers;
+    }
+
+    private ArgumentResolver buildResolver(java.lang.reflect.Parameter p, String name, List<String> pathVariables) {
+        Class<?> paramType = p.getType();
+
+        // @Session : vue Map des attributs, HttpSession ou interface d'accès typé
+        if (p.isAnnotationPresent(servlet.annotations.Session.class)) {
+            if (paramType.isAssignableFrom(SessionMap.class)) {
+                return SessionMap::new;
             }
-            
-            Object authObj = session.getAttribute(authSessionKey);
-            if (authObj == null) {
-                return "❌ 403 Forbidden - Authentication required (not authenticated)";
+            if (paramType == HashMap.class) {
+                return req -> new HashMap<>(new SessionMap(req)); // copie explicitement demandée
             }
-            
-            // Vérifier si c'est un booléen false
-            if (authObj instanceof Boolean && !((Boolean) authObj)) {
-                return "❌ 403 Forbidden - Authentication required";
+            if (paramType == HttpSession.class) {
+                return HttpServletRequest::getSession;
+            }
+            if (SessionAccessor.isAccessorInterface(paramType)) {
+                SessionAccessor accessor = SessionAccessor.forInterface(paramType);
+                return accessor::create;
             }
+            if (paramType.isInterface() && !paramType.getName().startsWith("java.")) {
+                LOG.warn("@Session {} : interface sans getters/setters uniquement, null injecté", paramType.getName());
+            }
+            return req -> null; // autre type (List, classe...) : rien à injecter, comme avant
         }
-        
-        // Vérifier @Role
-        if (method.isAnnotationPresent(servlet.annotations.Role.class)) {
-            if (session == null) {
-                return "❌ 403 Forbidden - Authentication required for role check";
+
+        // CompletableFuture<Map<String, List<Upload>>> : le contrôleur attend lui-même les écritures
+        if (paramType == java.util.concurrent.CompletableFuture.class
+                || paramType == java.util.concurrent.CompletionStage.class) {
+            java.lang.reflect.Type genericType = p.getParameterizedType();
+            if (genericType instanceof java.lang.reflect.ParameterizedType pType
+                    && isUploadMap(pType.getActualTypeArguments()[0])) {
+                return this::processFileUploadsAsync;
             }
-            
-            Object authObj = session.getAttribute(authSessionKey);
-            if (authObj == null || (authObj instanceof Boolean && !((Boolean) authObj))) {
-                return "❌ 403 Forbidden - Authentication required for role check";
+            return req -> null;
+        }
+
+        // Map<String, List<Upload>> pour les fichiers, sinon Map des paramètres du formulaire
+        if (Map.class.isAssignableFrom(paramType)) {
+            if (isUploadMap(p.getParameterizedType())) {
+                return this::processFileUploads;
             }
-            
-            servlet.annotations.Role roleAnnotation = method.getAnnotation(servlet.annotations.Role.class);
-            String[] requiredRoles = roleAnnotation.value();
-            
-            Object roleObj = session.getAttribute(roleSessionKey);
-            
-            // Si roleObj implémente UserSession
-            if (roleObj instanceof UserSession) {
-                UserSession userSession = (UserSession) roleObj;
-                boolean hasRole = false;
-                
-                for (String requiredRole : requiredRoles) {
-                    if (userSession.hasRole(requiredRole)) {
-                        hasRole = true;
-                        break;
-                    }
-                }
-                
-                if (!hasRole) {
-                    return "❌ 403 Forbidden - Required role: " + String.join(" or ", requiredRoles);
-                }
-            } 
-            // Si roleObj est une String (un seul rôle)
-            else if (roleObj instanceof String) {
-                String userRole = (String) roleObj;
-                boolean hasRole = false;
-                
-                for (String requiredRole : requiredRoles) {
-                    if (requiredRole.equals(userRole)) {
-                        hasRole = true;
-                        break;
-                    }
-                }
-                
-                if (!hasRole) {
-                    return "❌ 403 Forbidden - Required role: " + String.join(" or ", requiredRoles) + 
-                           " (your role: " + userRole + ")";
-                }
-            } 
-            // Si roleObj est un tableau de String
-            else if (roleObj instanceof String[]) {
-                String[] userRoles = (String[]) roleObj;
-                boolean hasRole = false;
-                
-                for (String requiredRole : requiredRoles) {
-                    for (String userRole : userRoles) {
-                        if (requiredRole.equals(userRole)) {
-                            hasRole = true;
-                            break;
-                        }
-                    }
-                    if (hasRole) break;
-                }
-                
-                if (!hasRole) {
-                    return "❌ 403 Forbidden - Required role: " + String.join(" or ", requiredRoles);
-                }
-            } 
-            else {
-                return "❌ 403 Forbidden - No role information in session";
+            return req -> ObjectBinder.bindObject(req, paramType);
+        }
+
+        // Valeur simple nommée par @RequestParam ou par le nom du paramètre (javac -parameters)
+        if (isSimpleType(paramType)) {
+            String paramName = p.isAnnotationPresent(servlet.annotations.RequestParam.class)
+                    ? p.getAnnotation(servlet.annotations.RequestParam.class).value()
+                    : name;
+
+            // Capture du chemin ({id}) : la position est connue dès l'enregistrement
+            int slot = pathVariables.indexOf(paramName);
+            if (slot >= 0) {
+                return scalarResolver(paramType, req -> ((String[]) req.getAttribute(PATH_VARIABLES))[slot]);
             }
+            return scalarResolver(paramType, req -> req.getParameter(paramName));
+        }
+
+        // Objet métier, tableau ou liste : liaison par ObjectBinder
+        if (paramType.isArray() || paramType == List.class || hasDefaultConstructor(paramType)) {
+            java.lang.reflect.Type genericType = p.getParameterizedType();
+            return req -> ObjectBinder.bindObject(req, paramType, genericType);
+        }
+
+        return req -> null;
+    }
+
+    private static ArgumentResolver scalarResolver(Class<?> paramType,
+            java.util.function.Function<HttpServletRequest, String> source) {
+        if (paramType == int.class || paramType == Integer.class) {
+            return req -> {
+                String valueStr = source.apply(req);
+                return valueStr == null ? 0 : Integer.parseInt(valueStr);
+            };
+        }
+        if (paramType == String.class) {
+            return source::apply;
+        }
+        return req -> null;
+    }
+
+    // Vérifie si le type générique est exactement Map<String, List<Upload>>
+    private static boolean isUploadMap(java.lang.reflect.Type genericType) {
+        if (!(genericType instanceof java.lang.reflect.ParameterizedType pType)) {
+            return false;
+        }
+        java.lang.reflect.Type[] typeArgs = pType.getActualTypeArguments();
+        if (typeArgs.length != 2 || !(typeArgs[1] instanceof java.lang.reflect.ParameterizedType listType)) {
+            return false;
+        }
+        return listType.getRawType().equals(List.class)
+                && listType.getActualTypeArguments()[0].equals(Upload.class);
+    }
+
+    private static boolean isSimpleType(Class<?> type) {
+        return type.isPrimitive() || type == String.class || type == Integer.class
+                || type == Long.class || type == Double.class || type == Float.class
+                || type == Boolean.class || type == Short.class || type == Byte.class
+                || type == Character.class;
+    }
+
+    private static boolean hasDefaultConstructor(Class<?> type) {
+        if (type.isInterface() || java.lang.reflect.Modifier.isAbstract(type.getModifiers())) {
+            return false;
+        }
+        try {
+            type.getDeclaredConstructor();
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
         }
-        
-        return null; // Autorisé
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,155 @@
+package servlet;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Exécution des contrôleurs @VirtualThread hors du thread du conteneur.
+ * Un thread virtuel par requête (Java 21+), sinon un pool borné de maxConcurrent threads.
+ * Le nombre de contrôleurs exécutés en même temps est limité par un sémaphore ;
+ * les épinglages du thread porteur (jdk.VirtualThreadPinned) sont comptés via JFR.
+ */
+final class HandlerExecutor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final RecordingStream pinningStream;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder pinned = new LongAdder();
+    private final LongAdder pinnedNanos = new LongAdder();
+    private final LongAccumulator maxPinnedNanos = new LongAccumulator(Math::max, 0);
+    private volatile String lastPinnedSite;
+
+    HandlerExecutor(int maxConcurrent, Duration pinnedThreshold) {
+        this.maxConcurrent = maxConcurrent;
+        this.executor = VirtualThreads.newExecutor("handler", maxConcurrent);
+        this.permits = new Semaphore(maxConcurrent);
+        this.pinningStream = VirtualThreads.supported() ? startPinningStream(pinnedThreshold) : null;
+    }
+
+    /**
+     * Lance la tâche ; elle attend au plus timeoutMs une place libre, sinon onRejected est exécuté.
+     */
+    void submit(Runnable task, Runnable onRejected, long timeoutMs) {
+        submitted.increment();
+        executor.execute(() -> {
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+            if (!acquired) {
+                rejected.increment();
+                onRejected.run();
+                return;
+            }
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    boolean virtual() {
+        return VirtualThreads.supported();
+    }
+
+    int maxConcurrent() {
+        return maxConcurrent;
+    }
+
+    int active() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    long submitted() {
+        return submitted.sum();
+    }
+
+    long rejected() {
+        return rejected.sum();
+    }
+
+    long pinned() {
+        return pinned.sum();
+    }
+
+    long pinnedNanos() {
+        return pinnedNanos.sum();
+    }
+
+    long maxPinnedNanos() {
+        return maxPinnedNanos.get();
+    }
+
+    String lastPinnedSite() {
+        return lastPinnedSite;
+    }
+
+    void shutdown() {
+        if (pinningStream != null) {
+            pinningStream.close();
+        }
+        executor.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "HandlerExecutor{virtual=" + virtual()
+                + ", maxConcurrent=" + maxConcurrent
+                + ", active=" + active()
+                + ", submitted=" + submitted()
+                + ", rejected=" + rejected()
+                + ", pinned=" + pinned()
+                + ", pinnedMs=" + TimeUnit.NANOSECONDS.toMillis(pinnedNanos())
+                + ", maxPinnedMs=" + TimeUnit.NANOSECONDS.toMillis(maxPinnedNanos())
+                + ", lastPinnedSite=" + lastPinnedSite
+                + '}';
+    }
+
+    // Flux JFR en continu, limité à l'événement d'épinglage (JFR peut être désactivé : pas de métriques)
+    private RecordingStream startPinningStream(Duration threshold) {
+        try {
+            RecordingStream stream = new RecordingStream();
+            stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            stream.onEvent(PINNED_EVENT, this::onPinned);
+            stream.startAsync();
+            return stream;
+        } catch (RuntimeException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        long nanos = event.getDuration().toNanos();
+        pinned.increment();
+        pinnedNanos.add(nanos);
+        maxPinnedNanos.accumulate(nanos);
+        if (event.getStackTrace() != null) {
+            // Première frame hors JDK : le code applicatif qui tient le moniteur
+            for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+                String type = frame.getMethod().getType().getName();
+                if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                    lastPinnedSite = type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+                    break;
+                }
+            }
+        }
+    }
+}
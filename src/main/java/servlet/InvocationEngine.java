@@ -0,0 +1,218 @@
+package servlet;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Stratégie d'appel d'une méthode de contrôleur.
+ * Par défaut, chaque route est compilée en MethodHandle de forme fixe
+ * (Object, Object[])Object, constant dans une classe cachée propre à la route ;
+ * l'appel réflexif reste disponible en repli.
+ */
+abstract class InvocationEngine {
+
+    private static final servlet.log.Logger LOG = servlet.log.Logger.get(InvocationEngine.class);
+
+    static final String METHOD_HANDLE = "methodhandle";
+    static final String REFLECTION = "reflection";
+
+    // Forme unique de tous les handles : (contrôleur, arguments) -> résultat
+    private static final MethodType SPREAD_TYPE =
+            MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    /**
+     * Appelle la méthode. Les exceptions levées par le contrôleur sont toujours
+     * enveloppées dans une InvocationTargetException, quel que soit le moteur.
+     */
+    abstract Object invoke(Object controller, Object[] args) throws Exception;
+
+    abstract String name();
+
+    static InvocationEngine forMethod(Method method, String preferred) {
+        if (!REFLECTION.equalsIgnoreCase(preferred)) {
+            try {
+                return MethodHandleEngine.define(method);
+            } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+                LOG.warn("⚠️ MethodHandle indisponible pour {}, repli sur la réflexion : {}",
+                        method.getName(), e.toString());
+            }
+        }
+        return new ReflectiveEngine(method);
+    }
+
+    // ---- MethodHandle constant d'une classe cachée définie pour la route ----
+    /**
+     * Le handle étalé n'est pas gardé dans un champ d'instance (non constant pour le JIT) :
+     * chaque route reçoit une copie cachée de Compiled dont le champ static final H est sa
+     * donnée de classe, constante pour le JIT, ce qui permet l'inlining jusqu'au contrôleur.
+     */
+    private static final class MethodHandleEngine {
+
+        private static final MethodHandle WRAP;
+        private static final MethodHandle CHECK;
+
+        static {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                WRAP = lookup.findStatic(MethodHandleEngine.class, "wrap",
+                        MethodType.methodType(Object.class, Throwable.class));
+                CHECK = lookup.findStatic(MethodHandleEngine.class, "checkArguments",
+                        MethodType.methodType(void.class, Class.class, Class[].class, Object.class, Object[].class));
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        // Octets de Compiled, relus tels quels pour chaque classe cachée
+        private static final byte[] TEMPLATE = template();
+
+        private static byte[] template() {
+            try (InputStream in = InvocationEngine.class.getResourceAsStream("InvocationEngine$Compiled.class")) {
+                return in == null ? null : in.readAllBytes();
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        static InvocationEngine define(Method method) throws ReflectiveOperationException {
+            if (TEMPLATE == null) {
+                throw new ClassNotFoundException("InvocationEngine$Compiled.class introuvable");
+            }
+            method.setAccessible(true);
+            boolean isStatic = java.lang.reflect.Modifier.isStatic(method.getModifiers());
+            MethodHandle target = MethodHandles.lookup().unreflect(method);
+            if (isStatic) {
+                // Le contrôleur est ignoré pour une méthode statique
+                target = MethodHandles.dropArguments(target, 0, Object.class);
+            }
+            MethodHandle handle = target
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(SPREAD_TYPE);
+
+            // Exceptions du contrôleur : InvocationTargetException, comme Method.invoke
+            handle = MethodHandles.catchException(handle, Throwable.class,
+                    MethodHandles.dropArguments(WRAP, 1, Object.class, Object[].class));
+
+            // Contrôleur et arguments vérifiés avant l'appel, hors de la capture ci-dessus :
+            // mêmes erreurs que Method.invoke (IllegalArgumentException, NullPointerException)
+            handle = MethodHandles.foldArguments(handle, MethodHandles.insertArguments(CHECK, 0,
+                    isStatic ? null : method.getDeclaringClass(), method.getParameterTypes()));
+
+            MethodHandles.Lookup hidden = MethodHandles.lookup()
+                    .defineHiddenClassWithClassData(TEMPLATE, handle, true);
+            return (InvocationEngine) hidden.lookupClass().getDeclaredConstructor().newInstance();
+        }
+
+        // Contrôles de Method.invoke : receveur, nombre d'arguments, types (élargissement des primitifs)
+        private static void checkArguments(Class<?> declaring, Class<?>[] types, Object controller, Object[] args) {
+            if (declaring != null && !declaring.isInstance(controller)) {
+                if (controller == null) {
+                    throw new NullPointerException("Contrôleur null pour une méthode d'instance");
+                }
+                throw new IllegalArgumentException("object is not an instance of declaring class");
+            }
+            int count = args == null ? 0 : args.length;
+            if (count != types.length) {
+                throw new IllegalArgumentException("wrong number of arguments: " + count + " expected: " + types.length);
+            }
+            for (int i = 0; i < count; i++) {
+                Object arg = args[i];
+                Class<?> type = types[i];
+                boolean ok = type.isPrimitive()
+                        ? arg != null && widens(MethodType.methodType(arg.getClass()).unwrap().returnType(), type)
+                        : arg == null || type.isInstance(arg);
+                if (!ok) {
+                    throw new IllegalArgumentException("argument type mismatch : paramètre " + i
+                            + " (" + type.getName() + ") reçoit " + (arg == null ? "null" : arg.getClass().getName()));
+                }
+            }
+        }
+
+        // Conversion identité ou élargissement primitif (JLS 5.1.2) ; from non primitif : refusé
+        private static boolean widens(Class<?> from, Class<?> to) {
+            if (from == to) {
+                return from.isPrimitive();
+            }
+            if (from == byte.class) {
+                return to == short.class || to == int.class || to == long.class || to == float.class || to == double.class;
+            }
+            if (from == short.class || from == char.class) {
+                return to == int.class || to == long.class || to == float.class || to == double.class;
+            }
+            if (from == int.class) {
+                return to == long.class || to == float.class || to == double.class;
+            }
+            if (from == long.class) {
+                return to == float.class || to == double.class;
+            }
+            return from == float.class && to == double.class;
+        }
+
+        // Comme Method.invoke : toute exception de la méthode, Error compris, est enveloppée
+        private static Object wrap(Throwable t) throws InvocationTargetException {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    /**
+     * Modèle des classes cachées : jamais chargé sous ce nom, ses octets sont redéfinis pour
+     * chaque route avec le handle en donnée de classe.
+     */
+    private static final class Compiled extends InvocationEngine {
+
+        private static final MethodHandle H;
+
+        static {
+            try {
+                H = MethodHandles.classData(MethodHandles.lookup(), "_", MethodHandle.class);
+            } catch (IllegalAccessException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        // Non privé : instancié depuis MethodHandleEngine, hors du nid de la classe cachée
+        Compiled() {
+        }
+
+        @Override
+        Object invoke(Object controller, Object[] args) throws Exception {
+            try {
+                return (Object) H.invokeExact(controller, args);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new InvocationTargetException(t); // jamais : le handle enveloppe déjà tout
+            }
+        }
+
+        @Override
+        String name() {
+            return METHOD_HANDLE;
+        }
+    }
+
+    // ---- Repli : Method.invoke ----
+    private static final class ReflectiveEngine extends InvocationEngine {
+        private final Method method;
+
+        ReflectiveEngine(Method method) {
+            this.method = method;
+            this.method.setAccessible(true);
+        }
+
+        @Override
+        Object invoke(Object controller, Object[] args) throws Exception {
+            return method.invoke(controller, args);
+        }
+
+        @Override
+        String name() {
+            return REFLECTION;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package servlet;
 
-import java.lang.reflect.Array;
-import java.util.Collection;
-import java.util.Map;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Classe pour générer des réponses JSON
@@ -29,116 +31,50 @@ public class JsonResponse {
     }
 
     public String toJson() {
-        StringBuilder json = new StringBuilder();
-        json.append("{");
-        json.append("\"success\":").append(success).append(",");
-        
-        if (success) {
-            json.append("\"data\":");
-            json.append(objectToJson(data));
-        } else {
-            json.append("\"error\":\"").append(escapeJson(error)).append("\",");
-            json.append("\"errorCode\":").append(errorCode);
-        }
-        
-        json.append("}");
-        return json.toString();
-    }
-
-    private String objectToJson(Object obj) {
-        if (obj == null) {
-            return "null";
-        }
-        
-        if (obj instanceof String) {
-            return "\"" + escapeJson(obj.toString()) + "\"";
-        }
-        
-        if (obj instanceof Number || obj instanceof Boolean) {
-            return obj.toString();
-        }
-        
-        if (obj instanceof Map) {
-            return mapToJson((Map<?, ?>) obj);
-        }
-        
-        if (obj instanceof Collection) {
-            return collectionToJson((Collection<?>) obj);
-        }
-        
-        if (obj.getClass().isArray()) {
-            return arrayToJson(obj);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            writeTo(bytes);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // impossible sur un ByteArrayOutputStream
         }
-        
-        // Objet personnalisé
-        return pojoToJson(obj);
+        return bytes.toString(StandardCharsets.UTF_8);
     }
 
-    private String mapToJson(Map<?, ?> map) {
-        StringBuilder json = new StringBuilder("{");
-        boolean first = true;
-        for (Map.Entry<?, ?> entry : map.entrySet()) {
-            if (!first) json.append(",");
-            json.append("\"").append(escapeJson(entry.getKey().toString())).append("\":");
-            json.append(objectToJson(entry.getValue()));
-            first = false;
+    /**
+     * Écrit le document en UTF-8 directement dans le flux (ex. resp.getOutputStream()).
+     * Le flux n'est pas fermé.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        try (JsonWriter json = new JsonWriter(out)) {
+            write(json);
         }
-        json.append("}");
-        return json.toString();
     }
 
-    private String collectionToJson(Collection<?> collection) {
-        StringBuilder json = new StringBuilder("[");
-        boolean first = true;
-        for (Object item : collection) {
-            if (!first) json.append(",");
-            json.append(objectToJson(item));
-            first = false;
+    /**
+     * Écrit le document dans un Writer. Le Writer n'est pas fermé.
+     */
+    public void writeTo(Writer writer) throws IOException {
+        try (JsonWriter json = new JsonWriter(writer)) {
+            write(json);
         }
-        json.append("]");
-        return json.toString();
     }
 
-    private String arrayToJson(Object array) {
-        StringBuilder json = new StringBuilder("[");
-        int length = Array.getLength(array);
-        for (int i = 0; i < length; i++) {
-            if (i > 0) json.append(",");
-            json.append(objectToJson(Array.get(array, i)));
-        }
-        json.append("]");
-        return json.toString();
-    }
+    private void write(JsonWriter json) throws IOException {
+        json.writeAscii("{\"success\":");
+        json.writeBoolean(success);
+        json.writeByte(',');
 
-    private String pojoToJson(Object obj) {
-        StringBuilder json = new StringBuilder("{");
-        boolean first = true;
-        
-        try {
-            for (java.lang.reflect.Field field : obj.getClass().getDeclaredFields()) {
-                field.setAccessible(true);
-                Object value = field.get(obj);
-                
-                if (!first) json.append(",");
-                json.append("\"").append(field.getName()).append("\":");
-                json.append(objectToJson(value));
-                first = false;
-            }
-        } catch (Exception e) {
-            return "\"Error serializing object\"";
+        if (success) {
+            json.writeAscii("\"data\":");
+            json.writeValue(data);
+        } else {
+            json.writeAscii("\"error\":");
+            json.writeString(error == null ? "" : error);
+            json.writeAscii(",\"errorCode\":");
+            json.writeLong(errorCode);
         }
-        
-        json.append("}");
-        return json.toString();
-    }
 
-    private String escapeJson(String str) {
-        if (str == null) return "";
-        return str.replace("\\", "\\\\")
-                  .replace("\"", "\\\"")
-                  .replace("\n", "\\n")
-                  .replace("\r", "\\r")
-                  .replace("\t", "\\t");
+        json.writeByte('}');
     }
 
     public boolean isSuccess() {
@@ -0,0 +1,296 @@
+package servlet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Écrit du JSON encodé en UTF-8 directement dans un flux, sans construire de String intermédiaire.
+ * Le tampon d'écriture est réutilisé par thread.
+ */
+public class JsonWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final ThreadLocal<byte[]> BUFFERS = new ThreadLocal<>();
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = { 'n', 'u', 'l', 'l' };
+    private static final byte[] TRUE = { 't', 'r', 'u', 'e' };
+    private static final byte[] FALSE = { 'f', 'a', 'l', 's', 'e' };
+
+    private final OutputStream out;
+    private final Writer writer;
+    private byte[] buf;
+    private int pos;
+
+    public JsonWriter(OutputStream out) {
+        this(out, null);
+    }
+
+    /**
+     * Variante pour un Writer : le tampon est décodé à chaque vidage,
+     * toujours sur une frontière de caractère.
+     */
+    public JsonWriter(Writer writer) {
+        this(null, writer);
+    }
+
+    private JsonWriter(OutputStream out, Writer writer) {
+        this.out = out;
+        this.writer = writer;
+        byte[] pooled = BUFFERS.get();
+        if (pooled != null) {
+            BUFFERS.set(null); // le tampon appartient à ce writer jusqu'à close()
+            this.buf = pooled;
+        } else {
+            this.buf = new byte[BUFFER_SIZE];
+        }
+    }
+
+    // ---- Valeurs ----
+
+    public void writeValue(Object obj) throws IOException {
+        if (obj == null) {
+            writeNull();
+        } else if (obj instanceof String) {
+            writeString((String) obj);
+        } else if (obj instanceof Character) {
+            writeString(obj.toString());
+        } else if (obj instanceof Integer || obj instanceof Long
+                || obj instanceof Short || obj instanceof Byte) {
+            writeLong(((Number) obj).longValue());
+        } else if (obj instanceof Number) {
+            writeAscii(obj.toString());
+        } else if (obj instanceof Boolean) {
+            writeBoolean((Boolean) obj);
+        } else if (obj instanceof Map) {
+            writeMap((Map<?, ?>) obj);
+        } else if (obj instanceof Collection) {
+            writeCollection((Collection<?>) obj);
+        } else if (obj.getClass().isArray()) {
+            writeArray(obj);
+        } else {
+            // Objet personnalisé
+            writePojo(obj);
+        }
+    }
+
+    private void writeMap(Map<?, ?> map) throws IOException {
+        writeByte('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (!first) writeByte(',');
+            writeString(String.valueOf(entry.getKey()));
+            writeByte(':');
+            writeValue(entry.getValue());
+            first = false;
+        }
+        writeByte('}');
+    }
+
+    private void writeCollection(Collection<?> collection) throws IOException {
+        writeByte('[');
+        boolean first = true;
+        for (Object item : collection) {
+            if (!first) writeByte(',');
+            writeValue(item);
+            first = false;
+        }
+        writeByte(']');
+    }
+
+    private void writeArray(Object array) throws IOException {
+        writeByte('[');
+        int length = Array.getLength(array);
+        for (int i = 0; i < length; i++) {
+            if (i > 0) writeByte(',');
+            writeValue(Array.get(array, i));
+        }
+        writeByte(']');
+    }
+
+    private void writePojo(Object obj) throws IOException {
+        // Sérialiseur mis en cache par classe (généré à la compilation ou réflexif)
+        PojoSerializers.forClass(obj.getClass()).write(obj, this);
+    }
+
+    // ---- Primitives ----
+
+    public void writeNull() throws IOException {
+        writeRaw(NULL);
+    }
+
+    public void writeBoolean(boolean value) throws IOException {
+        writeRaw(value ? TRUE : FALSE);
+    }
+
+    public void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            writeAscii("-9223372036854775808");
+            return;
+        }
+        ensure(20);
+        if (value < 0) {
+            buf[pos++] = '-';
+            value = -value;
+        }
+        int start = pos;
+        do {
+            buf[pos++] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value != 0);
+        // Les chiffres ont été écrits à l'envers
+        for (int i = start, j = pos - 1; i < j; i++, j--) {
+            byte tmp = buf[i];
+            buf[i] = buf[j];
+            buf[j] = tmp;
+        }
+    }
+
+    public void writeDouble(double value) throws IOException {
+        writeAscii(Double.toString(value));
+    }
+
+    /**
+     * Écrit une chaîne JSON entre guillemets, échappée et encodée en UTF-8.
+     */
+    public void writeString(String str) throws IOException {
+        writeByte('"');
+        int length = str.length();
+        for (int i = 0; i < length; i++) {
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                ensure(6);
+                switch (c) {
+                    case '"': buf[pos++] = '\\'; buf[pos++] = '"'; break;
+                    case '\\': buf[pos++] = '\\'; buf[pos++] = '\\'; break;
+                    case '\n': buf[pos++] = '\\'; buf[pos++] = 'n'; break;
+                    case '\r': buf[pos++] = '\\'; buf[pos++] = 'r'; break;
+                    case '\t': buf[pos++] = '\\'; buf[pos++] = 't'; break;
+                    default:
+                        if (c < 0x20) {
+                            buf[pos++] = '\\';
+                            buf[pos++] = 'u';
+                            buf[pos++] = '0';
+                            buf[pos++] = '0';
+                            buf[pos++] = HEX[c >> 4];
+                            buf[pos++] = HEX[c & 0xF];
+                        } else {
+                            buf[pos++] = (byte) c;
+                        }
+                }
+            } else if (c < 0x800) {
+                ensure(2);
+                buf[pos++] = (byte) (0xC0 | (c >> 6));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(str.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, str.charAt(++i));
+                ensure(4);
+                buf[pos++] = (byte) (0xF0 | (cp >> 18));
+                buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                ensure(1);
+                buf[pos++] = '?'; // surrogate isolé : non représentable en UTF-8
+            } else {
+                ensure(3);
+                buf[pos++] = (byte) (0xE0 | (c >> 12));
+                buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        writeByte('"');
+    }
+
+    /**
+     * Écrit une chaîne ASCII telle quelle (nombres, littéraux).
+     */
+    public void writeAscii(String str) throws IOException {
+        int length = str.length();
+        ensure(Math.min(length, BUFFER_SIZE));
+        for (int i = 0; i < length; i++) {
+            if (pos == buf.length) flushBuffer();
+            buf[pos++] = (byte) str.charAt(i);
+        }
+    }
+
+    /**
+     * Écrit des octets déjà encodés (ex. nom de champ pré-échappé).
+     */
+    public void writeRaw(byte[] bytes) throws IOException {
+        if (bytes.length > buf.length - pos) {
+            flushBuffer();
+            if (bytes.length > buf.length) {
+                writeOut(bytes, 0, bytes.length);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buf, pos, bytes.length);
+        pos += bytes.length;
+    }
+
+    public void writeByte(char c) throws IOException {
+        if (pos == buf.length) flushBuffer();
+        buf[pos++] = (byte) c;
+    }
+
+    // ---- Tampon ----
+
+    private void ensure(int n) throws IOException {
+        if (buf.length - pos < n) flushBuffer();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (pos > 0) {
+            writeOut(buf, 0, pos);
+            pos = 0;
+        }
+    }
+
+    private void writeOut(byte[] bytes, int off, int len) throws IOException {
+        if (out != null) {
+            out.write(bytes, off, len);
+        } else {
+            writer.write(new String(bytes, off, len, StandardCharsets.UTF_8));
+        }
+    }
+
+    public void flush() throws IOException {
+        flushBuffer();
+        if (out != null) out.flush(); else writer.flush();
+    }
+
+    /**
+     * Vide le tampon et le rend au pool du thread. Ne ferme pas le flux sous-jacent.
+     */
+    @Override
+    public void close() throws IOException {
+        if (buf == null) return;
+        try {
+            flushBuffer();
+        } finally {
+            if (buf.length == BUFFER_SIZE) BUFFERS.set(buf);
+            buf = null;
+        }
+    }
+
+    /**
+     * Sérialise une valeur en String (utilitaire pour les petits documents).
+     */
+    public static String toJson(Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (JsonWriter json = new JsonWriter(bytes)) {
+            json.writeValue(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // impossible sur un ByteArrayOutputStream
+        }
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+}
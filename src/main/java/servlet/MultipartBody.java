@@ -0,0 +1,414 @@
+package servlet;
+
+import jakarta.servlet.http.Part;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Découpage en flux d'un corps multipart/form-data (serveur embarqué, sans le parseur du
+ * conteneur). Le corps n'est jamais lu en entier : les parties restent en mémoire tant que
+ * leur total ne dépasse pas memoryThreshold, les suivantes sont écrites dans un fichier
+ * temporaire (supprimé par Part.delete(), appelé en fin de requête). Le nombre de parties et le
+ * total des en-têtes sont bornés : sans cela, un corps de petites parties créerait un fichier
+ * temporaire par partie (même limite que maxPartCount de Tomcat).
+ */
+final class MultipartBody {
+
+    private static final byte[] CRLF = { '\r', '\n' };
+    private static final byte[] HEADERS_END = { '\r', '\n', '\r', '\n' };
+    private static final byte[] DASHES = { '-', '-' };
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_HEADERS_SIZE = 16 * 1024; // par partie
+    private static final int MAX_HEADERS_TOTAL = 64 * 1024; // pour toute la requête
+
+    private MultipartBody() {
+    }
+
+    /**
+     * Boundary du Content-Type (multipart/form-data; boundary=...), ou null.
+     */
+    static String boundary(String contentType) {
+        if (contentType == null || !contentType.toLowerCase(Locale.ROOT).startsWith("multipart/")) {
+            return null;
+        }
+        for (String token : contentType.split(";")) {
+            String trimmed = token.trim();
+            if (trimmed.regionMatches(true, 0, "boundary=", 0, 9)) {
+                String value = trimmed.substring(9);
+                return value.startsWith("\"") && value.endsWith("\"") && value.length() > 1
+                        ? value.substring(1, value.length() - 1) : value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parties du corps ; les en-têtes sont décodés avec charset (noms de fichiers UTF-8).
+     * Au-delà de maxSize octets lus ou de maxPartCount parties, IOException (les fichiers déjà
+     * écrits sont supprimés).
+     */
+    static List<Part> parse(InputStream in, String boundary, Charset charset, long memoryThreshold, long maxSize,
+            int maxPartCount) throws IOException {
+        byte[] delimiter = ("--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        byte[] separator = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        if (separator.length >= BUFFER_SIZE / 2) {
+            throw new IOException("Boundary multipart trop long");
+        }
+        Scanner scanner = new Scanner(in, maxSize);
+        List<Part> parts = new ArrayList<>();
+        long inMemory = 0;
+        int headerBytes = 0;
+        try {
+            if (!scanner.skipPast(delimiter)) {
+                throw new IOException("Corps multipart sans boundary " + boundary);
+            }
+            while (true) {
+                // "--" après le délimiteur : fin du corps
+                if (scanner.startsWith(DASHES)) {
+                    return parts;
+                }
+                if (!scanner.skipPast(CRLF)) {
+                    throw new IOException("Corps multipart tronqué");
+                }
+                if (parts.size() >= maxPartCount) {
+                    throw new IOException("Plus de " + maxPartCount + " parties multipart");
+                }
+                Map<String, String> headers;
+                if (scanner.startsWith(CRLF)) {
+                    scanner.skipPast(CRLF);
+                    headers = Map.of(); // partie sans en-tête
+                } else {
+                    BoundedBuffer block = new BoundedBuffer(Math.min(MAX_HEADERS_SIZE, MAX_HEADERS_TOTAL - headerBytes));
+                    try {
+                        if (!scanner.copyUntil(HEADERS_END, block)) {
+                            throw new IOException("En-têtes multipart tronqués");
+                        }
+                    } catch (UncheckedIOException e) {
+                        throw e.getCause(); // en-têtes trop longs
+                    }
+                    headerBytes += block.size();
+                    headers = headers(block.toString(charset));
+                }
+                PartSink content = new PartSink(memoryThreshold - inMemory);
+                boolean complete;
+                try {
+                    complete = scanner.copyUntil(separator, content);
+                    content.close();
+                } catch (IOException | RuntimeException e) {
+                    content.discard();
+                    throw e;
+                }
+                StoredPart part = content.toPart(headers);
+                parts.add(part);
+                if (!complete) {
+                    throw new IOException("Corps multipart tronqué");
+                }
+                inMemory += part.content == null ? 0 : part.size;
+            }
+        } catch (IOException | RuntimeException e) {
+            for (Part part : parts) {
+                part.delete();
+            }
+            throw e;
+        }
+    }
+
+    // Une ligne "Nom: valeur" par en-tête, noms en minuscules
+    private static Map<String, String> headers(String block) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String line : block.split("\r\n")) {
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+            }
+        }
+        return headers;
+    }
+
+    // Paramètre name="..." d'un Content-Disposition
+    static String dispositionParameter(String disposition, String name) {
+        if (disposition == null) {
+            return null;
+        }
+        for (String token : disposition.split(";")) {
+            String trimmed = token.trim();
+            int equals = trimmed.indexOf('=');
+            if (equals > 0 && trimmed.substring(0, equals).trim().equalsIgnoreCase(name)) {
+                String value = trimmed.substring(equals + 1).trim();
+                return value.startsWith("\"") && value.endsWith("\"") && value.length() > 1
+                        ? value.substring(1, value.length() - 1) : value;
+            }
+        }
+        return null;
+    }
+
+    private static int indexOf(byte[] data, int from, int to, byte[] pattern) {
+        byte first = pattern[0];
+        int last = to - pattern.length;
+        outer:
+        for (int i = from; i <= last; i++) {
+            if (data[i] != first) {
+                continue;
+            }
+            for (int j = 1; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Lecture du corps par blocs : recherche d'un motif à cheval sur deux lectures, en ne gardant
+     * que ses length - 1 derniers octets entre deux blocs.
+     */
+    private static final class Scanner {
+        private final InputStream in;
+        private final long maxSize;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int start;
+        private int end;
+        private long total;
+
+        Scanner(InputStream in, long maxSize) {
+            this.in = in;
+            this.maxSize = maxSize;
+        }
+
+        // Octets jusqu'au motif (exclu) copiés dans out, motif consommé ; false : fin du corps avant
+        boolean copyUntil(byte[] pattern, OutputStream out) throws IOException {
+            while (true) {
+                int found = indexOf(buffer, start, end, pattern);
+                if (found >= 0) {
+                    out.write(buffer, start, found - start);
+                    start = found + pattern.length;
+                    return true;
+                }
+                int keep = Math.min(end - start, pattern.length - 1);
+                out.write(buffer, start, end - start - keep);
+                start = end - keep;
+                if (!fill()) {
+                    return false;
+                }
+            }
+        }
+
+        boolean skipPast(byte[] pattern) throws IOException {
+            return copyUntil(pattern, OutputStream.nullOutputStream());
+        }
+
+        boolean startsWith(byte[] prefix) throws IOException {
+            while (end - start < prefix.length) {
+                if (!fill()) {
+                    return false;
+                }
+            }
+            for (int i = 0; i < prefix.length; i++) {
+                if (buffer[start + i] != prefix[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean fill() throws IOException {
+            if (start > 0) {
+                System.arraycopy(buffer, start, buffer, 0, end - start);
+                end -= start;
+                start = 0;
+            }
+            int n = in.read(buffer, end, buffer.length - end);
+            if (n < 0) {
+                return false;
+            }
+            total += n;
+            if (total > maxSize) {
+                throw new IOException("Corps supérieur à " + maxSize + " octets");
+            }
+            end += n;
+            return true;
+        }
+    }
+
+    // En-têtes d'une partie, bornés
+    private static final class BoundedBuffer extends ByteArrayOutputStream {
+        private final int max;
+
+        BoundedBuffer(int max) {
+            this.max = max;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (count + len > max) {
+                throw new UncheckedIOException(new IOException("En-têtes multipart supérieurs à " + max + " octets"));
+            }
+            super.write(b, off, len);
+        }
+    }
+
+    // Contenu d'une partie : en mémoire jusqu'à memoryLimit, puis dans un fichier temporaire
+    private static final class PartSink extends OutputStream {
+        private final long memoryLimit;
+        private ByteArrayOutputStream memory = new ByteArrayOutputStream();
+        private Path file;
+        private OutputStream fileOut;
+        private long size;
+
+        PartSink(long memoryLimit) {
+            this.memoryLimit = memoryLimit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+            if (memory != null && size + len > memoryLimit) {
+                file = Files.createTempFile("multipart", ".part");
+                fileOut = Files.newOutputStream(file);
+                memory.writeTo(fileOut);
+                memory = null;
+            }
+            if (memory != null) {
+                memory.write(b, off, len);
+            } else {
+                fileOut.write(b, off, len);
+            }
+            size += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (fileOut != null) {
+                fileOut.close();
+            }
+        }
+
+        // Échec de lecture : fichier temporaire supprimé
+        void discard() {
+            try {
+                close();
+            } catch (IOException ignored) {
+                // suppression quand même
+            }
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ignored) {
+                    // fichier temporaire laissé au système
+                }
+            }
+        }
+
+        StoredPart toPart(Map<String, String> headers) {
+            return new StoredPart(headers, memory == null ? null : memory.toByteArray(), file, size);
+        }
+    }
+
+    /**
+     * Partie en mémoire (content) ou dans un fichier temporaire (file).
+     */
+    static final class StoredPart implements Part {
+        private final Map<String, String> headers;
+        private final byte[] content;
+        private final Path file;
+        private final long size;
+
+        StoredPart(Map<String, String> headers, byte[] content, Path file, long size) {
+            this.headers = headers;
+            this.content = content;
+            this.file = file;
+            this.size = size;
+        }
+
+        /**
+         * Contenu d'un champ simple (sans filename).
+         */
+        String text(Charset charset) throws IOException {
+            return content != null ? new String(content, charset) : Files.readString(file, charset);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return content != null ? new ByteArrayInputStream(content) : Files.newInputStream(file);
+        }
+
+        @Override
+        public String getContentType() {
+            return headers.get("content-type");
+        }
+
+        @Override
+        public String getName() {
+            return dispositionParameter(headers.get("content-disposition"), "name");
+        }
+
+        @Override
+        public String getSubmittedFileName() {
+            return dispositionParameter(headers.get("content-disposition"), "filename");
+        }
+
+        @Override
+        public long getSize() {
+            return size;
+        }
+
+        @Override
+        public void write(String fileName) throws IOException {
+            if (content != null) {
+                Files.write(Paths.get(fileName), content);
+            } else {
+                Files.copy(file, Paths.get(fileName), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        @Override
+        public void delete() throws IOException {
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return headers.get(name.toLowerCase(Locale.ROOT));
+        }
+
+        @Override
+        public Collection<String> getHeaders(String name) {
+            String value = getHeader(name);
+            return value == null ? List.of() : List.of(value);
+        }
+
+        @Override
+        public Collection<String> getHeaderNames() {
+            return Collections.unmodifiableSet(headers.keySet());
+        }
+    }
+}
@@ -8,6 +8,14 @@ public class ObjectBinder {
 
     public static Object bindObject(HttpServletRequest req, Class<?> targetType) 
             throws Exception {
+        return bindObject(req, targetType, targetType);
+    }
+
+    /**
+     * Variante qui tient compte du type générique (ex. List&lt;Employee&gt;).
+     */
+    public static Object bindObject(HttpServletRequest req, Class<?> targetType, Type genericType)
+            throws Exception {
         
         // Pour les types simples
         if (targetType == String.class || 
@@ -17,214 +25,90 @@ public class ObjectBinder {
             return null; // Géré par le code existant
         }
 
+        // Arbre des paramètres construit une seule fois par requête
+        ParamTree tree = ParamTree.of(req);
+
         // Pour les tableaux
         if (targetType.isArray()) {
-            return bindArray(req, targetType.getComponentType());
+            return bindArray(tree, targetType.getComponentType());
+        }
+
+        // Pour les listes
+        if (List.class.isAssignableFrom(targetType)) {
+            return bindList(tree, listElementType(genericType));
         }
 
         // Pour les Map (déjà géré)
         if (Map.class.isAssignableFrom(targetType)) {
-            return bindMap(req);
+            return bindMap(tree);
         }
 
-        // Pour les objets complexes (comme Employee)
-        Object instance = targetType.getDeclaredConstructor().newInstance();
-        bindFields(req, instance, "");
+        // Pour les objets complexes (comme Employee) : plan de liaison mis en cache par classe
+        BindingPlan plan = BindingPlan.forClass(targetType);
+        Object instance = plan.newInstance();
+        plan.bind(instance, tree.root);
         return instance;
     }
 
-    private static void bindFields(HttpServletRequest req, Object obj, String prefix) 
-            throws Exception {
-        
-        Class<?> clazz = obj.getClass();
-        
-        // Parcourir tous les paramètres de la requête
-        Enumeration<String> paramNames = req.getParameterNames();
-        
-        while (paramNames.hasMoreElements()) {
-            String paramName = paramNames.nextElement();
-            String paramValue = req.getParameter(paramName);
-            
-            // Vérifier si ce paramètre correspond à cet objet (avec ou sans préfixe)
-            if (prefix.isEmpty() || paramName.startsWith(prefix + ".") || 
-                paramName.startsWith(prefix + "[")) {
-                
-                String fieldPath = prefix.isEmpty() ? paramName : paramName.substring(prefix.length() + 1);
-                setFieldValue(obj, fieldPath, paramValue, req);
-            }
-        }
-    }
+    private static Map<String, Object> bindMap(ParamTree tree) {
+        Map<String, Object> map = new HashMap<>();
 
-    private static void setFieldValue(Object obj, String fieldPath, String value, 
-                                      HttpServletRequest req) throws Exception {
-        
-        // Gérer la notation avec index : department[0].name
-        if (fieldPath.contains("[") && fieldPath.contains("]")) {
-            int bracketStart = fieldPath.indexOf('[');
-            int bracketEnd = fieldPath.indexOf(']');
-            
-            String fieldName = fieldPath.substring(0, bracketStart);
-            String indexStr = fieldPath.substring(bracketStart + 1, bracketEnd);
-            int index = Integer.parseInt(indexStr);
-            
-            String remainingPath = fieldPath.substring(bracketEnd + 1);
-            if (remainingPath.startsWith(".")) {
-                remainingPath = remainingPath.substring(1);
-            }
-            
-            // Accéder au champ
-            Field field = obj.getClass().getDeclaredField(fieldName);
-            field.setAccessible(true);
-            
-            // Récupérer ou créer le tableau/liste
-            Object fieldValue = field.get(obj);
-            
-            if (fieldValue == null) {
-                // Déterminer le type de collection/tableau
-                Class<?> fieldType = field.getType();
-                
-                if (fieldType.isArray()) {
-                    fieldValue = Array.newInstance(fieldType.getComponentType(), index + 1);
-                    field.set(obj, fieldValue);
-                } else if (List.class.isAssignableFrom(fieldType)) {
-                    fieldValue = new ArrayList<>();
-                    field.set(obj, fieldValue);
-                }
-            }
-            
-            // Continuer le binding récursivement
-            if (field.getType().isArray()) {
-                Object[] array = (Object[]) fieldValue;
-                if (array.length <= index) {
-                    // Redimensionner le tableau (simplifié)
-                    array = Arrays.copyOf(array, index + 1);
-                    field.set(obj, array);
-                }
-                
-                if (array[index] == null) {
-                    array[index] = field.getType().getComponentType().getDeclaredConstructor().newInstance();
-                }
-                
-                if (!remainingPath.isEmpty()) {
-                    setFieldValue(array[index], remainingPath, value, req);
-                } else {
-                    // Convertir la valeur selon le type
-                    setSimpleValue(array[index], value);
-                }
-            }
-            
-        } else if (fieldPath.contains(".")) {
-            // Notation pointée : e.name
-            String[] parts = fieldPath.split("\\.", 2);
-            String fieldName = parts[0];
-            String remainingPath = parts[1];
-            
-            Field field = obj.getClass().getDeclaredField(fieldName);
-            field.setAccessible(true);
-            
-            Object fieldValue = field.get(obj);
-            if (fieldValue == null) {
-                fieldValue = field.getType().getDeclaredConstructor().newInstance();
-                field.set(obj, fieldValue);
-            }
-            
-            setFieldValue(fieldValue, remainingPath, value, req);
-            
-        } else {
-            // Champ simple
-            Field field = obj.getClass().getDeclaredField(fieldPath);
-            field.setAccessible(true);
-            
-            setSimpleValue(obj, field, value);
+        for (Map.Entry<String, String[]> entry : tree.parameters.entrySet()) {
+            String[] values = entry.getValue();
+            map.put(entry.getKey(), values == null || values.length == 0 ? null : values[0]);
         }
-    }
 
-    private static void setSimpleValue(Object obj, Field field, String value) 
-            throws Exception {
-        
-        Class<?> fieldType = field.getType();
-        
-        if (value == null || value.isEmpty()) {
-            return;
-        }
-        
-        if (fieldType == String.class) {
-            field.set(obj, value);
-        } else if (fieldType == int.class || fieldType == Integer.class) {
-            field.set(obj, Integer.parseInt(value));
-        } else if (fieldType == double.class || fieldType == Double.class) {
-            field.set(obj, Double.parseDouble(value));
-        } else if (fieldType == boolean.class || fieldType == Boolean.class) {
-            field.set(obj, Boolean.parseBoolean(value));
-        }
-        // Ajouter d'autres types au besoin
+        return map;
     }
 
-    private static void setSimpleValue(Object obj, String value) throws Exception {
-        // Méthode simplifiée pour les objets terminaux
-        // À adapter selon vos besoins
-    }
+    // Éléments indexés de tous les paramètres de premier niveau : param[0], param[1], etc.,
+    // regroupés par indice puis compactés (pas de cases vides pour un indice forgé)
+    private static List<Object> indexedElements(ParamTree tree, Class<?> componentType)
+            throws Exception {
 
-    private static Map<String, Object> bindMap(HttpServletRequest req) {
-        Map<String, Object> map = new HashMap<>();
-        Enumeration<String> paramNames = req.getParameterNames();
-        
-        while (paramNames.hasMoreElements()) {
-            String name = paramNames.nextElement();
-            map.put(name, req.getParameter(name));
+        SortedMap<Integer, Object> elements = new TreeMap<>();
+        for (ParamTree.Node node : tree.root.fields().values()) {
+            for (Map.Entry<Integer, ParamTree.Node> entry : node.indexed().entrySet()) {
+                Object value = BindingPlan.element(entry.getValue(), componentType);
+                if (value != null) {
+                    elements.put(entry.getKey(), value);
+                }
+            }
         }
-        
-        return map;
+        return new ArrayList<>(elements.values());
     }
 
-    private static Object bindArray(HttpServletRequest req, Class<?> componentType) 
+    private static Object bindArray(ParamTree tree, Class<?> componentType)
             throws Exception {
-        
-        // Compter les paramètres avec cette forme : param[0], param[1], etc.
-        Map<Integer, String> indexedValues = new HashMap<>();
-        Enumeration<String> paramNames = req.getParameterNames();
-        
-        while (paramNames.hasMoreElements()) {
-            String name = paramNames.nextElement();
-            
-            if (name.matches(".*\\[\\d+\\].*")) {
-                // Extraire l'index
-                int start = name.indexOf('[');
-                int end = name.indexOf(']');
-                String indexStr = name.substring(start + 1, end);
-                int index = Integer.parseInt(indexStr);
-                
-                indexedValues.put(index, req.getParameter(name));
-            }
-        }
-        
-        if (indexedValues.isEmpty()) {
+
+        List<Object> elements = indexedElements(tree, componentType);
+        if (elements.isEmpty()) {
             return null;
         }
-        
+
         // Créer le tableau
-        int maxIndex = Collections.max(indexedValues.keySet());
-        Object array = Array.newInstance(componentType, maxIndex + 1);
-        
-        for (Map.Entry<Integer, String> entry : indexedValues.entrySet()) {
-            Object value = convertValue(entry.getValue(), componentType);
-            Array.set(array, entry.getKey(), value);
+        Object array = Array.newInstance(componentType, elements.size());
+        for (int i = 0; i < elements.size(); i++) {
+            if (elements.get(i) != null) {
+                Array.set(array, i, elements.get(i));
+            }
         }
-        
+
         return array;
     }
 
-    private static Object convertValue(String strValue, Class<?> targetType) {
-        if (strValue == null) return null;
-        
-        if (targetType == String.class) return strValue;
-        if (targetType == int.class || targetType == Integer.class) 
-            return Integer.parseInt(strValue);
-        if (targetType == double.class || targetType == Double.class) 
-            return Double.parseDouble(strValue);
-        if (targetType == boolean.class || targetType == Boolean.class) 
-            return Boolean.parseBoolean(strValue);
-        
-        return strValue;
+    private static List<Object> bindList(ParamTree tree, Class<?> elementType)
+            throws Exception {
+
+        List<Object> elements = indexedElements(tree, elementType);
+        return elements.isEmpty() ? null : elements;
+    }
+
+    private static Class<?> listElementType(Type genericType) {
+        if (genericType instanceof ParameterizedType pType
+                && pType.getActualTypeArguments()[0] instanceof Class<?> c) {
+            return c;
+        }
+        return String.class;
     }
-}
\ No newline at end of file
+}
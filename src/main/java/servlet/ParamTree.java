@@ -0,0 +1,133 @@
+package servlet;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Arbre des paramètres d'une requête, construit en une seule passe sur les noms.
+ * <pre>
+ * department[3].employees[12].name=Bob  →  department → [3] → employees → [12] → name = ["Bob"]
+ * tags=a&amp;tags=b                          →  tags = ["a", "b"]
+ * attrs[color]=red                      →  attrs → color = ["red"]
+ * </pre>
+ * Les éléments indexés sont rangés par indice (TreeMap) sans cases vides : x[99999]=1 crée un seul
+ * nœud, et la liaison les compacte dans l'ordre des indices (x[0], x[5] → 2 éléments).
+ * L'arbre est conservé en attribut de requête : tous les binders de la même requête le partagent.
+ */
+final class ParamTree {
+
+    private static final String ATTRIBUTE = ParamTree.class.getName();
+
+    /**
+     * Nœud : valeurs feuilles, champs nommés et/ou éléments indexés.
+     */
+    static final class Node {
+        String[] values;
+        Map<String, Node> fields;
+        NavigableMap<Integer, Node> elements;
+
+        String value() {
+            return values == null || values.length == 0 ? null : values[0];
+        }
+
+        Map<String, Node> fields() {
+            return fields == null ? Collections.emptyMap() : fields;
+        }
+
+        // Éléments dans l'ordre des indices, sans trous
+        Collection<Node> elements() {
+            return elements == null ? Collections.emptyList() : elements.values();
+        }
+
+        NavigableMap<Integer, Node> indexed() {
+            return elements == null ? Collections.emptyNavigableMap() : elements;
+        }
+
+        Node field(String name) {
+            if (fields == null) {
+                fields = new LinkedHashMap<>();
+            }
+            return fields.computeIfAbsent(name, k -> new Node());
+        }
+
+        Node element(int index) {
+            if (elements == null) {
+                elements = new TreeMap<>();
+            }
+            return elements.computeIfAbsent(index, k -> new Node());
+        }
+    }
+
+    final Map<String, String[]> parameters;
+    final Node root = new Node();
+
+    private ParamTree(Map<String, String[]> parameters) {
+        this.parameters = parameters;
+        for (Map.Entry<String, String[]> entry : parameters.entrySet()) {
+            add(entry.getKey(), entry.getValue());
+        }
+    }
+
+    static ParamTree of(HttpServletRequest req) {
+        Object cached = req.getAttribute(ATTRIBUTE);
+        if (cached instanceof ParamTree) {
+            return (ParamTree) cached;
+        }
+        ParamTree tree = new ParamTree(req.getParameterMap());
+        req.setAttribute(ATTRIBUTE, tree);
+        return tree;
+    }
+
+    // Un seul parcours du nom : segments séparés par '.', indices ou clés entre crochets
+    private void add(String name, String[] values) {
+        Node node = root;
+        int length = name.length();
+        int pos = 0;
+
+        while (pos < length) {
+            char c = name.charAt(pos);
+            if (c == '[') {
+                int close = name.indexOf(']', pos + 1);
+                if (close < 0) {
+                    node = node.field(name.substring(pos));
+                    break;
+                }
+                int index = parseIndex(name, pos + 1, close);
+                node = index >= 0 ? node.element(index) : node.field(name.substring(pos + 1, close));
+                pos = close + 1;
+            } else if (c == '.') {
+                pos++;
+            } else {
+                int end = pos;
+                while (end < length && name.charAt(end) != '.' && name.charAt(end) != '[') {
+                    end++;
+                }
+                node = node.field(name.substring(pos, end));
+                pos = end;
+            }
+        }
+        node.values = values;
+    }
+
+    // Index décimal entre start et end, ou -1 si ce n'est pas un nombre
+    private static int parseIndex(String name, int start, int end) {
+        if (start == end || end - start > 9) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = start; i < end; i++) {
+            char c = name.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return index;
+    }
+}
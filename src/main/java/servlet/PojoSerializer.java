@@ -0,0 +1,13 @@
+package servlet;
+
+import java.io.IOException;
+
+/**
+ * Sérialiseur JSON d'une classe d'objet métier.
+ * Implémenté par les sérialiseurs réflexifs mis en cache et par les classes
+ * générées à la compilation (voir servlet.processor.JsonSerializerProcessor).
+ */
+public interface PojoSerializer {
+
+    void write(Object obj, JsonWriter json) throws IOException;
+}
@@ -0,0 +1,210 @@
+package servlet;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import servlet.annotations.JsonSerializable;
+
+/**
+ * Cache des sérialiseurs d'objets métier, un par classe.
+ * Les champs sont lus par MethodHandle (sans boxing pour les types primitifs)
+ * et leurs noms sont pré-échappés en octets UTF-8.
+ */
+final class PojoSerializers {
+
+    // Suffixe des classes produites par JsonSerializerProcessor
+    static final String GENERATED_SUFFIX = "_JsonSerializer";
+
+    private static final ClassValue<PojoSerializer> CACHE = new ClassValue<>() {
+        @Override
+        protected PojoSerializer computeValue(Class<?> type) {
+            PojoSerializer generated = loadGenerated(type);
+            return generated != null ? generated : reflective(type);
+        }
+    };
+
+    private static final PojoSerializer INACCESSIBLE =
+            (obj, json) -> json.writeString("Error serializing object");
+
+    private PojoSerializers() {
+    }
+
+    static PojoSerializer forClass(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    private static PojoSerializer loadGenerated(Class<?> type) {
+        if (!type.isAnnotationPresent(JsonSerializable.class)) {
+            return null;
+        }
+        try {
+            Class<?> generated = Class.forName(type.getName() + GENERATED_SUFFIX, true, type.getClassLoader());
+            return (PojoSerializer) generated.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            return null; // processeur non exécuté : sérialisation réflexive
+        }
+    }
+
+    private static PojoSerializer reflective(Class<?> type) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<FieldWriter> writers = new ArrayList<>();
+
+        for (Field field : type.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                continue;
+            }
+            if (!field.trySetAccessible()) {
+                return INACCESSIBLE; // ex. classes internes du JDK
+            }
+            byte[] name = nameBytes(field.getName(), writers.isEmpty());
+            try {
+                writers.add(FieldWriter.of(name, field, lookup.unreflectGetter(field)));
+            } catch (IllegalAccessException e) {
+                return INACCESSIBLE;
+            }
+        }
+        return new ReflectiveSerializer(writers.toArray(new FieldWriter[0]));
+    }
+
+    // "name": (ou ,"name": pour les champs suivants) encodé une fois pour toutes
+    private static byte[] nameBytes(String name, boolean first) {
+        String quoted = JsonWriter.toJson(name);
+        return ((first ? "" : ",") + quoted + ":").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static final class ReflectiveSerializer implements PojoSerializer {
+        private final FieldWriter[] fields;
+
+        ReflectiveSerializer(FieldWriter[] fields) {
+            this.fields = fields;
+        }
+
+        @Override
+        public void write(Object obj, JsonWriter json) throws IOException {
+            json.writeByte('{');
+            try {
+                for (FieldWriter field : fields) {
+                    json.writeRaw(field.name);
+                    field.writeValue(obj, json);
+                }
+            } catch (IOException | RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IOException("Error serializing object", t);
+            }
+            json.writeByte('}');
+        }
+    }
+
+    // ---- Accès typé à un champ ----
+    private abstract static class FieldWriter {
+        final byte[] name;
+        final MethodHandle getter;
+
+        FieldWriter(byte[] name, MethodHandle getter) {
+            this.name = name;
+            this.getter = getter;
+        }
+
+        abstract void writeValue(Object obj, JsonWriter json) throws Throwable;
+
+        static FieldWriter of(byte[] name, Field field, MethodHandle getter) {
+            Class<?> type = field.getType();
+            if (type == int.class || type == short.class || type == byte.class) {
+                return new IntField(name, getter.asType(MethodType.methodType(int.class, Object.class)));
+            }
+            if (type == long.class) {
+                return new LongField(name, getter.asType(MethodType.methodType(long.class, Object.class)));
+            }
+            if (type == double.class) {
+                return new DoubleField(name, getter.asType(MethodType.methodType(double.class, Object.class)));
+            }
+            if (type == boolean.class) {
+                return new BooleanField(name, getter.asType(MethodType.methodType(boolean.class, Object.class)));
+            }
+            if (type == String.class) {
+                return new StringField(name, getter.asType(MethodType.methodType(String.class, Object.class)));
+            }
+            // float, char et références : valeur générique
+            return new ObjectField(name, getter.asType(MethodType.methodType(Object.class, Object.class)));
+        }
+    }
+
+    private static final class IntField extends FieldWriter {
+        IntField(byte[] name, MethodHandle getter) {
+            super(name, getter);
+        }
+
+        @Override
+        void writeValue(Object obj, JsonWriter json) throws Throwable {
+            json.writeLong((int) getter.invokeExact(obj));
+        }
+    }
+
+    private static final class LongField extends FieldWriter {
+        LongField(byte[] name, MethodHandle getter) {
+            super(name, getter);
+        }
+
+        @Override
+        void writeValue(Object obj, JsonWriter json) throws Throwable {
+            json.writeLong((long) getter.invokeExact(obj));
+        }
+    }
+
+    private static final class DoubleField extends FieldWriter {
+        DoubleField(byte[] name, MethodHandle getter) {
+            super(name, getter);
+        }
+
+        @Override
+        void writeValue(Object obj, JsonWriter json) throws Throwable {
+            json.writeDouble((double) getter.invokeExact(obj));
+        }
+    }
+
+    private static final class BooleanField extends FieldWriter {
+        BooleanField(byte[] name, MethodHandle getter) {
+            super(name, getter);
+        }
+
+        @Override
+        void writeValue(Object obj, JsonWriter json) throws Throwable {
+            json.writeBoolean((boolean) getter.invokeExact(obj));
+        }
+    }
+
+    private static final class StringField extends FieldWriter {
+        StringField(byte[] name, MethodHandle getter) {
+            super(name, getter);
+        }
+
+        @Override
+        void writeValue(Object obj, JsonWriter json) throws Throwable {
+            String value = (String) getter.invokeExact(obj);
+            if (value == null) {
+                json.writeNull();
+            } else {
+                json.writeString(value);
+            }
+        }
+    }
+
+    private static final class ObjectField extends FieldWriter {
+        ObjectField(byte[] name, MethodHandle getter) {
+            super(name, getter);
+        }
+
+        @Override
+        void writeValue(Object obj, JsonWriter json) throws Throwable {
+            json.writeValue((Object) getter.invokeExact(obj));
+        }
+    }
+}
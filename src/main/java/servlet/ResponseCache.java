@@ -0,0 +1,335 @@
+package servlet;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache des réponses des méthodes @Cacheable, borné en octets.
+ * Lecture sans verrou (ConcurrentHashMap) ; au-delà de la taille maximale, les entrées
+ * les moins récemment lues sont retirées (LRU) jusqu'à 90 % de la limite.
+ * <pre>
+ * ResponseCache cache = ResponseCache.of(request.getServletContext());
+ * cache.invalidateTag("departements");   // toutes les routes étiquetées
+ * cache.invalidateRoute("/departements"); // toutes les entrées d'une route
+ * cache.invalidate("/departements/3");    // une clé (chemin + paramètres)
+ * </pre>
+ */
+public final class ResponseCache {
+
+    static final String ATTRIBUTE = ResponseCache.class.getName();
+
+    // Précision de la date de dernière lecture : évite une écriture mémoire partagée à chaque hit
+    private static final long ACCESS_GRANULARITY_NANOS = 1_000_000_000L;
+
+    /**
+     * Réponse mise en cache : octets sérialisés (et leur version gzip si elle a été calculée),
+     * type de contenu et ETag.
+     */
+    static final class Entry {
+        final String key;
+        final String route;
+        final byte[] body;
+        final byte[] gzip; // null : non compressible
+        final String contentType;
+        final String characterEncoding;
+        final String[] tags;
+        final String etag;
+        final long expiresAt;
+        volatile long lastAccess;
+
+        Entry(String key, String route, byte[] body, byte[] gzip, String contentType, String characterEncoding,
+                String[] tags, long expiresAt) {
+            this.key = key;
+            this.route = route;
+            this.body = body;
+            this.gzip = gzip;
+            this.contentType = contentType;
+            this.characterEncoding = characterEncoding;
+            this.tags = tags;
+            this.etag = ConditionalGet.etag(body);
+            this.expiresAt = expiresAt;
+            this.lastAccess = System.nanoTime();
+        }
+
+        long weight() {
+            return body.length + (gzip == null ? 0 : gzip.length) + 2L * key.length() + 64;
+        }
+    }
+
+    /**
+     * Règle @Cacheable d'une route, lue à l'enregistrement : construit la clé d'une requête.
+     */
+    static final class Policy {
+        final String route;
+        final long ttlNanos;
+        final String[] params;
+        final boolean perRole;
+        final String[] tags;
+
+        Policy(String route, servlet.annotations.Cacheable cacheable) {
+            this.route = route;
+            this.ttlNanos = java.util.concurrent.TimeUnit.SECONDS.toNanos(cacheable.ttl());
+            this.params = cacheable.params().clone();
+            this.perRole = cacheable.perRole();
+            this.tags = cacheable.tags().clone();
+        }
+
+        // chemin?p1=v1&p2=v2|role=r1,r2 ; noms, valeurs et rôles échappés (%XX) : clé non ambiguë
+        String key(String path, HttpServletRequest req, String roleSessionKey) {
+            StringBuilder key = new StringBuilder(path);
+            char separator = '?';
+            if (params.length > 0) {
+                for (String name : params) {
+                    String[] values = req.getParameterValues(name);
+                    if (values != null) {
+                        appendParameter(key, separator, name, values);
+                        separator = '&';
+                    }
+                }
+            } else {
+                for (Map.Entry<String, String[]> parameter : new TreeMap<>(req.getParameterMap()).entrySet()) {
+                    appendParameter(key, separator, parameter.getKey(), parameter.getValue());
+                    separator = '&';
+                }
+            }
+            if (perRole) {
+                key.append("|role=");
+                HttpSession session = req.getSession(false);
+                Object roles = session == null ? null : session.getAttribute(roleSessionKey);
+                if (roles instanceof UserSession userSession) {
+                    roles = userSession.getRoles();
+                }
+                if (roles instanceof String[] array) {
+                    String[] sorted = array.clone();
+                    Arrays.sort(sorted);
+                    for (int i = 0; i < sorted.length; i++) {
+                        if (i > 0) {
+                            key.append(',');
+                        }
+                        appendEscaped(key, sorted[i]);
+                    }
+                } else if (roles != null) {
+                    appendEscaped(key, roles.toString());
+                }
+            }
+            return key.toString();
+        }
+
+        private static void appendParameter(StringBuilder key, char separator, String name, String[] values) {
+            key.append(separator);
+            appendEscaped(key, name);
+            key.append('=');
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    key.append(',');
+                }
+                appendEscaped(key, values[i]);
+            }
+        }
+
+        // Séparateurs de la clé (et %) encodés en %XX ; le reste est recopié tel quel
+        private static void appendEscaped(StringBuilder key, String value) {
+            for (int i = 0, n = value.length(); i < n; i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '%', '?', '&', '=', ',', '|' -> key.append('%')
+                            .append(Character.toUpperCase(Character.forDigit(c >> 4, 16)))
+                            .append(Character.toUpperCase(Character.forDigit(c & 0xF, 16)));
+                    default -> key.append(c);
+                }
+            }
+        }
+    }
+
+    private final long maxBytes;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> keysByTag = new ConcurrentHashMap<>();
+    private final AtomicLong bytes = new AtomicLong();
+    // Incrémenté par chaque invalidation : une réponse calculée avant n'est pas insérée après
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    ResponseCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Cache du FrontServlet de l'application, ou null si aucune route n'est @Cacheable.
+     */
+    public static ResponseCache of(ServletContext context) {
+        return (ResponseCache) context.getAttribute(ATTRIBUTE);
+    }
+
+    Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        long now = System.nanoTime();
+        if (now - entry.expiresAt >= 0) {
+            remove(entry);
+            misses.increment();
+            return null;
+        }
+        if (now - entry.lastAccess > ACCESS_GRANULARITY_NANOS) {
+            entry.lastAccess = now;
+        }
+        hits.increment();
+        return entry;
+    }
+
+    /**
+     * Génération courante, à lire avant de calculer la réponse à insérer (voir put).
+     */
+    long generation() {
+        return generation.get();
+    }
+
+    /**
+     * @param generation valeur de generation() lue avant l'appel du contrôleur
+     * @return l'entrée créée, ou null si la réponse dépasse la taille du cache ou si une
+     *         invalidation a eu lieu depuis generation (réponse peut-être périmée)
+     */
+    Entry put(String key, String route, byte[] body, byte[] gzip, String contentType, String characterEncoding,
+            String[] tags, long ttlNanos, long generation) {
+        Entry entry = new Entry(key, route, body, gzip, contentType, characterEncoding, tags,
+                System.nanoTime() + ttlNanos);
+        if (entry.weight() > maxBytes || this.generation.get() != generation) {
+            return null; // trop gros pour le cache, ou invalidé pendant le calcul
+        }
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            bytes.addAndGet(-previous.weight());
+        }
+        for (String tag : tags) {
+            keysByTag.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        if (bytes.addAndGet(entry.weight()) > maxBytes) {
+            evict();
+        }
+        // Invalidation concurrente entre le premier test et l'insertion : elle a pu manquer l'entrée
+        if (this.generation.get() != generation) {
+            remove(entry);
+            return null;
+        }
+        return entry;
+    }
+
+    public void invalidate(String key) {
+        generation.incrementAndGet();
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            remove(entry);
+        }
+    }
+
+    public void invalidateTag(String tag) {
+        generation.incrementAndGet();
+        Set<String> keys = keysByTag.remove(tag);
+        if (keys != null) {
+            for (String key : keys) {
+                invalidate(key);
+            }
+        }
+    }
+
+    /**
+     * Toutes les entrées d'une route, désignée par son chemin déclaré (ex. /employes/{id}).
+     */
+    public void invalidateRoute(String route) {
+        generation.incrementAndGet();
+        for (Entry entry : entries.values()) {
+            if (entry.route.equals(route)) {
+                remove(entry);
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        for (Entry entry : entries.values()) {
+            remove(entry);
+        }
+    }
+
+    public long size() {
+        return entries.size();
+    }
+
+    public long bytes() {
+        return bytes.get();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    private void remove(Entry entry) {
+        if (entries.remove(entry.key, entry)) {
+            bytes.addAndGet(-entry.weight());
+            for (String tag : entry.tags) {
+                Set<String> keys = keysByTag.get(tag);
+                if (keys != null && !entries.containsKey(entry.key)) {
+                    keys.remove(entry.key);
+                }
+            }
+        }
+    }
+
+    // Retrait des entrées expirées puis des moins récemment lues, jusqu'à 90 % de la limite
+    private synchronized void evict() {
+        if (bytes.get() <= maxBytes) {
+            return; // déjà fait par un autre thread
+        }
+        long now = System.nanoTime();
+        List<Entry> candidates = new ArrayList<>(entries.values());
+        for (Entry entry : candidates) {
+            if (now - entry.expiresAt >= 0) {
+                remove(entry);
+            }
+        }
+        long target = maxBytes - maxBytes / 10;
+        if (bytes.get() <= target) {
+            return;
+        }
+        // Dates de lecture figées avant le tri : elles peuvent changer pendant l'éviction
+        List<Map.Entry<Long, Entry>> byAccess = new ArrayList<>(candidates.size());
+        for (Entry entry : candidates) {
+            byAccess.add(Map.entry(entry.lastAccess - now, entry));
+        }
+        byAccess.sort(Map.Entry.comparingByKey());
+        for (Map.Entry<Long, Entry> oldest : byAccess) {
+            if (bytes.get() <= target) {
+                break;
+            }
+            Entry entry = oldest.getValue();
+            if (entries.get(entry.key) == entry) {
+                remove(entry);
+                evictions.increment();
+            }
+        }
+    }
+}
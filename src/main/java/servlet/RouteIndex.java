@@ -0,0 +1,104 @@
+package servlet;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+
+import servlet.http.HttpMethod;
+
+/**
+ * Lecture de l'index des routes généré par servlet.processor.RouteIndexProcessor.
+ * Les méthodes listées sont chargées directement, sans scan des packages (sauf init-param
+ * routeIndexCheck=true : le scan ajoute alors les contrôleurs absents de l'index, index périmé).
+ */
+final class RouteIndex {
+
+    static final String RESOURCE = "META-INF/servlet/routes.idx";
+
+    private static final Map<String, Class<?>> PRIMITIVES = Map.of(
+            "int", int.class, "long", long.class, "double", double.class, "float", float.class,
+            "boolean", boolean.class, "short", short.class, "byte", byte.class, "char", char.class);
+
+    /**
+     * Une route de l'index : méthode du contrôleur et noms de liaison de ses paramètres.
+     */
+    static final class Entry {
+        final HttpMethod httpMethod;
+        final String path;
+        final Class<?> controller;
+        final Method method;
+        final String[] parameterNames;
+
+        Entry(HttpMethod httpMethod, String path, Class<?> controller, Method method, String[] parameterNames) {
+            this.httpMethod = httpMethod;
+            this.path = path;
+            this.controller = controller;
+            this.method = method;
+            this.parameterNames = parameterNames;
+        }
+    }
+
+    private RouteIndex() {
+    }
+
+    /**
+     * Routes de tous les index présents sur le classpath, ou null s'il n'y en a aucun.
+     */
+    static List<Entry> load(ClassLoader loader) throws IOException, ReflectiveOperationException {
+        Enumeration<URL> resources = loader.getResources(RESOURCE);
+        if (!resources.hasMoreElements()) {
+            return null;
+        }
+        List<Entry> entries = new ArrayList<>();
+        while (resources.hasMoreElements()) {
+            URL resource = resources.nextElement();
+            try (BufferedReader in = new BufferedReader(
+                    new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (!line.isEmpty() && line.charAt(0) != '#') {
+                        entries.add(parse(line, loader));
+                    }
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static Entry parse(String line, ClassLoader loader) throws ReflectiveOperationException {
+        String[] fields = line.split("\t");
+        if (fields.length < 4) {
+            throw new IllegalArgumentException("Invalid route index line: " + line);
+        }
+        Class<?> controller = Class.forName(fields[2], false, loader);
+
+        int count = fields.length - 4;
+        Class<?>[] types = new Class<?>[count];
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            String parameter = fields[4 + i];
+            int space = parameter.lastIndexOf(' ');
+            types[i] = type(parameter.substring(0, space), loader);
+            names[i] = parameter.substring(space + 1);
+        }
+
+        Method method = controller.getDeclaredMethod(fields[3], types);
+        return new Entry(HttpMethod.valueOf(fields[0]), fields[1], controller, method, names);
+    }
+
+    private static Class<?> type(String name, ClassLoader loader) throws ClassNotFoundException {
+        if (name.endsWith("[]")) {
+            return Array.newInstance(type(name.substring(0, name.length() - 2), loader), 0).getClass();
+        }
+        Class<?> primitive = PRIMITIVES.get(name);
+        return primitive != null ? primitive : Class.forName(name, false, loader);
+    }
+}
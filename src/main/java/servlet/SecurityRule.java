@@ -0,0 +1,200 @@
+package servlet;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Exigences de sécurité d'une route (@Authorized, @Role), lues une seule fois à l'enregistrement.
+ * Les noms de rôles sont numérotés par une table commune ; des rôles String[] deviennent un masque
+ * de bits mis en cache dans la session (recalculé si le tableau est remplacé ou modifié en place),
+ * et la vérification se réduit à un ET binaire. Un UserSession est interrogé par hasRole, qui peut
+ * porter sa propre logique (hiérarchie, jokers).
+ */
+final class SecurityRule {
+
+    // Attribut de session du masque en cache (masqué dans la Map @Session)
+    static final String MASK_ATTRIBUTE = "servlet.roleMask";
+
+    // Messages précalculés : aucune concaténation sur le chemin autorisé
+    private static final String NO_SESSION = "❌ 403 Forbidden - Authentication required (no session)";
+    private static final String NOT_AUTHENTICATED = "❌ 403 Forbidden - Authentication required (not authenticated)";
+    private static final String AUTHENTICATION_REQUIRED = "❌ 403 Forbidden - Authentication required";
+    private static final String AUTHENTICATION_FOR_ROLE = "❌ 403 Forbidden - Authentication required for role check";
+    private static final String NO_ROLE_INFORMATION = "❌ 403 Forbidden - No role information in session";
+
+    /**
+     * Numérotation des rôles cités par les @Role : remplie pendant init(), lue seule ensuite.
+     * Un rôle utilisateur absent de la table ne peut satisfaire aucune route et n'a pas de bit.
+     */
+    static final class Roles {
+        private final Map<String, Integer> ids = new HashMap<>();
+
+        int id(String role) {
+            Integer id = ids.get(role);
+            return id == null ? -1 : id;
+        }
+
+        // register : numérote les rôles encore inconnus (init() uniquement), sinon ils sont ignorés
+        long[] mask(String[] roles, boolean register) {
+            long[] mask = new long[Math.max(1, (ids.size() + roles.length + 63) >>> 6)];
+            for (String role : roles) {
+                Integer id = ids.get(role);
+                if (id == null) {
+                    if (!register) {
+                        continue;
+                    }
+                    id = ids.size();
+                    ids.put(role, id);
+                }
+                mask[id >>> 6] |= 1L << id;
+            }
+            return mask;
+        }
+    }
+
+    // Masque des rôles de l'utilisateur, valable tant que le même tableau garde le même contenu
+    private static final class CachedMask implements Serializable {
+        private static final long serialVersionUID = 1L;
+        final transient String[] source;
+        final transient String[] snapshot;
+        final transient Roles roles;
+        final transient long[] mask;
+
+        CachedMask(String[] source, Roles roles, long[] mask) {
+            this.source = source;
+            this.snapshot = source.clone();
+            this.roles = roles;
+            this.mask = mask;
+        }
+
+        // Comparaison sans allocation ; equals s'arrête à l'identité des chaînes dans le cas courant
+        boolean matches(String[] current, Roles table) {
+            return source == current && roles == table && Arrays.equals(snapshot, current);
+        }
+    }
+
+    private final String authSessionKey;
+    private final String roleSessionKey;
+    private final boolean authorized;
+    private final boolean roleCheck;
+    private final Roles roles;
+    private final String[] requiredRoles;
+    private final long[] required;
+    private final String requiredRoleError;
+
+    private SecurityRule(Method method, Roles roles, String authSessionKey, String roleSessionKey) {
+        this.authSessionKey = authSessionKey;
+        this.roleSessionKey = roleSessionKey;
+        this.authorized = method.isAnnotationPresent(servlet.annotations.Authorized.class);
+        this.roles = roles;
+        servlet.annotations.Role role = method.getAnnotation(servlet.annotations.Role.class);
+        this.roleCheck = role != null;
+        this.requiredRoles = role != null ? role.value() : new String[0];
+        this.required = role != null ? roles.mask(requiredRoles, true) : null;
+        this.requiredRoleError = "❌ 403 Forbidden - Required role: " + String.join(" or ", requiredRoles);
+    }
+
+    /**
+     * Règle de la méthode, ou null si elle n'a ni @Authorized ni @Role.
+     */
+    static SecurityRule forMethod(Method method, Roles roles, String authSessionKey, String roleSessionKey) {
+        if (!method.isAnnotationPresent(servlet.annotations.Authorized.class)
+                && !method.isAnnotationPresent(servlet.annotations.Role.class)) {
+            return null;
+        }
+        return new SecurityRule(method, roles, authSessionKey, roleSessionKey);
+    }
+
+    /**
+     * Vérifie si l'utilisateur est autorisé à accéder à la méthode.
+     * @return null si autorisé, sinon un message d'erreur
+     */
+    String check(HttpServletRequest req) {
+        HttpSession session = req.getSession(false);
+
+        // Vérifier @Authorized
+        if (authorized) {
+            if (session == null) {
+                return NO_SESSION;
+            }
+            Object authObj = session.getAttribute(authSessionKey);
+            if (authObj == null) {
+                return NOT_AUTHENTICATED;
+            }
+            if (Boolean.FALSE.equals(authObj)) {
+                return AUTHENTICATION_REQUIRED;
+            }
+        }
+
+        // Vérifier @Role
+        if (roleCheck) {
+            if (session == null) {
+                return AUTHENTICATION_FOR_ROLE;
+            }
+            Object authObj = session.getAttribute(authSessionKey);
+            if (authObj == null || Boolean.FALSE.equals(authObj)) {
+                return AUTHENTICATION_FOR_ROLE;
+            }
+
+            Object roleObj = session.getAttribute(roleSessionKey);
+
+            // Un seul rôle : test direct du bit
+            if (roleObj instanceof String role) {
+                if (!requires(role)) {
+                    return requiredRoleError + " (your role: " + role + ")";
+                }
+                return null;
+            }
+
+            // UserSession : sa propre règle, rôle par rôle
+            if (roleObj instanceof UserSession userSession) {
+                for (String requiredRole : requiredRoles) {
+                    if (userSession.hasRole(requiredRole)) {
+                        return null;
+                    }
+                }
+                return requiredRoleError;
+            }
+
+            if (!(roleObj instanceof String[] userRoles)) {
+                return NO_ROLE_INFORMATION;
+            }
+            if (!intersects(userMask(session, userRoles))) {
+                return requiredRoleError;
+            }
+        }
+
+        return null; // Autorisé
+    }
+
+    private boolean requires(String role) {
+        int id = roles.id(role);
+        return id >= 0 && id >>> 6 < required.length && (required[id >>> 6] & (1L << id)) != 0;
+    }
+
+    private boolean intersects(long[] mask) {
+        for (int i = 0, n = Math.min(mask.length, required.length); i < n; i++) {
+            if ((mask[i] & required[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Masque en cache dans la session, recalculé si l'attribut de rôle est remplacé ou modifié en place
+    private long[] userMask(HttpSession session, String[] userRoles) {
+        Object cached = session.getAttribute(MASK_ATTRIBUTE);
+        if (cached instanceof CachedMask c && c.matches(userRoles, roles)) {
+            return c.mask;
+        }
+        long[] mask = roles.mask(userRoles, false);
+        session.setAttribute(MASK_ATTRIBUTE, new CachedMask(userRoles, roles, mask));
+        return mask;
+    }
+}
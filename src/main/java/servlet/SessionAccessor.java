@@ -0,0 +1,181 @@
+package servlet;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Accès typé à la session pour un paramètre @Session dont le type est une interface :
+ * <pre>
+ * public interface Panier {
+ *     Cart getCart();          // session.getAttribute("cart")
+ *     void setCart(Cart cart); // session.setAttribute("cart", cart)
+ *     boolean isVip();         // session.getAttribute("vip"), false si absent
+ * }
+ * public String checkout(@Session Panier panier) { ... }
+ * </pre>
+ * Les méthodes sont analysées une fois par interface ; l'appel ne fait qu'un get/setAttribute.
+ */
+final class SessionAccessor {
+
+    private static final ClassValue<SessionAccessor> ACCESSORS = new ClassValue<SessionAccessor>() {
+        @Override
+        protected SessionAccessor computeValue(Class<?> type) {
+            return new SessionAccessor(type);
+        }
+    };
+
+    private enum Kind { GET, SET, DEFAULT }
+
+    private static final class Operation {
+        final Kind kind;
+        final String attribute;
+        final Object absent; // valeur d'un getter primitif quand l'attribut n'existe pas
+
+        Operation(Kind kind, String attribute, Object absent) {
+            this.kind = kind;
+            this.attribute = attribute;
+            this.absent = absent;
+        }
+    }
+
+    private final Class<?> type;
+    private final Map<Method, Operation> operations = new HashMap<>();
+
+    private SessionAccessor(Class<?> type) {
+        this.type = type;
+        for (Method method : type.getMethods()) {
+            if (method.getDeclaringClass() == Object.class || java.lang.reflect.Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            if (method.isDefault()) {
+                operations.put(method, new Operation(Kind.DEFAULT, null, null));
+                continue;
+            }
+            String name = method.getName();
+            switch (shape(method)) {
+                case GET -> operations.put(method, new Operation(Kind.GET,
+                        property(name, name.startsWith("is") ? 2 : 3), absent(method.getReturnType())));
+                case SET -> operations.put(method, new Operation(Kind.SET, property(name, 3), null));
+                default -> throw new IllegalArgumentException("Not a session accessor method: " + method);
+            }
+        }
+    }
+
+    /**
+     * Interface utilisateur dont toutes les méthodes abstraites sont des getters/setters
+     * (au moins un) : List, Supplier... ne le sont pas.
+     */
+    static boolean isAccessorInterface(Class<?> type) {
+        if (!type.isInterface() || type.isAnnotation() || type.getName().startsWith("java.")
+                || type.getName().startsWith("jakarta.")) {
+            return false;
+        }
+        boolean accessor = false;
+        for (Method method : type.getMethods()) {
+            if (method.getDeclaringClass() == Object.class || method.isDefault()
+                    || java.lang.reflect.Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            if (shape(method) == Kind.DEFAULT) {
+                return false;
+            }
+            accessor = true;
+        }
+        return accessor;
+    }
+
+    // GET (getX() / isX()), SET (setX(v)), sinon DEFAULT
+    private static Kind shape(Method method) {
+        String name = method.getName();
+        int params = method.getParameterCount();
+        if (params == 0 && (name.startsWith("get") && name.length() > 3 || name.startsWith("is") && name.length() > 2)) {
+            return Kind.GET;
+        }
+        if (params == 1 && name.startsWith("set") && name.length() > 3) {
+            return Kind.SET;
+        }
+        return Kind.DEFAULT;
+    }
+
+    /**
+     * Accesseur de l'interface, analysé une seule fois (méthode non getter/setter : IllegalArgumentException).
+     */
+    static SessionAccessor forInterface(Class<?> type) {
+        return ACCESSORS.get(type);
+    }
+
+    /**
+     * Proxy de l'interface lié à la session de la requête (créée à la première écriture).
+     */
+    Object create(HttpServletRequest req) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler(req));
+    }
+
+    private InvocationHandler handler(HttpServletRequest req) {
+        return (proxy, method, args) -> {
+            Operation operation = operations.get(method);
+            if (operation == null) {
+                // Méthodes de Object
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        return type.getSimpleName() + "@session";
+                }
+            }
+            switch (operation.kind) {
+                case GET: {
+                    HttpSession session = req.getSession(false);
+                    Object value = session == null ? null : session.getAttribute(operation.attribute);
+                    return value == null ? operation.absent : value;
+                }
+                case SET:
+                    req.getSession(true).setAttribute(operation.attribute, args[0]);
+                    return null;
+                default:
+                    return InvocationHandler.invokeDefault(proxy, method, args);
+            }
+        };
+    }
+
+    // getCart -> cart
+    private static String property(String methodName, int prefix) {
+        return Character.toLowerCase(methodName.charAt(prefix)) + methodName.substring(prefix + 1);
+    }
+
+    private static Object absent(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        return 0;
+    }
+}
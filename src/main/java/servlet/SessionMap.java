@@ -0,0 +1,162 @@
+package servlet;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Vue Map des attributs de la session, injectée pour un paramètre @Session Map.
+ * Rien n'est copié : lectures et écritures passent directement par la HttpSession.
+ * La session n'est créée qu'à la première écriture. Les attributs internes du framework
+ * (masque des rôles de SecurityRule) n'y apparaissent pas et ne peuvent pas y être écrits.
+ */
+final class SessionMap extends AbstractMap<String, Object> {
+
+    private final HttpServletRequest req;
+    private HttpSession session;
+
+    SessionMap(HttpServletRequest req) {
+        this.req = req;
+    }
+
+    static boolean hidden(Object key) {
+        return SecurityRule.MASK_ATTRIBUTE.equals(key);
+    }
+
+    // Session existante, ou null (create=false)
+    private HttpSession session(boolean create) {
+        if (session == null || create) {
+            HttpSession current = req.getSession(create);
+            if (current != null) {
+                session = current;
+            }
+        }
+        return session;
+    }
+
+    @Override
+    public Object get(Object key) {
+        HttpSession s = session(false);
+        return s == null || !(key instanceof String) || hidden(key) ? null : s.getAttribute((String) key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        if (hidden(key)) {
+            throw new IllegalArgumentException("Attribut réservé au framework : " + key);
+        }
+        HttpSession s = session(true);
+        Object previous = s.getAttribute(key);
+        // La session ne stocke pas de null : même sémantique que setAttribute
+        s.setAttribute(key, value);
+        return previous;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        HttpSession s = session(false);
+        if (s == null || !(key instanceof String) || hidden(key)) {
+            return null;
+        }
+        Object previous = s.getAttribute((String) key);
+        s.removeAttribute((String) key);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        HttpSession s = session(false);
+        if (s != null) {
+            for (String name : Collections.list(s.getAttributeNames())) {
+                if (!hidden(name)) {
+                    s.removeAttribute(name);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                HttpSession s = session(false);
+                Enumeration<String> names = s == null ? Collections.emptyEnumeration() : s.getAttributeNames();
+                return new Iterator<Entry<String, Object>>() {
+                    private String next = advance();
+                    private String last;
+
+                    // Nom suivant, attributs internes sautés
+                    private String advance() {
+                        while (names.hasMoreElements()) {
+                            String name = names.nextElement();
+                            if (!hidden(name)) {
+                                return name;
+                            }
+                        }
+                        return null;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return next != null;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (next == null) {
+                            throw new NoSuchElementException();
+                        }
+                        last = next;
+                        next = advance();
+                        String name = last;
+                        return new SimpleEntry<String, Object>(name, s.getAttribute(name)) {
+                            @Override
+                            public Object setValue(Object value) {
+                                Object previous = super.setValue(value);
+                                s.setAttribute(name, value);
+                                return previous;
+                            }
+                        };
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (last == null) {
+                            throw new IllegalStateException();
+                        }
+                        s.removeAttribute(last);
+                        last = null;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                HttpSession s = session(false);
+                if (s == null) {
+                    return 0;
+                }
+                int size = 0;
+                for (Enumeration<String> names = s.getAttributeNames(); names.hasMoreElements();) {
+                    if (!hidden(names.nextElement())) {
+                        size++;
+                    }
+                }
+                return size;
+            }
+        };
+    }
+}
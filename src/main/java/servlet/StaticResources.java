@@ -0,0 +1,459 @@
+package servlet;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fichiers statiques de l'application, servis sans passer par le servlet par défaut du conteneur.
+ * <ul>
+ * <li>classement du chemin par une table des extensions (type MIME) ;</li>
+ * <li>petits fichiers gardés sur le tas, fichiers moyens projetés en mémoire (mmap), dans la
+ *     limite de maxBytes ; au-delà, envoi direct du fichier (sendfile de Tomcat ou transferTo) ;</li>
+ * <li>variante .gz voisine servie telle quelle aux clients qui acceptent gzip ;</li>
+ * <li>ETag, Last-Modified, Cache-Control, requêtes conditionnelles et Range (un seul intervalle).</li>
+ * </ul>
+ */
+final class StaticResources {
+
+    private static final servlet.log.Logger LOG = servlet.log.Logger.get(StaticResources.class);
+
+    // Type MIME par extension ; null : chemin statique laissé au conteneur (JSP)
+    private static final Map<String, String> TYPES = new HashMap<>();
+
+    static {
+        TYPES.put("html", "text/html;charset=UTF-8");
+        TYPES.put("htm", "text/html;charset=UTF-8");
+        TYPES.put("css", "text/css;charset=UTF-8");
+        TYPES.put("js", "text/javascript;charset=UTF-8");
+        TYPES.put("mjs", "text/javascript;charset=UTF-8");
+        TYPES.put("json", "application/json");
+        TYPES.put("map", "application/json");
+        TYPES.put("txt", "text/plain;charset=UTF-8");
+        TYPES.put("xml", "application/xml");
+        TYPES.put("svg", "image/svg+xml");
+        TYPES.put("jpg", "image/jpeg");
+        TYPES.put("jpeg", "image/jpeg");
+        TYPES.put("png", "image/png");
+        TYPES.put("gif", "image/gif");
+        TYPES.put("webp", "image/webp");
+        TYPES.put("ico", "image/x-icon");
+        TYPES.put("woff", "font/woff");
+        TYPES.put("woff2", "font/woff2");
+        TYPES.put("ttf", "font/ttf");
+        TYPES.put("eot", "application/vnd.ms-fontobject");
+        TYPES.put("pdf", "application/pdf");
+        TYPES.put("jsp", null);
+    }
+
+    // Répertoires entièrement statiques, quelle que soit l'extension
+    private static final String[] PREFIXES = { "/images/", "/css/", "/js/", "/pages/" };
+
+    private static final int HEAP_THRESHOLD = 64 * 1024;
+    private static final long MAP_THRESHOLD = 4 * 1024 * 1024;
+    private static final long CHECK_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    // Attributs de requête de Tomcat pour l'envoi par sendfile (connecteur NIO/NIO2/APR)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * Fichier connu : métadonnées et, s'il tient dans le cache, son contenu.
+     */
+    private static final class Resource {
+        final Path file;
+        final String contentType;
+        final long length;
+        final long lastModified;
+        final String etag;
+        final ByteBuffer content; // null : lu depuis le fichier à chaque requête
+        final Resource gzip; // variante .gz, ou null
+        volatile long checkedAt;
+
+        Resource(Path file, String contentType, long length, long lastModified, ByteBuffer content,
+                Resource gzip) {
+            this.file = file;
+            this.contentType = contentType;
+            this.length = length;
+            this.lastModified = lastModified;
+            this.etag = '"' + Long.toHexString(length) + '-' + Long.toHexString(lastModified) + '"';
+            this.content = content;
+            this.gzip = gzip;
+            this.checkedAt = System.nanoTime();
+        }
+
+        long weight() {
+            return (content == null ? 0 : content.capacity()) + (gzip == null ? 0 : gzip.weight());
+        }
+    }
+
+    private final ServletContext context;
+    private final Path root; // racine réelle de l'application (liens résolus), ou null (WAR non déplié)
+    private final long maxBytes;
+    private final String cacheControl;
+    private final Map<String, Resource> resources = new ConcurrentHashMap<>();
+    private final AtomicLong bytes = new AtomicLong();
+
+    StaticResources(ServletContext context, long maxBytes, String cacheControl) {
+        this.context = context;
+        this.root = realRoot(context);
+        this.maxBytes = maxBytes;
+        this.cacheControl = cacheControl;
+    }
+
+    private static Path realRoot(ServletContext context) {
+        String realPath = context.getRealPath("/");
+        if (realPath == null) {
+            return null;
+        }
+        try {
+            return Paths.get(realPath).toRealPath();
+        } catch (IOException e) {
+            LOG.warn("Racine de l'application introuvable : {}", realPath);
+            return null;
+        }
+    }
+
+    /**
+     * Chemin demandé, décodé et normalisé par le conteneur (servletPath + pathInfo) ;
+     * l'URI brute laisse passer /./WEB-INF/web.xml ou //WEB-INF/web.xml.
+     */
+    static String requestPath(HttpServletRequest req) {
+        String pathInfo = req.getPathInfo();
+        return pathInfo == null ? req.getServletPath() : req.getServletPath() + pathInfo;
+    }
+
+    /**
+     * Faux si le chemin n'est pas sous forme normalisée (segment vide, ".", "..", point ou espace
+     * final ignorés par Windows, \, :, NUL) ou s'il désigne WEB-INF ou META-INF.
+     */
+    static boolean allowed(String path) {
+        if (path.isEmpty() || path.charAt(0) != '/' || path.indexOf('\\') >= 0 || path.indexOf(':') >= 0
+                || path.indexOf('\0') >= 0) {
+            return false;
+        }
+        int start = 1;
+        while (start <= path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            if (end == start || path.charAt(end - 1) == '.' || path.charAt(end - 1) == ' ') {
+                return false;
+            }
+            if (start == 1 && protectedDirectory(path.substring(start, end))) {
+                return false;
+            }
+            start = end + 1;
+        }
+        return true;
+    }
+
+    private static boolean protectedDirectory(String name) {
+        return name.equalsIgnoreCase("WEB-INF") || name.equalsIgnoreCase("META-INF");
+    }
+
+    /**
+     * Vrai si le chemin désigne un fichier statique (extension connue ou répertoire statique).
+     */
+    static boolean isStatic(String path) {
+        for (String prefix : PREFIXES) {
+            if (path.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                return true;
+            }
+        }
+        return TYPES.containsKey(extension(path));
+    }
+
+    // Extension en minuscules du dernier segment, ou "" (seule l'extension est copiée)
+    private static String extension(String path) {
+        int dot = path.lastIndexOf('.');
+        if (dot < 0 || dot < path.lastIndexOf('/')) {
+            return "";
+        }
+        return path.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Sert le fichier ; faux s'il doit être laissé au conteneur (JSP, type inconnu,
+     * fichier absent ou application non dépliée).
+     */
+    boolean serve(String path, HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        if (!"GET".equals(req.getMethod()) && !"HEAD".equals(req.getMethod())) {
+            return false;
+        }
+        Resource resource = resolve(path);
+        if (resource == null) {
+            return false;
+        }
+
+        resp.setHeader("ETag", resource.etag);
+        resp.setDateHeader("Last-Modified", resource.lastModified);
+        resp.setHeader("Accept-Ranges", "bytes");
+        if (cacheControl != null) {
+            resp.setHeader("Cache-Control", cacheControl);
+        }
+        if (ConditionalGet.matches(req, resource.etag)
+                || ConditionalGet.notModifiedSince(req, resource.lastModified)) {
+            ConditionalGet.notModified(resp);
+            return true;
+        }
+        resp.setContentType(resource.contentType);
+        if (resource.gzip != null) {
+            resp.setHeader("Vary", "Accept-Encoding");
+        }
+
+        // Range : un seul intervalle, sur la représentation non compressée
+        String range = req.getHeader("Range");
+        if (range != null && ifRange(req, resource)) {
+            long[] bounds = parseRange(range, resource.length);
+            if (bounds == null) {
+                resp.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                resp.setHeader("Content-Range", "bytes */" + resource.length);
+                return true;
+            }
+            if (bounds.length == 2) {
+                resp.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                resp.setHeader("Content-Range", "bytes " + bounds[0] + "-" + (bounds[1] - 1) + "/" + resource.length);
+                send(resource, bounds[0], bounds[1], req, resp);
+                return true;
+            }
+        }
+
+        if (resource.gzip != null && Compression.GZIP.equals(Compression.negotiate(req))) {
+            resp.setHeader("Content-Encoding", Compression.GZIP);
+            resp.setHeader("ETag", "W/" + resource.etag);
+            send(resource.gzip, 0, resource.gzip.length, req, resp);
+            return true;
+        }
+        send(resource, 0, resource.length, req, resp);
+        return true;
+    }
+
+    // If-Range : l'intervalle n'est honoré que si la ressource n'a pas changé
+    private static boolean ifRange(HttpServletRequest req, Resource resource) {
+        String ifRange = req.getHeader("If-Range");
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(resource.etag);
+        }
+        try {
+            return resource.lastModified / 1000 <= req.getDateHeader("If-Range") / 1000;
+        } catch (IllegalArgumentException invalidDate) {
+            return false;
+        }
+    }
+
+    /**
+     * bytes=a-b, bytes=a- ou bytes=-n : {début, fin exclue} ; tableau vide si l'en-tête est
+     * ignoré (plusieurs intervalles, autre unité) ; null si l'intervalle est hors du fichier.
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            long start;
+            long end;
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1).trim());
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash).trim());
+                String last = spec.substring(dash + 1).trim();
+                end = last.isEmpty() ? length : Math.min(length, Long.parseLong(last) + 1);
+            }
+            return start < length && start < end ? new long[] { start, end } : null;
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    private void send(Resource resource, long start, long end, HttpServletRequest req,
+            HttpServletResponse resp) throws IOException {
+        long count = end - start;
+        resp.setContentLengthLong(count);
+        if ("HEAD".equals(req.getMethod())) {
+            return;
+        }
+        if (resource.content != null) {
+            ByteBuffer slice = resource.content.duplicate();
+            slice.position((int) start).limit((int) end);
+            if (slice.hasArray()) {
+                resp.getOutputStream().write(slice.array(), slice.arrayOffset() + slice.position(), (int) count);
+            } else {
+                writeFully(slice, Channels.newChannel(resp.getOutputStream()));
+            }
+            return;
+        }
+        // Gros fichier : sendfile du conteneur, sinon copie de canal à canal
+        if (Boolean.TRUE.equals(req.getAttribute(SENDFILE_SUPPORT))) {
+            req.setAttribute(SENDFILE_FILENAME, resource.file.toAbsolutePath().toString());
+            req.setAttribute(SENDFILE_START, start);
+            req.setAttribute(SENDFILE_END, end);
+            return;
+        }
+        OutputStream out = resp.getOutputStream();
+        try (FileChannel channel = FileChannel.open(resource.file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, target);
+            }
+        }
+    }
+
+    // Fichier réel (liens résolus) sous la racine, hors WEB-INF et META-INF
+    private boolean insideRoot(Path file) throws IOException {
+        Path real = file.toRealPath();
+        if (!real.startsWith(root) || real.equals(root)) {
+            return false;
+        }
+        return !protectedDirectory(root.relativize(real).getName(0).toString());
+    }
+
+    private static void writeFully(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // Ressource en cache, rechargée si le fichier a changé (vérifié au plus une fois par seconde)
+    private Resource resolve(String path) throws IOException {
+        Resource resource = resources.get(path);
+        if (resource != null) {
+            long now = System.nanoTime();
+            if (now - resource.checkedAt < CHECK_INTERVAL_NANOS) {
+                return resource;
+            }
+            BasicFileAttributes attributes = attributes(resource.file);
+            if (attributes != null && attributes.size() == resource.length
+                    && attributes.lastModifiedTime().toMillis() == resource.lastModified) {
+                resource.checkedAt = now;
+                return resource;
+            }
+            if (resources.remove(path, resource)) {
+                bytes.addAndGet(-resource.weight());
+            }
+        }
+
+        String extension = extension(path);
+        String contentType = TYPES.get(extension);
+        if (contentType == null && TYPES.containsKey(extension)) {
+            return null; // JSP : compilée par le conteneur
+        }
+        if (contentType == null) {
+            contentType = context.getMimeType(path);
+        }
+        if (contentType == null || !allowed(path)) {
+            return null;
+        }
+        String realPath = context.getRealPath(path);
+        if (realPath == null || root == null) {
+            return null; // application servie depuis un WAR non déplié
+        }
+        Path file = Paths.get(realPath);
+        BasicFileAttributes attributes = attributes(file);
+        if (attributes == null || !attributes.isRegularFile() || !insideRoot(file)) {
+            return null;
+        }
+
+        Path gzFile = file.resolveSibling(file.getFileName() + ".gz");
+        BasicFileAttributes gzAttributes = attributes(gzFile);
+        Resource gzip = null;
+        if (gzAttributes != null && gzAttributes.isRegularFile()
+                && gzAttributes.lastModifiedTime().toMillis() >= attributes.lastModifiedTime().toMillis()) {
+            gzip = load(gzFile, contentType, gzAttributes, null);
+        }
+        resource = load(file, contentType, attributes, gzip);
+        Resource previous = resources.putIfAbsent(path, resource);
+        if (previous != null) {
+            release(resource);
+            return previous;
+        }
+        return resource;
+    }
+
+    // Contenu lu sur le tas ou projeté, si le budget le permet
+    private Resource load(Path file, String contentType, BasicFileAttributes attributes, Resource gzip)
+            throws IOException {
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        if (length > MAP_THRESHOLD) {
+            return new Resource(file, contentType, length, lastModified, null, gzip);
+        }
+        if (bytes.addAndGet(length) > maxBytes) {
+            bytes.addAndGet(-length);
+            LOG.debug("Static cache full, {} served from disk", file);
+            return new Resource(file, contentType, length, lastModified, null, gzip);
+        }
+        ByteBuffer content;
+        try {
+            if (length <= HEAP_THRESHOLD) {
+                content = ByteBuffer.wrap(Files.readAllBytes(file));
+            } else {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    content = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            bytes.addAndGet(-length);
+            throw e;
+        }
+        // Le fichier a pu changer entre la lecture des attributs et celle du contenu
+        bytes.addAndGet(content.capacity() - length);
+        return new Resource(file, contentType, content.capacity(), lastModified, content, gzip);
+    }
+
+    private void release(Resource resource) {
+        bytes.addAndGet(-resource.weight());
+    }
+
+    private static BasicFileAttributes attributes(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    long bytes() {
+        return bytes.get();
+    }
+
+    long size() {
+        return resources.size();
+    }
+}
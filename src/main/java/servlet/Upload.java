@@ -1,10 +1,20 @@
 package servlet;
 
-import java.io.File;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 /**
- * Représente un fichier uploadé via multipart/form-data
+ * Représente un fichier uploadé via multipart/form-data.
+ * Le contenu est sur disque (savedPath) ; il n'est gardé en mémoire que pour
+ * les petits fichiers (seuil uploadMemoryThreshold du FrontServlet).
  */
 public class Upload {
     private String filename;
@@ -12,6 +22,8 @@ public class Upload {
     private long size;
     private byte[] content;
     private String savedPath;
+    private String sha256;
+    private long crc32c;
 
     public Upload(String filename, String contentType, long size, byte[] content) {
         this.filename = filename;
@@ -20,6 +32,14 @@ public class Upload {
         this.content = content;
     }
 
+    /**
+     * Upload adossé à un fichier, sans contenu en mémoire.
+     */
+    public Upload(String filename, String contentType, long size, Path file) {
+        this(filename, contentType, size, (byte[]) null);
+        this.savedPath = file.toString();
+    }
+
     public String getFilename() {
         return filename;
     }
@@ -44,14 +64,67 @@ public class Upload {
         this.size = size;
     }
 
+    /**
+     * Contenu complet en mémoire. Pour un gros fichier, le contenu est relu depuis
+     * le disque à chaque appel : préférer openStream(), asPath() ou map().
+     */
     public byte[] getContent() {
-        return content;
+        if (content != null || savedPath == null) {
+            return content;
+        }
+        try {
+            return Files.readAllBytes(asPath());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     public void setContent(byte[] content) {
         this.content = content;
     }
 
+    /**
+     * Vrai si le contenu est conservé en mémoire (petit fichier).
+     */
+    public boolean isInMemory() {
+        return content != null;
+    }
+
+    /**
+     * Flux de lecture du contenu, depuis la mémoire ou le fichier sauvegardé.
+     */
+    public InputStream openStream() throws IOException {
+        if (content != null) {
+            return new ByteArrayInputStream(content);
+        }
+        if (savedPath == null) {
+            throw new IOException("No content for upload " + filename);
+        }
+        return Files.newInputStream(asPath());
+    }
+
+    /**
+     * Chemin du fichier sauvegardé, ou null si l'upload n'existe qu'en mémoire.
+     */
+    public Path asPath() {
+        return savedPath == null ? null : Paths.get(savedPath);
+    }
+
+    /**
+     * Accès en lecture seule au contenu : fichier projeté en mémoire, ou tampon existant.
+     */
+    public ByteBuffer map() throws IOException {
+        if (content != null) {
+            return ByteBuffer.wrap(content).asReadOnlyBuffer();
+        }
+        if (savedPath == null) {
+            throw new IOException("No content for upload " + filename);
+        }
+        try (FileChannel channel = FileChannel.open(asPath(), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
     public String getSavedPath() {
         return savedPath;
     }
@@ -60,6 +133,28 @@ public class Upload {
         this.savedPath = savedPath;
     }
 
+    /**
+     * Empreinte SHA-256 (hexadécimal) calculée pendant l'écriture sur disque.
+     */
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    /**
+     * CRC32C calculé pendant l'écriture sur disque.
+     */
+    public long getCrc32c() {
+        return crc32c;
+    }
+
+    public void setCrc32c(long crc32c) {
+        this.crc32c = crc32c;
+    }
+
     @Override
     public String toString() {
         return "Upload{" +
@@ -67,6 +162,7 @@ public class Upload {
                 ", contentType='" + contentType + '\'' +
                 ", size=" + size +
                 ", savedPath='" + savedPath + '\'' +
+                ", sha256='" + sha256 + '\'' +
                 '}';
     }
 }
@@ -0,0 +1,183 @@
+package servlet;
+
+import jakarta.servlet.http.Part;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+/**
+ * Sauvegarde des fichiers uploadés.
+ * Les parties d'une requête sont écrites en parallèle sur un exécuteur d'I/O ;
+ * SHA-256 et CRC32C sont calculés pendant la copie, sans relire le fichier.
+ */
+final class UploadStore {
+
+    private static final servlet.log.Logger LOG = servlet.log.Logger.get(UploadStore.class);
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int MAX_NAME_LENGTH = 200;
+    private static final ThreadLocal<byte[]> CHUNKS = ThreadLocal.withInitial(() -> new byte[CHUNK_SIZE]);
+
+    private final Path directory;
+    private final long memoryThreshold;
+    private final ExecutorService executor;
+    private final AtomicLong lastStamp = new AtomicLong();
+
+    UploadStore(Path directory, long memoryThreshold, int maxThreads) {
+        this.directory = directory;
+        this.memoryThreshold = memoryThreshold;
+        this.executor = VirtualThreads.newExecutor("upload", maxThreads);
+    }
+
+    /**
+     * Lance l'écriture de toutes les parties fichier ; le résultat est disponible
+     * quand toutes les écritures sont terminées (groupées par nom de champ).
+     */
+    CompletableFuture<Map<String, List<Upload>>> saveAll(Collection<Part> parts) throws IOException {
+        Files.createDirectories(directory);
+
+        List<String> fieldNames = new ArrayList<>();
+        List<CompletableFuture<Upload>> writes = new ArrayList<>();
+
+        for (Part part : parts) {
+            String filename = submittedFileName(part);
+
+            // Si c'est un fichier (pas un champ de formulaire simple)
+            if (filename != null && !filename.isEmpty()) {
+                fieldNames.add(part.getName());
+                writes.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return save(part, filename);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, executor));
+            }
+        }
+
+        return CompletableFuture.allOf(writes.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            Map<String, List<Upload>> uploads = new HashMap<>();
+            for (int i = 0; i < writes.size(); i++) {
+                // Ajouter au map (grouper par nom de champ)
+                uploads.computeIfAbsent(fieldNames.get(i), k -> new ArrayList<>()).add(writes.get(i).join());
+            }
+            return uploads;
+        });
+    }
+
+    private Upload save(Part part, String filename) throws IOException {
+        // Créer un nom unique pour éviter les conflits (sans les répertoires envoyés par le client)
+        Path savedPath = directory.resolve(nextStamp() + "_" + baseName(filename));
+
+        MessageDigest sha256 = sha256();
+        CRC32C crc = new CRC32C();
+        // Petit fichier : copie mémoire en plus du disque
+        ByteArrayOutputStream memory = part.getSize() <= memoryThreshold
+                ? new ByteArrayOutputStream((int) Math.max(part.getSize(), 32))
+                : null;
+        byte[] chunk = CHUNKS.get();
+        long size = 0;
+
+        try (InputStream in = part.getInputStream();
+             FileChannel out = FileChannel.open(savedPath,
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            int read;
+            while ((read = in.read(chunk)) > 0) {
+                // Un seul passage sur les octets : empreintes puis écriture
+                sha256.update(chunk, 0, read);
+                crc.update(chunk, 0, read);
+                ByteBuffer buffer = ByteBuffer.wrap(chunk, 0, read);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                size += read;
+                if (memory != null) {
+                    if (size > memoryThreshold) {
+                        memory = null; // taille annoncée inexacte : rester sur disque
+                    } else {
+                        memory.write(chunk, 0, read);
+                    }
+                }
+            }
+        }
+
+        Upload upload = new Upload(filename, part.getContentType(), size, savedPath);
+        if (memory != null) {
+            upload.setContent(memory.toByteArray());
+        }
+        upload.setSha256(HexFormat.of().formatHex(sha256.digest()));
+        upload.setCrc32c(crc.getValue());
+
+        LOG.info("Fichier uploadé : {} ({} bytes) -> {}", filename, size, savedPath);
+        return upload;
+    }
+
+    // Nom fourni par le client : dernier segment (/ ou \), caractères refusés par Windows remplacés,
+    // sans Paths.get qui lève InvalidPathException sur ces caractères
+    static String baseName(String filename) {
+        String name = filename.substring(Math.max(filename.lastIndexOf('/'), filename.lastIndexOf('\\')) + 1);
+        StringBuilder safe = new StringBuilder(Math.min(name.length(), MAX_NAME_LENGTH));
+        for (int i = 0; i < name.length() && safe.length() < MAX_NAME_LENGTH; i++) {
+            char c = name.charAt(i);
+            safe.append(c < 0x20 || c == 0x7f || "<>:\"|?*".indexOf(c) >= 0 ? '_' : c);
+        }
+        // Windows ignore points et espaces finaux ("." et ".." deviennent vides)
+        int end = safe.length();
+        while (end > 0 && (safe.charAt(end - 1) == '.' || safe.charAt(end - 1) == ' ')) {
+            end--;
+        }
+        return end == 0 ? "upload" : safe.substring(0, end);
+    }
+
+    // Horodatage strictement croissant : deux fichiers de même nom ne s'écrasent pas
+    private long nextStamp() {
+        long now = System.currentTimeMillis();
+        return lastStamp.updateAndGet(last -> Math.max(now, last + 1));
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // toujours présent dans le JDK
+        }
+    }
+
+    // Méthode utilitaire pour extraire le nom du fichier depuis Part
+    static String submittedFileName(Part part) {
+        String contentDisposition = part.getHeader("content-disposition");
+        if (contentDisposition != null) {
+            for (String token : contentDisposition.split(";")) {
+                if (token.trim().startsWith("filename")) {
+                    String filename = token.substring(token.indexOf('=') + 1).trim().replace("\"", "");
+                    return filename;
+                }
+            }
+        }
+        return null;
+    }
+}
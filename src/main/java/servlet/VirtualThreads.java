@@ -0,0 +1,78 @@
+package servlet;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exécuteurs pour les tâches bloquantes (I/O).
+ * Utilise un thread virtuel par tâche quand la JVM le permet (Java 21+),
+ * sinon un pool borné de threads démons.
+ */
+final class VirtualThreads {
+
+    private static final MethodHandle NEW_VIRTUAL_EXECUTOR = lookupVirtualExecutor();
+    private static final MethodHandle IS_VIRTUAL = lookupIsVirtual();
+
+    private VirtualThreads() {
+    }
+
+    static boolean supported() {
+        return NEW_VIRTUAL_EXECUTOR != null;
+    }
+
+    /** Thread.isVirtual(), toujours faux avant Java 21. */
+    static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(thread);
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+    /**
+     * Un thread virtuel par tâche, ou à défaut au plus maxThreads threads nommés name-N.
+     */
+    static ExecutorService newExecutor(String name, int maxThreads) {
+        if (NEW_VIRTUAL_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_EXECUTOR.invokeExact();
+            } catch (Throwable t) {
+                // repli sur le pool borné
+            }
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = task -> {
+            Thread thread = new Thread(task, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(Math.max(1, maxThreads), factory);
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() n'existe qu'à partir de Java 21
+    private static MethodHandle lookupVirtualExecutor() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class,
+                    "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static MethodHandle lookupIsVirtual() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(Thread.class,
+                    "isVirtual", MethodType.methodType(boolean.class));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package servlet.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Met en cache la réponse (JSON ou texte) d'une méthode @GetMapping.
+ * Tant que l'entrée est valide, la requête est servie sans contrôleur, sans appel ni sérialisation.
+ * Clé : chemin demandé + paramètres retenus (+ rôle de l'utilisateur si perRole).
+ * Invalidation : ResponseCache.of(servletContext).invalidateTag("departements"), etc.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Cacheable {
+
+    /**
+     * Durée de vie d'une entrée, en secondes.
+     */
+    int ttl() default 60;
+
+    /**
+     * Paramètres de requête qui font partie de la clé ; vide = tous les paramètres.
+     */
+    String[] params() default {};
+
+    /**
+     * Une entrée par rôle de l'utilisateur (attribut de session des rôles).
+     */
+    boolean perRole() default false;
+
+    /**
+     * Étiquettes pour invalider plusieurs routes ensemble.
+     */
+    String[] tags() default {};
+}
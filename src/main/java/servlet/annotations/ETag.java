@@ -0,0 +1,36 @@
+package servlet.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Réponses conditionnelles (If-None-Match / If-Modified-Since) pour une méthode @GetMapping.
+ * Sans méthode de version, l'ETag est une empreinte du corps sérialisé : le 304 économise
+ * la bande passante mais pas l'appel. Avec version ou lastModified, le 304 est envoyé
+ * sans appeler la route.
+ * <pre>
+ * &#64;GetMapping("/tableau")
+ * &#64;ETag(version = "versionTableau")
+ * public JsonResponse tableau() { ... }
+ *
+ * long versionTableau() { return compteurDeModifications; }
+ * </pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ETag {
+
+    /**
+     * Méthode du même contrôleur qui retourne la version de la ressource (ou null si inconnue).
+     * Ses paramètres sont liés comme ceux de la route.
+     */
+    String version() default "";
+
+    /**
+     * Méthode du même contrôleur qui retourne la date de dernière modification :
+     * long (millisecondes), java.util.Date, java.time.Instant, ou null si inconnue.
+     */
+    String lastModified() default "";
+}
@@ -0,0 +1,16 @@
+package servlet.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Demande la génération d'un sérialiseur JSON à la compilation
+ * (javac -processor servlet.processor.JsonSerializerProcessor).
+ * Sans le processeur, la classe est sérialisée par réflexion comme les autres.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface JsonSerializable {
+}
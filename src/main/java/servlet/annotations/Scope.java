@@ -0,0 +1,42 @@
+package servlet.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Portée des instances d'un @Controller.
+ * Sans annotation, le contrôleur est un singleton créé au démarrage du servlet.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Scope {
+
+    Type value() default Type.SINGLETON;
+
+    /**
+     * Nombre d'instances préparées pour la portée POOLED.
+     */
+    int size() default 8;
+
+    /**
+     * Portée POOLED, pool vide : attente maximale d'une instance en ms, puis échec de la requête.
+     * 0 (défaut) : pas d'attente, une instance temporaire est créée (nombre non borné).
+     */
+    long timeout() default 0;
+
+    enum Type {
+        /** Une seule instance partagée (contrôleur sans état). */
+        SINGLETON,
+        /**
+         * Une instance par thread du conteneur. Refusée sur les routes @VirtualThread ;
+         * sur un thread virtuel (serveur embarqué en Java 21+), une instance par requête.
+         */
+        THREAD,
+        /** Un pool borné d'instances, chacune utilisée par une seule requête à la fois. */
+        POOLED,
+        /** Une nouvelle instance par requête (ancien comportement). */
+        PROTOTYPE
+    }
+}
@@ -0,0 +1,16 @@
+package servlet.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Exécute la méthode (ou toutes les méthodes du contrôleur) sur un thread virtuel,
+ * sous servlet async : le thread du conteneur est libéré pendant le code bloquant (JDBC, fichiers).
+ * Pour toutes les routes : init-param virtualThreads=true.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.TYPE })
+public @interface VirtualThread {
+}
@@ -0,0 +1,261 @@
+package servlet.http;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Routeur à arbre de segments pour les chemins paramétrés.
+ * <ul>
+ *   <li>segment littéral : /employees</li>
+ *   <li>capture : /employees/{id} (la valeur est liée au paramètre "id")</li>
+ *   <li>joker d'un segment : /files/*</li>
+ *   <li>joker terminal : /assets/** (tout le reste du chemin)</li>
+ * </ul>
+ * La recherche parcourt le chemin brut (non décodé) par indices, sans split ni regex ;
+ * seules les valeurs capturées sont extraites quand une route correspond, puis
+ * décodées (%XX en UTF-8, '+' conservé : ce n'est pas une query). Un %2F capturé
+ * reste dans son segment.
+ */
+public class RouteTrie<V> {
+
+    private final Node<V> root = new Node<>();
+    private int maxVariables;
+
+    public static final class Match<V> {
+        public final V value;
+        public final String[] variables;
+
+        Match(V value, String[] variables) {
+            this.value = value;
+            this.variables = variables;
+        }
+    }
+
+    private static final class Node<V> {
+        String[] literals = new String[0];
+        List<Node<V>> literalChildren = new ArrayList<>();
+        Node<V> variableChild;
+        Node<V> wildcardChild;
+        V catchAll;
+        V value;
+
+        Node<V> literal(String segment) {
+            for (int i = 0; i < literals.length; i++) {
+                if (literals[i].equals(segment)) {
+                    return literalChildren.get(i);
+                }
+            }
+            Node<V> child = new Node<>();
+            literals = Arrays.copyOf(literals, literals.length + 1);
+            literals[literals.length - 1] = segment;
+            literalChildren.add(child);
+            return child;
+        }
+    }
+
+    /**
+     * Vrai si le chemin contient une capture ou un joker.
+     */
+    public static boolean isTemplate(String path) {
+        return path.indexOf('{') >= 0 || path.indexOf('*') >= 0;
+    }
+
+    /**
+     * Noms des captures d'un modèle, dans l'ordre des valeurs retournées par match().
+     */
+    public static List<String> variables(String template) {
+        List<String> names = new ArrayList<>();
+        for (String segment : segments(template)) {
+            if (isVariable(segment)) {
+                names.add(segment.substring(1, segment.length() - 1));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Retourne la valeur associée au modèle, en la créant si elle n'existe pas.
+     */
+    public V insert(String template, Supplier<V> ifAbsent) {
+        Node<V> node = root;
+        int variableCount = 0;
+        List<String> segments = segments(template);
+
+        for (int i = 0; i < segments.size(); i++) {
+            String segment = segments.get(i);
+            if (segment.equals("**")) {
+                if (i != segments.size() - 1) {
+                    throw new IllegalArgumentException("'**' must be the last segment: " + template);
+                }
+                if (node.catchAll == null) {
+                    node.catchAll = ifAbsent.get();
+                }
+                maxVariables = Math.max(maxVariables, variableCount);
+                return node.catchAll;
+            } else if (segment.equals("*")) {
+                if (node.wildcardChild == null) {
+                    node.wildcardChild = new Node<>();
+                }
+                node = node.wildcardChild;
+            } else if (isVariable(segment)) {
+                if (node.variableChild == null) {
+                    node.variableChild = new Node<>();
+                }
+                node = node.variableChild;
+                variableCount++;
+            } else {
+                node = node.literal(segment);
+            }
+        }
+
+        maxVariables = Math.max(maxVariables, variableCount);
+        if (node.value == null) {
+            node.value = ifAbsent.get();
+        }
+        return node.value;
+    }
+
+    /**
+     * Cherche la route correspondant au chemin (qui commence par '/').
+     * Priorité : littéral, puis capture, puis joker, puis joker terminal.
+     * @return null si aucune route ne correspond
+     */
+    public Match<V> match(String path) {
+        if (path.isEmpty() || path.charAt(0) != '/') {
+            return null;
+        }
+        int[] bounds = new int[maxVariables * 2];
+        int[] found = new int[1];
+        V value = match(root, path, 1, bounds, 0, found);
+        if (value == null) {
+            return null;
+        }
+
+        String[] variables = new String[found[0]];
+        for (int i = 0; i < variables.length; i++) {
+            variables[i] = decode(path, bounds[2 * i], bounds[2 * i + 1]);
+        }
+        return new Match<>(value, variables);
+    }
+
+    private V match(Node<V> node, String path, int pos, int[] bounds, int slot, int[] found) {
+        int length = path.length();
+        if (pos >= length) {
+            if (node.value != null) {
+                found[0] = slot;
+                return node.value;
+            }
+            if (node.catchAll != null) {
+                found[0] = slot;
+                return node.catchAll;
+            }
+            return null;
+        }
+
+        int end = path.indexOf('/', pos);
+        if (end < 0) {
+            end = length;
+        }
+        int next = end < length ? end + 1 : end;
+        int segmentLength = end - pos;
+
+        String[] literals = node.literals;
+        for (int i = 0; i < literals.length; i++) {
+            String literal = literals[i];
+            if (literal.length() == segmentLength && path.regionMatches(pos, literal, 0, segmentLength)) {
+                V value = match(node.literalChildren.get(i), path, next, bounds, slot, found);
+                if (value != null) {
+                    return value;
+                }
+                break;
+            }
+        }
+
+        if (segmentLength > 0 && node.variableChild != null) {
+            bounds[2 * slot] = pos;
+            bounds[2 * slot + 1] = end;
+            V value = match(node.variableChild, path, next, bounds, slot + 1, found);
+            if (value != null) {
+                return value;
+            }
+        }
+
+        if (segmentLength > 0 && node.wildcardChild != null) {
+            V value = match(node.wildcardChild, path, next, bounds, slot, found);
+            if (value != null) {
+                return value;
+            }
+        }
+
+        if (node.catchAll != null) {
+            found[0] = slot;
+            return node.catchAll;
+        }
+        return null;
+    }
+
+    // Décodage d'un segment capturé ; une séquence % invalide est gardée telle quelle
+    private static String decode(String path, int from, int to) {
+        int percent = path.indexOf('%', from);
+        if (percent < 0 || percent >= to) {
+            return path.substring(from, to);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(to - from);
+        StringBuilder out = new StringBuilder(to - from);
+        int i = from;
+        while (i < to) {
+            char c = path.charAt(i);
+            int octet = c == '%' ? hex(path, i + 1, to) : -1;
+            if (octet >= 0) {
+                bytes.write(octet);
+                i += 3;
+                continue;
+            }
+            if (bytes.size() > 0) {
+                out.append(new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+                bytes.reset();
+            }
+            out.append(c);
+            i++;
+        }
+        if (bytes.size() > 0) {
+            out.append(new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+        }
+        return out.toString();
+    }
+
+    // Octet de l'échappement %XX commençant à pos, ou -1
+    private static int hex(String path, int pos, int to) {
+        if (pos + 1 >= to) {
+            return -1;
+        }
+        char h = path.charAt(pos);
+        char l = path.charAt(pos + 1);
+        int high = h < 128 ? Character.digit(h, 16) : -1;
+        int low = l < 128 ? Character.digit(l, 16) : -1;
+        return high < 0 || low < 0 ? -1 : high << 4 | low;
+    }
+
+    private static boolean isVariable(String segment) {
+        return segment.length() > 2 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}';
+    }
+
+    // Découpe utilisée uniquement à l'enregistrement des routes
+    private static List<String> segments(String template) {
+        List<String> segments = new ArrayList<>();
+        int pos = template.startsWith("/") ? 1 : 0;
+        while (pos < template.length()) {
+            int end = template.indexOf('/', pos);
+            if (end < 0) {
+                end = template.length();
+            }
+            segments.add(template.substring(pos, end));
+            pos = end + 1;
+        }
+        return segments;
+    }
+}
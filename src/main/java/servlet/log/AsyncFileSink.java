@@ -0,0 +1,205 @@
+package servlet.log;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * LogSink asynchrone : les threads des requêtes déposent les événements dans un tampon
+ * circulaire borné sans verrou (plusieurs producteurs, un consommateur) ; un thread démon
+ * les formate et les écrit par lots dans un fichier (ou la sortie standard) via NIO.
+ * Si le tampon est plein, un événement TRACE/DEBUG/INFO est abandonné et compté ;
+ * WARN et ERROR attendent brièvement qu'une case se libère. Les événements perdus sur
+ * une erreur d'écriture sont comptés à part (failed()).
+ */
+public final class AsyncFileSink implements LogSink {
+
+    private static final int BATCH_BYTES = 64 * 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final WritableByteChannel channel;
+    private final boolean json;
+
+    // Tampon circulaire : chaque case porte un numéro de séquence (file bornée de Vyukov)
+    private final LogEvent[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private long head; // lu et écrit par le seul thread d'écriture
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AsyncFileSink(WritableByteChannel channel, int capacity, boolean json) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.channel = channel;
+        this.json = json;
+        this.slots = new LogEvent[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.writer = new Thread(this::drainLoop, "framework-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Écriture en fin de fichier (créé si besoin, répertoires compris).
+     */
+    public static AsyncFileSink file(Path file, int capacity, boolean json) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        return new AsyncFileSink(FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND), capacity, json);
+    }
+
+    /**
+     * Écriture sur la sortie standard du processus (sans passer par System.out et son verrou).
+     */
+    public static AsyncFileSink console(int capacity, boolean json) {
+        return new AsyncFileSink(Channels.newChannel(new FileOutputStream(FileDescriptor.out)), capacity, json);
+    }
+
+    @Override
+    public void publish(LogEvent event) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) pos & mask;
+            long sequence = sequences.get(index);
+            long diff = sequence - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots[index] = event;
+                    sequences.lazySet(index, pos + 1); // publication vers le thread d'écriture
+                    return;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                // Plein : seuls les avertissements et erreurs attendent le thread d'écriture
+                if (event.level.compareTo(Level.WARN) < 0 || !running) {
+                    dropped.increment();
+                    return;
+                }
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+                pos = tail.get();
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /** Événements abandonnés, tampon plein. */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /** Événements perdus sur une erreur d'écriture. */
+    public long failed() {
+        return failed.sum();
+    }
+
+    private LogEvent poll() {
+        int index = (int) head & mask;
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        LogEvent event = slots[index];
+        slots[index] = null;
+        sequences.lazySet(index, head + mask + 1); // case libérée pour le tour suivant
+        head++;
+        return event;
+    }
+
+    private void drainLoop() {
+        StringBuilder batch = new StringBuilder(BATCH_BYTES);
+        long reportedDrops = 0;
+        long reportedFailures = 0;
+        while (running || sequences.get((int) head & mask) == head + 1) {
+            int events = 0;
+            LogEvent event;
+            while (batch.length() < BATCH_BYTES && (event = poll()) != null) {
+                format(event, batch);
+                events++;
+            }
+            long drops = dropped.sum();
+            if (drops != reportedDrops) {
+                format(new LogEvent(Level.WARN, AsyncFileSink.class.getName(),
+                        "{} log events dropped (buffer full)", new Object[] { drops - reportedDrops }), batch);
+                reportedDrops = drops;
+            }
+            long failures = failed.sum();
+            if (failures != reportedFailures) {
+                format(new LogEvent(Level.WARN, AsyncFileSink.class.getName(),
+                        "{} log events lost (write failed)", new Object[] { failures - reportedFailures }), batch);
+                reportedFailures = failures;
+            }
+            if (batch.length() > 0) {
+                write(batch, events);
+                batch.setLength(0);
+            } else {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private void format(LogEvent event, StringBuilder batch) {
+        try {
+            if (json) {
+                event.formatJson(batch);
+            } else {
+                event.formatText(batch);
+            }
+        } catch (RuntimeException e) {
+            batch.append("log formatting failed: ").append(e).append('\n'); // toString() d'un argument
+        }
+    }
+
+    private void write(StringBuilder batch, int events) {
+        ByteBuffer bytes = ByteBuffer.wrap(batch.toString().getBytes(StandardCharsets.UTF_8));
+        try {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        } catch (IOException e) {
+            failed.add(events);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // La sortie standard reste ouverte
+        if (channel instanceof FileChannel) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // rien à faire à l'arrêt
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package servlet.log;
+
+/**
+ * Niveaux de log, du plus bavard au plus grave.
+ */
+public enum Level {
+    TRACE, DEBUG, INFO, WARN, ERROR, OFF
+}
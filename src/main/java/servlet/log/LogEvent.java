@@ -0,0 +1,138 @@
+package servlet.log;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+
+/**
+ * Événement de log non formaté : le message n'est construit qu'au moment de l'écriture,
+ * sur le thread d'écriture. Les arguments doivent donc rester inchangés après l'appel.
+ */
+public final class LogEvent {
+
+    public final long timeMillis;
+    public final Level level;
+    public final String logger;
+    public final String thread;
+    private final String pattern;
+    private final Object[] args;
+
+    LogEvent(Level level, String logger, String pattern, Object[] args) {
+        this.timeMillis = System.currentTimeMillis();
+        this.level = level;
+        this.logger = logger;
+        this.thread = Thread.currentThread().getName();
+        this.pattern = pattern;
+        this.args = args;
+    }
+
+    /**
+     * Message avec les {} remplacés par les arguments, dans l'ordre.
+     */
+    public String message() {
+        if (args == null || args.length == 0 || pattern == null) {
+            return pattern;
+        }
+        StringBuilder out = new StringBuilder(pattern.length() + 16 * args.length);
+        int arg = 0;
+        int start = 0;
+        int index;
+        while ((index = pattern.indexOf("{}", start)) >= 0 && arg < args.length) {
+            out.append(pattern, start, index).append(args[arg++]);
+            start = index + 2;
+        }
+        return out.append(pattern, start, pattern.length()).toString();
+    }
+
+    /**
+     * Exception passée en dernier argument (non consommée par un {}), ou null.
+     */
+    public Throwable error() {
+        if (args == null || args.length == 0 || !(args[args.length - 1] instanceof Throwable)) {
+            return null;
+        }
+        int placeholders = 0;
+        for (int i = pattern.indexOf("{}"); i >= 0; i = pattern.indexOf("{}", i + 2)) {
+            placeholders++;
+        }
+        return placeholders < args.length ? (Throwable) args[args.length - 1] : null;
+    }
+
+    /**
+     * Ligne texte : 2026-01-01T10:00:00.123Z INFO  [thread] logger - message
+     */
+    public void formatText(StringBuilder out) {
+        out.append(Instant.ofEpochMilli(timeMillis)).append(' ')
+                .append(level.name());
+        for (int i = level.name().length(); i < 5; i++) {
+            out.append(' ');
+        }
+        out.append(" [").append(thread).append("] ")
+                .append(logger).append(" - ").append(message()).append('\n');
+        Throwable error = error();
+        if (error != null) {
+            out.append(stackTrace(error));
+        }
+    }
+
+    /**
+     * Ligne JSON : {"ts":"...","level":"INFO","logger":"...","thread":"...","msg":"...","error":"..."}
+     */
+    public void formatJson(StringBuilder out) {
+        out.append("{\"ts\":\"").append(Instant.ofEpochMilli(timeMillis))
+                .append("\",\"level\":\"").append(level.name())
+                .append("\",\"logger\":");
+        quote(out, logger);
+        out.append(",\"thread\":");
+        quote(out, thread);
+        out.append(",\"msg\":");
+        quote(out, message());
+        Throwable error = error();
+        if (error != null) {
+            out.append(",\"error\":");
+            quote(out, stackTrace(error));
+        }
+        out.append("}\n");
+    }
+
+    private static String stackTrace(Throwable error) {
+        StringWriter trace = new StringWriter();
+        error.printStackTrace(new PrintWriter(trace));
+        return trace.toString();
+    }
+
+    private static void quote(StringBuilder out, String str) {
+        if (str == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,18 @@
+package servlet.log;
+
+/**
+ * Destination des événements de log. L'implémentation par défaut est AsyncFileSink ;
+ * une autre peut être fournie par l'init-param logSink (classe avec constructeur sans argument).
+ */
+public interface LogSink {
+
+    /**
+     * Appelé sur le thread de la requête : ne doit pas bloquer.
+     */
+    void publish(LogEvent event);
+
+    /**
+     * Écrit les événements en attente et libère les ressources.
+     */
+    void close();
+}
@@ -0,0 +1,195 @@
+package servlet.log;
+
+/**
+ * Façade de log du framework.
+ * <pre>
+ * private static final Logger LOG = Logger.get(MonControleur.class);
+ * LOG.info("Employé {} créé", id);
+ * </pre>
+ * Si le niveau est désactivé, l'appel s'arrête à une comparaison ; sinon un événement
+ * est déposé dans le LogSink (file sans verrou) et formaté plus tard par le thread d'écriture.
+ * Une exception en dernier argument est écrite avec sa pile d'appels.
+ * Après shutdown(), et jusqu'au prochain configure(), les événements sont écrits
+ * directement sur la sortie d'erreur par le thread appelant, sans thread d'écriture.
+ */
+public final class Logger {
+
+    private static volatile Level threshold = Level.INFO;
+    private static volatile LogSink sink;
+    private static volatile boolean stopped;
+
+    // Après l'arrêt : écriture synchrone, rien à fermer
+    private static final LogSink STOPPED = new LogSink() {
+        @Override
+        public void publish(LogEvent event) {
+            StringBuilder line = new StringBuilder(128);
+            event.formatText(line);
+            System.err.print(line);
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    private final String name;
+
+    private Logger(String name) {
+        this.name = name;
+    }
+
+    public static Logger get(Class<?> type) {
+        return new Logger(type.getName());
+    }
+
+    public static Logger get(String name) {
+        return new Logger(name);
+    }
+
+    /**
+     * Niveau minimal et destination ; la destination précédente est fermée.
+     */
+    public static synchronized void configure(Level level, LogSink newSink) {
+        threshold = level;
+        LogSink previous = sink;
+        sink = newSink;
+        stopped = false;
+        if (previous != null && previous != newSink) {
+            previous.close();
+        }
+    }
+
+    public static synchronized void shutdown() {
+        stopped = true;
+        if (sink != null) {
+            sink.close();
+            sink = null;
+        }
+    }
+
+    private static LogSink sink() {
+        LogSink current = sink;
+        if (current == null) {
+            synchronized (Logger.class) {
+                if (stopped) {
+                    return STOPPED;
+                }
+                if (sink == null) {
+                    sink = AsyncFileSink.console(8192, false);
+                }
+                current = sink;
+            }
+        }
+        return current;
+    }
+
+    public boolean isEnabled(Level level) {
+        return level.compareTo(threshold) >= 0 && level != Level.OFF;
+    }
+
+    public boolean isDebugEnabled() {
+        return isEnabled(Level.DEBUG);
+    }
+
+    public void log(Level level, String pattern, Object... args) {
+        if (isEnabled(level)) {
+            sink().publish(new LogEvent(level, name, pattern, args));
+        }
+    }
+
+    // Surcharges sans tableau d'arguments tant que le niveau est désactivé
+
+    public void trace(String message) {
+        if (isEnabled(Level.TRACE)) {
+            log(Level.TRACE, message);
+        }
+    }
+
+    public void trace(String pattern, Object arg) {
+        if (isEnabled(Level.TRACE)) {
+            log(Level.TRACE, pattern, arg);
+        }
+    }
+
+    public void trace(String pattern, Object arg1, Object arg2) {
+        if (isEnabled(Level.TRACE)) {
+            log(Level.TRACE, pattern, arg1, arg2);
+        }
+    }
+
+    public void debug(String message) {
+        if (isEnabled(Level.DEBUG)) {
+            log(Level.DEBUG, message);
+        }
+    }
+
+    public void debug(String pattern, Object arg) {
+        if (isEnabled(Level.DEBUG)) {
+            log(Level.DEBUG, pattern, arg);
+        }
+    }
+
+    public void debug(String pattern, Object arg1, Object arg2) {
+        if (isEnabled(Level.DEBUG)) {
+            log(Level.DEBUG, pattern, arg1, arg2);
+        }
+    }
+
+    public void info(String message) {
+        if (isEnabled(Level.INFO)) {
+            log(Level.INFO, message);
+        }
+    }
+
+    public void info(String pattern, Object arg) {
+        if (isEnabled(Level.INFO)) {
+            log(Level.INFO, pattern, arg);
+        }
+    }
+
+    public void info(String pattern, Object arg1, Object arg2) {
+        if (isEnabled(Level.INFO)) {
+            log(Level.INFO, pattern, arg1, arg2);
+        }
+    }
+
+    public void info(String pattern, Object... args) {
+        log(Level.INFO, pattern, args);
+    }
+
+    public void warn(String message) {
+        if (isEnabled(Level.WARN)) {
+            log(Level.WARN, message);
+        }
+    }
+
+    public void warn(String pattern, Object arg) {
+        if (isEnabled(Level.WARN)) {
+            log(Level.WARN, pattern, arg);
+        }
+    }
+
+    public void warn(String pattern, Object arg1, Object arg2) {
+        if (isEnabled(Level.WARN)) {
+            log(Level.WARN, pattern, arg1, arg2);
+        }
+    }
+
+    public void error(String message) {
+        if (isEnabled(Level.ERROR)) {
+            log(Level.ERROR, message);
+        }
+    }
+
+    public void error(String pattern, Object arg) {
+        if (isEnabled(Level.ERROR)) {
+            log(Level.ERROR, pattern, arg);
+        }
+    }
+
+    public void error(String pattern, Object arg1, Object arg2) {
+        if (isEnabled(Level.ERROR)) {
+            log(Level.ERROR, pattern, arg1, arg2);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package servlet.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme log-linéaire des durées, en microsecondes.
+ * Chaque puissance de deux est découpée en 4 classes linéaires (erreur relative ≤ 25 %),
+ * de 1 µs à environ 12 jours. Les classes sont fermées à droite, ]a, b] comme les « le »
+ * de Prometheus : chaque puissance de deux est la borne haute exacte d'une classe. Chaque classe est un LongAdder : aucun verrou, aucune
+ * contention entre threads, et un enregistrement ne fait qu'un calcul de bits et un add.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 4;
+    private static final int MAX_EXPONENT = 40;
+    static final int BUCKETS = SUB_BUCKETS * MAX_EXPONENT;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long micros) {
+        long value = Math.max(0, micros);
+        buckets[value == 0 ? 0 : Math.min(BUCKETS - 1, index(value - 1) + 1)].increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    // 0..3 : valeurs exactes ; au-delà, exposant (bit de poids fort) puis 2 bits suivants.
+    // Classe [a, b[ de value ; record décale d'un cran pour obtenir ]a, b]
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - 2)) & (SUB_BUCKETS - 1);
+        return Math.min(BUCKETS - 1, SUB_BUCKETS * (exponent - 1) + sub);
+    }
+
+    /**
+     * Borne supérieure (incluse) de la classe, en microsecondes.
+     */
+    static long upperBound(int index) {
+        return index == 0 ? 0 : exclusiveBound(index - 1);
+    }
+
+    private static long exclusiveBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index + 1;
+        }
+        int exponent = index / SUB_BUCKETS + 1;
+        int sub = index % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub + 1) << (exponent - 2);
+    }
+
+    /**
+     * Copie des compteurs ; les lectures concurrentes ne sont pas atomiques entre elles,
+     * ce qui suffit pour un export périodique.
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+        return new Snapshot(counts, count, sum.sum(), max.get());
+    }
+
+    public static final class Snapshot {
+        private final long[] counts;
+        public final long count;
+        public final long sumMicros;
+        public final long maxMicros;
+
+        Snapshot(long[] counts, long count, long sumMicros, long maxMicros) {
+            this.counts = counts;
+            this.count = count;
+            this.sumMicros = sumMicros;
+            this.maxMicros = maxMicros;
+        }
+
+        /**
+         * Quantile (0..1) estimé par la borne supérieure de sa classe, en microsecondes.
+         */
+        public long quantile(double q) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(q * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), maxMicros);
+                }
+            }
+            return maxMicros;
+        }
+
+        /**
+         * Nombre cumulé de valeurs inférieures ou égales à limitMicros (« le » Prometheus),
+         * exact quand limitMicros est une borne de classe (puissances de deux notamment).
+         */
+        public long countAtMost(long limitMicros) {
+            long total = 0;
+            for (int i = 0; i < counts.length && upperBound(i) <= limitMicros; i++) {
+                total += counts[i];
+            }
+            return total;
+        }
+    }
+}
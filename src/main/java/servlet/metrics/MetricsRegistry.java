@@ -0,0 +1,160 @@
+package servlet.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import servlet.JsonWriter;
+
+/**
+ * Métriques du FrontServlet : une entrée par route, créée à l'enregistrement,
+ * plus quelques jauges (exécuteur des contrôleurs, etc.).
+ * Exposition au format texte Prometheus (défaut) ou JSON (?format=json ou Accept: application/json).
+ */
+public final class MetricsRegistry {
+
+    private static final String PREFIX = "framework_";
+
+    private final List<RouteMetrics> routes = new CopyOnWriteArrayList<>();
+    private final List<Gauge> gauges = new CopyOnWriteArrayList<>();
+    private final LongAdder unmatched = new LongAdder();
+
+    private static final class Gauge {
+        final String name;
+        final String help;
+        final LongSupplier value;
+
+        Gauge(String name, String help, LongSupplier value) {
+            this.name = name;
+            this.help = help;
+            this.value = value;
+        }
+    }
+
+    public RouteMetrics register(String route, String method) {
+        RouteMetrics metrics = new RouteMetrics(route, method);
+        routes.add(metrics);
+        return metrics;
+    }
+
+    public void gauge(String name, String help, LongSupplier value) {
+        gauges.add(new Gauge(name, help, value));
+    }
+
+    /**
+     * Requête sans route (404 / 405).
+     */
+    public void unmatched() {
+        unmatched.increment();
+    }
+
+    public void handle(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        String accept = req.getHeader("Accept");
+        if ("json".equals(req.getParameter("format"))
+                || (accept != null && accept.contains("application/json"))) {
+            resp.setContentType("application/json");
+            resp.setCharacterEncoding("UTF-8");
+            try (JsonWriter json = new JsonWriter(resp.getOutputStream())) {
+                json.writeValue(toMap());
+            }
+        } else {
+            resp.setContentType("text/plain; version=0.0.4");
+            resp.setCharacterEncoding("UTF-8");
+            writePrometheus(resp.getWriter());
+        }
+    }
+
+    public void writePrometheus(PrintWriter out) {
+        out.print("# HELP " + PREFIX + "requests_total Requests handled per route.\n");
+        out.print("# TYPE " + PREFIX + "requests_total counter\n");
+        for (RouteMetrics r : routes) {
+            out.print(PREFIX + "requests_total" + labels(r) + " " + r.requests() + "\n");
+        }
+        out.print("# HELP " + PREFIX + "request_errors_total Requests that failed (exception or 5xx).\n");
+        out.print("# TYPE " + PREFIX + "request_errors_total counter\n");
+        for (RouteMetrics r : routes) {
+            out.print(PREFIX + "request_errors_total" + labels(r) + " " + r.errors() + "\n");
+        }
+        out.print("# HELP " + PREFIX + "requests_in_flight Requests in progress.\n");
+        out.print("# TYPE " + PREFIX + "requests_in_flight gauge\n");
+        for (RouteMetrics r : routes) {
+            out.print(PREFIX + "requests_in_flight" + labels(r) + " " + r.inFlight() + "\n");
+        }
+
+        out.print("# HELP " + PREFIX + "request_duration_seconds Request latency.\n");
+        out.print("# TYPE " + PREFIX + "request_duration_seconds histogram\n");
+        for (RouteMetrics r : routes) {
+            LatencyHistogram.Snapshot latency = r.latency();
+            String labels = labels(r);
+            String bucketLabels = labels.substring(0, labels.length() - 1) + ",le=\"";
+            // Bornes aux puissances de deux (µs), jusqu'à la plus grande valeur observée
+            for (long limit = 1; limit <= 2 * Math.max(1, latency.maxMicros); limit <<= 1) {
+                out.print(PREFIX + "request_duration_seconds_bucket" + bucketLabels
+                        + seconds(limit) + "\"} " + latency.countAtMost(limit) + "\n");
+            }
+            out.print(PREFIX + "request_duration_seconds_bucket" + bucketLabels + "+Inf\"} " + latency.count + "\n");
+            out.print(PREFIX + "request_duration_seconds_sum" + labels + " " + seconds(latency.sumMicros) + "\n");
+            out.print(PREFIX + "request_duration_seconds_count" + labels + " " + latency.count + "\n");
+        }
+
+        out.print("# HELP " + PREFIX + "unmatched_requests_total Requests without a route (404/405).\n");
+        out.print("# TYPE " + PREFIX + "unmatched_requests_total counter\n");
+        out.print(PREFIX + "unmatched_requests_total " + unmatched.sum() + "\n");
+
+        for (Gauge gauge : gauges) {
+            out.print("# HELP " + PREFIX + gauge.name + " " + gauge.help + "\n");
+            out.print("# TYPE " + PREFIX + gauge.name + " gauge\n");
+            out.print(PREFIX + gauge.name + " " + gauge.value.getAsLong() + "\n");
+        }
+        out.flush();
+    }
+
+    public Map<String, Object> toMap() {
+        List<Map<String, Object>> routeList = new ArrayList<>();
+        for (RouteMetrics r : routes) {
+            LatencyHistogram.Snapshot latency = r.latency();
+            Map<String, Object> route = new LinkedHashMap<>();
+            route.put("route", r.route);
+            route.put("method", r.method);
+            route.put("requests", r.requests());
+            route.put("errors", r.errors());
+            route.put("inFlight", r.inFlight());
+            route.put("meanMicros", latency.count == 0 ? 0 : latency.sumMicros / latency.count);
+            route.put("p50Micros", latency.quantile(0.50));
+            route.put("p90Micros", latency.quantile(0.90));
+            route.put("p99Micros", latency.quantile(0.99));
+            route.put("maxMicros", latency.maxMicros);
+            routeList.add(route);
+        }
+        Map<String, Object> gaugeMap = new LinkedHashMap<>();
+        for (Gauge gauge : gauges) {
+            gaugeMap.put(gauge.name, gauge.value.getAsLong());
+        }
+        Map<String, Object> all = new LinkedHashMap<>();
+        all.put("routes", routeList);
+        all.put("unmatched", unmatched.sum());
+        all.put("gauges", gaugeMap);
+        return all;
+    }
+
+    private static String labels(RouteMetrics r) {
+        return "{route=\"" + escape(r.route) + "\",method=\"" + r.method + "\"}";
+    }
+
+    private static String seconds(long micros) {
+        return Double.toString(micros / 1_000_000.0);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,60 @@
+package servlet.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs d'une route (chemin déclaré + méthode HTTP), sans verrou.
+ */
+public final class RouteMetrics {
+
+    final String route;
+    final String method;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    RouteMetrics(String route, String method) {
+        this.route = route;
+        this.method = method;
+    }
+
+    /**
+     * Début de requête ; retourne l'instant de départ à passer à end().
+     */
+    public long begin() {
+        inFlight.increment();
+        return System.nanoTime();
+    }
+
+    /**
+     * Fin de requête (réponse envoyée ou erreur).
+     */
+    public void end(long startNanos, boolean error) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        inFlight.decrement();
+        requests.increment();
+        if (error) {
+            errors.increment();
+        }
+        latency.record(micros);
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    public long inFlight() {
+        return inFlight.sum();
+    }
+
+    public LatencyHistogram.Snapshot latency() {
+        return latency.snapshot();
+    }
+}
@@ -0,0 +1,173 @@
+package servlet.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Génère à la compilation un sérialiseur JSON pour chaque classe annotée @JsonSerializable.
+ * Activation explicite :
+ * <pre>
+ * javac -cp framework.jar -processor servlet.processor.JsonSerializerProcessor ...
+ * </pre>
+ * La classe générée (NomDeLaClasse_JsonSerializer, même package) lit les champs
+ * directement ou via leur getter ; elle produit le même JSON que la sérialisation réflexive.
+ * Si un champ privé n'a pas de getter, rien n'est généré et la réflexion reste utilisée.
+ */
+@SupportedAnnotationTypes("servlet.annotations.JsonSerializable")
+public class JsonSerializerProcessor extends AbstractProcessor {
+
+    private static final String SUFFIX = "_JsonSerializer";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.CLASS) {
+                    generate((TypeElement) element);
+                }
+            }
+        }
+        return false;
+    }
+
+    private void generate(TypeElement type) {
+        if (type.getModifiers().contains(Modifier.PRIVATE)) {
+            warn(type, "private class, serializer not generated");
+            return;
+        }
+
+        List<String[]> fields = new ArrayList<>(); // { nom, expression d'accès, méthode d'écriture }
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (field.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            String access = accessor(type, field);
+            if (access == null) {
+                warn(field, "private field without getter, " + type.getSimpleName()
+                        + " keeps reflective serialization");
+                return;
+            }
+            fields.add(new String[] { field.getSimpleName().toString(), access, writeCall(field.asType()) });
+        }
+
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + SUFFIX;
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+
+        try (Writer out = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+            out.write(source(packageName, simpleName, type.getQualifiedName().toString(), fields));
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Cannot write " + qualifiedName + ": " + e.getMessage(), type);
+        }
+    }
+
+    // Accès direct si le champ est visible depuis le package, sinon getter getX()/isX()
+    private String accessor(TypeElement type, VariableElement field) {
+        String name = field.getSimpleName().toString();
+        if (!field.getModifiers().contains(Modifier.PRIVATE)) {
+            return "obj." + name;
+        }
+        String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            String methodName = method.getSimpleName().toString();
+            boolean getterName = methodName.equals("get" + suffix)
+                    || (field.asType().getKind() == TypeKind.BOOLEAN && methodName.equals("is" + suffix));
+            if (getterName && method.getParameters().isEmpty()
+                    && !method.getModifiers().contains(Modifier.PRIVATE)
+                    && !method.getModifiers().contains(Modifier.STATIC)
+                    && processingEnv.getTypeUtils().isSameType(method.getReturnType(), field.asType())) {
+                return "obj." + methodName + "()";
+            }
+        }
+        return null;
+    }
+
+    private static String writeCall(TypeMirror type) {
+        switch (type.getKind()) {
+            case INT:
+            case SHORT:
+            case BYTE:
+            case LONG:
+                return "writeLong";
+            case DOUBLE:
+                return "writeDouble";
+            case BOOLEAN:
+                return "writeBoolean";
+            default:
+                return "writeValue"; // float, char et références
+        }
+    }
+
+    private static String source(String packageName, String simpleName, String targetType, List<String[]> fields) {
+        StringBuilder src = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            src.append("package ").append(packageName).append(";\n\n");
+        }
+        src.append("// Généré par servlet.processor.JsonSerializerProcessor, ne pas modifier\n");
+        src.append("public final class ").append(simpleName).append(" implements servlet.PojoSerializer {\n\n");
+
+        for (int i = 0; i < fields.size(); i++) {
+            String prefix = (i == 0 ? "" : ",") + "\\\"" + fields.get(i)[0] + "\\\":";
+            src.append("    private static final byte[] F").append(i).append(" = \"")
+                    .append(javaEscape(prefix))
+                    .append("\".getBytes(java.nio.charset.StandardCharsets.UTF_8);\n");
+        }
+
+        src.append("\n    @Override\n");
+        src.append("    public void write(Object value, servlet.JsonWriter json) throws java.io.IOException {\n");
+        src.append("        ").append(targetType).append(" obj = (").append(targetType).append(") value;\n");
+        src.append("        json.writeByte('{');\n");
+        for (int i = 0; i < fields.size(); i++) {
+            String[] field = fields.get(i);
+            src.append("        json.writeRaw(F").append(i).append(");\n");
+            src.append("        json.").append(field[2]).append("(").append(field[1]).append(");\n");
+        }
+        src.append("        json.writeByte('}');\n");
+        src.append("    }\n}\n");
+        return src.toString();
+    }
+
+    // Les identifiants Java peuvent contenir des lettres non ASCII
+    private static String javaEscape(String str) {
+        StringBuilder out = new StringBuilder();
+        for (char c : str.toCharArray()) {
+            if (c < 0x80) {
+                out.append(c);
+            } else {
+                out.append(String.format("\\u%04x", (int) c));
+            }
+        }
+        return out.toString();
+    }
+
+    private void warn(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, message, element);
+    }
+}
@@ -0,0 +1,140 @@
+package servlet.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+
+import servlet.annotations.Controller;
+import servlet.annotations.GetMapping;
+import servlet.annotations.PostMapping;
+import servlet.annotations.RequestParam;
+
+/**
+ * Génère à la compilation l'index des routes (META-INF/servlet/routes.idx) :
+ * FrontServlet.init() enregistre ces routes sans scanner les packages (init-param
+ * routeIndexCheck=true : scan quand même, pour signaler un index périmé en développement).
+ * Comme le scan, seules les méthodes des classes @Controller sont retenues.
+ * <p>
+ * framework.jar déclare ce processeur (META-INF/services/javax.annotation.processing.Processor) :
+ * javac le lance de lui-même quand framework.jar est sur le classpath de l'application (JDK 17 à 22 ;
+ * à partir du JDK 23, ajouter -proc:full). Sinon, l'activer explicitement :
+ * <pre>
+ * javac -cp framework.jar -processor servlet.processor.RouteIndexProcessor ...
+ * </pre>
+ * Avec Maven, déclarer framework.jar dans annotationProcessorPaths du maven-compiler-plugin
+ * (ou le laisser en dépendance sans &lt;proc&gt;none&lt;/proc&gt;). Le framework lui-même est
+ * compilé avec proc=none : il ne contient pas de contrôleur.
+ * <p>
+ * Une ligne par route, champs séparés par des tabulations :
+ * <pre>
+ * GET  /employes/{id}  com.itu.gest_emp.controller.EmpController  show  int id  java.lang.String nom
+ * </pre>
+ * Chaque paramètre est « type nom » : type effacé (nom binaire, [] pour les tableaux)
+ * et nom de liaison (@RequestParam ou nom source, sans dépendre de javac -parameters).
+ */
+@SupportedAnnotationTypes({
+        "servlet.annotations.Controller",
+        "servlet.annotations.GetMapping",
+        "servlet.annotations.PostMapping" })
+public class RouteIndexProcessor extends AbstractProcessor {
+
+    static final String INDEX = "META-INF/servlet/routes.idx";
+
+    private final List<String> lines = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GetMapping.class)) {
+            add("GET", element.getAnnotation(GetMapping.class).value(), element);
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(PostMapping.class)) {
+            add("POST", element.getAnnotation(PostMapping.class).value(), element);
+        }
+        if (roundEnv.processingOver()) {
+            write();
+        }
+        return false;
+    }
+
+    private void add(String httpMethod, String path, Element element) {
+        if (element.getKind() != ElementKind.METHOD) {
+            return;
+        }
+        ExecutableElement method = (ExecutableElement) element;
+        TypeElement controller = (TypeElement) method.getEnclosingElement();
+        if (controller.getAnnotation(Controller.class) == null) {
+            // Même règle que FrontServlet.scanControllers : seules les classes @Controller sont routées
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Route ignored: " + controller.getQualifiedName() + " is not annotated with @Controller", method);
+            return;
+        }
+        if (path.indexOf('\t') >= 0 || path.indexOf('\n') >= 0) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Invalid route path", method);
+            return;
+        }
+
+        StringBuilder line = new StringBuilder();
+        line.append(httpMethod).append('\t').append(path)
+                .append('\t').append(processingEnv.getElementUtils().getBinaryName(controller))
+                .append('\t').append(method.getSimpleName());
+        for (VariableElement parameter : method.getParameters()) {
+            RequestParam requestParam = parameter.getAnnotation(RequestParam.class);
+            String name = requestParam != null ? requestParam.value() : parameter.getSimpleName().toString();
+            line.append('\t').append(typeName(parameter.asType())).append(' ').append(name);
+        }
+        lines.add(line.toString());
+    }
+
+    // Nom utilisable par Class.forName (classes imbriquées avec $), suivi de [] par dimension
+    private String typeName(TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        switch (erased.getKind()) {
+            case ARRAY:
+                return typeName(((ArrayType) erased).getComponentType()) + "[]";
+            case DECLARED:
+                TypeElement element = (TypeElement) ((DeclaredType) erased).asElement();
+                return processingEnv.getElementUtils().getBinaryName(element).toString();
+            default:
+                return erased.toString(); // primitifs
+        }
+    }
+
+    private void write() {
+        if (lines.isEmpty()) {
+            return;
+        }
+        try (Writer out = processingEnv.getFiler()
+                .createResource(StandardLocation.CLASS_OUTPUT, "", INDEX).openWriter()) {
+            out.write("# Généré par servlet.processor.RouteIndexProcessor, ne pas modifier\n");
+            for (String line : lines) {
+                out.write(line);
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Cannot write " + INDEX + ": " + e.getMessage());
+        }
+    }
+}
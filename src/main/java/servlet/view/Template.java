@@ -0,0 +1,572 @@
+package servlet.view;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Gabarit compilé une fois en arbre de nœuds, puis rendu en flux dans un Writer.
+ * <pre>
+ * &lt;h1&gt;{{titre}}&lt;/h1&gt;                    valeur échappée (HTML)
+ * {{{fragmentHtml}}}                       valeur brute
+ * {{#each employes}}
+ *   &lt;li&gt;{{@index}} {{nom}} ({{departement.nom}})&lt;/li&gt;
+ * {{/each}}
+ * {{#if erreur}}...{{else}}...{{/if}}
+ * {{&gt; entete.html}}                        inclusion d'un autre gabarit
+ * {{! commentaire }}
+ * </pre>
+ * Un nom est cherché dans l'élément courant des {{#each}}, puis dans les éléments englobants,
+ * le modèle, et enfin les valeurs globales (attributs de requête). Les propriétés se lisent sur
+ * une Map, par getter (getX, isX, x()) ou par champ public, avec des accesseurs mis en cache par classe.
+ */
+public final class Template {
+
+    // Inclusions imbriquées au-delà : cycle ({{> self}}, a -> b -> a) plutôt qu'un StackOverflowError
+    static final int MAX_INCLUDE_DEPTH = 32;
+
+    private final String name;
+    private final Node[] nodes;
+
+    private Template(String name, Node[] nodes) {
+        this.name = name;
+        this.nodes = nodes;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Compile le source ; une erreur de syntaxe lève IllegalArgumentException (nom et ligne).
+     */
+    public static Template compile(String name, String source) {
+        return new Template(name, new Parser(name, source).parse());
+    }
+
+    /**
+     * Rendu sans inclusion possible ({{&gt; ...}} exige un TemplateEngine).
+     */
+    public void render(Writer out, Map<String, ?> model, Function<String, Object> globals) throws IOException {
+        render(new Context(null, model, globals), out);
+    }
+
+    void render(Context context, Writer out) throws IOException {
+        for (Node node : nodes) {
+            node.render(context, out);
+        }
+    }
+
+    // ---- Nœuds ----
+
+    private interface Node {
+        void render(Context context, Writer out) throws IOException;
+    }
+
+    private static final class Text implements Node {
+        private final String text;
+
+        Text(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public void render(Context context, Writer out) throws IOException {
+            out.write(text);
+        }
+    }
+
+    private static final class Value implements Node {
+        private final Path path;
+        private final boolean escape;
+
+        Value(Path path, boolean escape) {
+            this.path = path;
+            this.escape = escape;
+        }
+
+        @Override
+        public void render(Context context, Writer out) throws IOException {
+            Object value = path.resolve(context);
+            if (value == null) {
+                return;
+            }
+            String text = value.toString();
+            if (escape) {
+                escapeHtml(text, out);
+            } else {
+                out.write(text);
+            }
+        }
+    }
+
+    private static final class Each implements Node {
+        private final Path path;
+        private final Node[] body;
+        private final Node[] otherwise;
+
+        Each(Path path, Node[] body, Node[] otherwise) {
+            this.path = path;
+            this.body = body;
+            this.otherwise = otherwise;
+        }
+
+        @Override
+        public void render(Context context, Writer out) throws IOException {
+            Object items = path.resolve(context);
+            int index = 0;
+            if (items instanceof Map<?, ?> map) {
+                items = map.entrySet();
+            }
+            if (items instanceof Iterable<?> iterable) {
+                for (Object item : iterable) {
+                    renderItem(context, item, index++, out);
+                }
+            } else if (items != null && items.getClass().isArray()) {
+                int length = Array.getLength(items);
+                for (; index < length; index++) {
+                    renderItem(context, Array.get(items, index), index, out);
+                }
+            }
+            if (index == 0) {
+                for (Node node : otherwise) {
+                    node.render(context, out);
+                }
+            }
+        }
+
+        private void renderItem(Context context, Object item, int index, Writer out) throws IOException {
+            context.push(item, index);
+            try {
+                for (Node node : body) {
+                    node.render(context, out);
+                }
+            } finally {
+                context.pop();
+            }
+        }
+    }
+
+    private static final class If implements Node {
+        private final Path path;
+        private final Node[] then;
+        private final Node[] otherwise;
+
+        If(Path path, Node[] then, Node[] otherwise) {
+            this.path = path;
+            this.then = then;
+            this.otherwise = otherwise;
+        }
+
+        @Override
+        public void render(Context context, Writer out) throws IOException {
+            for (Node node : truthy(path.resolve(context)) ? then : otherwise) {
+                node.render(context, out);
+            }
+        }
+    }
+
+    private static final class Include implements Node {
+        private final String view;
+
+        Include(String view) {
+            this.view = view;
+        }
+
+        @Override
+        public void render(Context context, Writer out) throws IOException {
+            if (context.engine == null) {
+                throw new IllegalStateException("{{> " + view + "}} : inclusion sans TemplateEngine");
+            }
+            if (context.includes == MAX_INCLUDE_DEPTH) {
+                throw new IllegalStateException("{{> " + view + "}} : plus de " + MAX_INCLUDE_DEPTH
+                        + " inclusions imbriquées (inclusion cyclique ?)");
+            }
+            context.includes++;
+            try {
+                context.engine.get(view).render(context, out);
+            } finally {
+                context.includes--;
+            }
+        }
+    }
+
+    static boolean truthy(Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Boolean b) {
+            return b;
+        }
+        if (value instanceof Number n) {
+            return n.doubleValue() != 0;
+        }
+        if (value instanceof CharSequence s) {
+            return s.length() > 0;
+        }
+        if (value instanceof Collection<?> c) {
+            return !c.isEmpty();
+        }
+        if (value instanceof Map<?, ?> m) {
+            return !m.isEmpty();
+        }
+        if (value.getClass().isArray()) {
+            return Array.getLength(value) > 0;
+        }
+        return true;
+    }
+
+    // Écrit les portions sans caractère spécial d'un seul tenant
+    static void escapeHtml(String text, Writer out) throws IOException {
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            String entity;
+            switch (text.charAt(i)) {
+                case '&':
+                    entity = "&amp;";
+                    break;
+                case '<':
+                    entity = "&lt;";
+                    break;
+                case '>':
+                    entity = "&gt;";
+                    break;
+                case '"':
+                    entity = "&quot;";
+                    break;
+                case '\'':
+                    entity = "&#39;";
+                    break;
+                default:
+                    continue;
+            }
+            out.write(text, start, i - start);
+            out.write(entity);
+            start = i + 1;
+        }
+        out.write(text, start, text.length() - start);
+    }
+
+    // ---- Contexte de rendu : pile des éléments des {{#each}} ----
+
+    static final class Context {
+        final TemplateEngine engine;
+        private final Map<String, ?> model;
+        private final Function<String, Object> globals;
+        private Object[] items = new Object[4];
+        private int[] indexes = new int[4];
+        private int depth;
+        private int includes; // {{> ...}} en cours de rendu
+
+        Context(TemplateEngine engine, Map<String, ?> model, Function<String, Object> globals) {
+            this.engine = engine;
+            this.model = model;
+            this.globals = globals;
+        }
+
+        void push(Object item, int index) {
+            if (depth == items.length) {
+                items = java.util.Arrays.copyOf(items, depth * 2);
+                indexes = java.util.Arrays.copyOf(indexes, depth * 2);
+            }
+            items[depth] = item;
+            indexes[depth++] = index;
+        }
+
+        void pop() {
+            items[--depth] = null;
+        }
+
+        Object current() {
+            return depth == 0 ? model : items[depth - 1];
+        }
+
+        int index() {
+            return depth == 0 ? 0 : indexes[depth - 1];
+        }
+
+        Object lookup(String name) {
+            for (int i = depth - 1; i >= 0; i--) {
+                Object item = items[i];
+                if (item instanceof Map<?, ?> map) {
+                    if (map.containsKey(name)) {
+                        return map.get(name);
+                    }
+                } else if (item != null) {
+                    Accessor accessor = Accessor.of(item.getClass(), name);
+                    if (accessor != Accessor.NONE) {
+                        return accessor.get(item);
+                    }
+                }
+            }
+            if (model != null && model.containsKey(name)) {
+                return model.get(name);
+            }
+            return globals == null ? null : globals.apply(name);
+        }
+    }
+
+    // ---- Chemins : a.b.c, ., @index ----
+
+    private static final class Path {
+        private final String[] segments; // vide : élément courant
+
+        Path(String expression) {
+            this.segments = expression.equals(".") || expression.equals("this")
+                    ? new String[0]
+                    : expression.split("\\.");
+        }
+
+        Object resolve(Context context) {
+            if (segments.length == 0) {
+                return context.current();
+            }
+            Object value = segments[0].equals("@index")
+                    ? Integer.valueOf(context.index())
+                    : context.lookup(segments[0]);
+            for (int i = 1; i < segments.length && value != null; i++) {
+                value = property(value, segments[i]);
+            }
+            return value;
+        }
+
+        private static Object property(Object target, String name) {
+            if (target instanceof Map<?, ?> map) {
+                return map.get(name);
+            }
+            if (target instanceof List<?> list && isIndex(name)) {
+                int index = Integer.parseInt(name);
+                return index < list.size() ? list.get(index) : null;
+            }
+            if (target.getClass().isArray() && isIndex(name)) {
+                int index = Integer.parseInt(name);
+                return index < Array.getLength(target) ? Array.get(target, index) : null;
+            }
+            return Accessor.of(target.getClass(), name).get(target);
+        }
+
+        private static boolean isIndex(String name) {
+            for (int i = 0; i < name.length(); i++) {
+                if (!Character.isDigit(name.charAt(i))) {
+                    return false;
+                }
+            }
+            return !name.isEmpty();
+        }
+    }
+
+    // ---- Lecture d'une propriété, résolue une fois par classe et par nom ----
+
+    private static final class Accessor {
+        static final Accessor NONE = new Accessor(null);
+
+        private static final ClassValue<Map<String, Accessor>> CACHE = new ClassValue<>() {
+            @Override
+            protected Map<String, Accessor> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+
+        private final MethodHandle getter;
+
+        private Accessor(MethodHandle getter) {
+            this.getter = getter == null ? null : getter.asType(MethodType.methodType(Object.class, Object.class));
+        }
+
+        static Accessor of(Class<?> type, String name) {
+            return CACHE.get(type).computeIfAbsent(name, n -> find(type, n));
+        }
+
+        Object get(Object target) {
+            if (getter == null) {
+                return null;
+            }
+            try {
+                return (Object) getter.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+
+        private static Accessor find(Class<?> type, String name) {
+            String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            for (String candidate : new String[] { "get" + capitalized, "is" + capitalized, name }) {
+                Method method = publicMethod(type, candidate);
+                if (method != null) {
+                    try {
+                        return new Accessor(MethodHandles.publicLookup().unreflect(method));
+                    } catch (IllegalAccessException e) {
+                        // essai suivant
+                    }
+                }
+            }
+            try {
+                Field field = type.getField(name);
+                if (Modifier.isPublic(field.getDeclaringClass().getModifiers())) {
+                    return new Accessor(MethodHandles.publicLookup().unreflectGetter(field));
+                }
+            } catch (NoSuchFieldException | IllegalAccessException e) {
+                // pas de champ public
+            }
+            return NONE;
+        }
+
+        // Méthode sans paramètre déclarée par un type public (ex. Map.Entry.getKey pour HashMap.Node)
+        private static Method publicMethod(Class<?> type, String name) {
+            Deque<Class<?>> types = new ArrayDeque<>();
+            types.add(type);
+            while (!types.isEmpty()) {
+                Class<?> candidate = types.poll();
+                if (Modifier.isPublic(candidate.getModifiers())) {
+                    try {
+                        Method method = candidate.getMethod(name);
+                        if (method.getReturnType() != void.class && !Modifier.isStatic(method.getModifiers())
+                                && Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                            return method;
+                        }
+                    } catch (NoSuchMethodException e) {
+                        // type suivant
+                    }
+                }
+                if (candidate.getSuperclass() != null) {
+                    types.add(candidate.getSuperclass());
+                }
+                types.addAll(List.of(candidate.getInterfaces()));
+            }
+            return null;
+        }
+    }
+
+    // ---- Analyse du source ----
+
+    private static final class Parser {
+        private final String name;
+        private final String source;
+        private int pos;
+
+        // Bloc ouvert : {{#each}} ou {{#if}}, avec sa branche {{else}}
+        private static final class Block {
+            final String kind;
+            final String expression;
+            final int line;
+            final List<Node> body = new ArrayList<>();
+            List<Node> otherwise;
+
+            Block(String kind, String expression, int line) {
+                this.kind = kind;
+                this.expression = expression;
+                this.line = line;
+            }
+
+            List<Node> current() {
+                return otherwise != null ? otherwise : body;
+            }
+        }
+
+        Parser(String name, String source) {
+            this.name = name;
+            this.source = source;
+        }
+
+        Node[] parse() {
+            Deque<Block> blocks = new ArrayDeque<>();
+            List<Node> root = new ArrayList<>();
+            while (pos < source.length()) {
+                List<Node> target = blocks.isEmpty() ? root : blocks.peek().current();
+                int open = source.indexOf("{{", pos);
+                if (open < 0) {
+                    target.add(new Text(source.substring(pos)));
+                    break;
+                }
+                if (open > pos) {
+                    target.add(new Text(source.substring(pos, open)));
+                }
+                boolean raw = source.startsWith("{{{", open);
+                String closing = raw ? "}}}" : "}}";
+                int close = source.indexOf(closing, open);
+                if (close < 0) {
+                    throw error(open, "balise non fermée");
+                }
+                String tag = source.substring(open + (raw ? 3 : 2), close).trim();
+                pos = close + closing.length();
+
+                if (raw) {
+                    target.add(new Value(path(tag, open), false));
+                } else if (tag.startsWith("!")) {
+                    continue; // commentaire
+                } else if (tag.startsWith("#")) {
+                    String[] parts = tag.substring(1).trim().split("\\s+", 2);
+                    if (!parts[0].equals("each") && !parts[0].equals("if") || parts.length < 2) {
+                        throw error(open, "bloc inconnu : {{" + tag + "}}");
+                    }
+                    blocks.push(new Block(parts[0], parts[1].trim(), line(open)));
+                } else if (tag.equals("else")) {
+                    if (blocks.isEmpty() || blocks.peek().otherwise != null) {
+                        throw error(open, "{{else}} hors d'un bloc");
+                    }
+                    blocks.peek().otherwise = new ArrayList<>();
+                } else if (tag.startsWith("/")) {
+                    String kind = tag.substring(1).trim();
+                    if (blocks.isEmpty() || !blocks.peek().kind.equals(kind)) {
+                        throw error(open, "{{/" + kind + "}} sans bloc ouvert correspondant");
+                    }
+                    Block block = blocks.pop();
+                    Path blockPath = path(block.expression, open);
+                    Node[] body = block.body.toArray(new Node[0]);
+                    Node[] otherwise = block.otherwise == null ? new Node[0] : block.otherwise.toArray(new Node[0]);
+                    (blocks.isEmpty() ? root : blocks.peek().current()).add(block.kind.equals("each")
+                            ? new Each(blockPath, body, otherwise)
+                            : new If(blockPath, body, otherwise));
+                } else if (tag.startsWith(">")) {
+                    target.add(new Include(tag.substring(1).trim()));
+                } else {
+                    target.add(new Value(path(tag, open), true));
+                }
+            }
+            if (!blocks.isEmpty()) {
+                Block block = blocks.peek();
+                throw new IllegalArgumentException(name + ":" + block.line + " : {{#" + block.kind + "}} non fermé");
+            }
+            return root.toArray(new Node[0]);
+        }
+
+        private Path path(String expression, int at) {
+            // Segment vide (a..b, .a, a.) refusé ; "." seul désigne l'élément courant
+            if (expression.isEmpty() || expression.contains(" ") || !expression.equals(".")
+                    && (expression.startsWith(".") || expression.endsWith(".") || expression.contains(".."))) {
+                throw error(at, "expression invalide : " + expression);
+            }
+            return new Path(expression);
+        }
+
+        private int line(int at) {
+            int line = 1;
+            for (int i = 0; i < at; i++) {
+                if (source.charAt(i) == '\n') {
+                    line++;
+                }
+            }
+            return line;
+        }
+
+        private IllegalArgumentException error(int at, String message) {
+            return new IllegalArgumentException(name + ":" + line(at) + " : " + message);
+        }
+    }
+}
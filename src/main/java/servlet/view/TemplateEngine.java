@@ -0,0 +1,140 @@
+package servlet.view;
+
+import jakarta.servlet.ServletContext;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Gabarits de l'application (répertoire prefix, ex. /pages/), compilés au premier rendu
+ * et gardés dans un cache borné par nom de vue. En mode reload (développement), la date
+ * du fichier est revérifiée à chaque rendu et le gabarit recompilé s'il a changé ; sinon une
+ * vue introuvable est aussi mise en cache (pas de nouvel accès disque à chaque requête).
+ */
+public final class TemplateEngine {
+
+    private static final servlet.log.Logger LOG = servlet.log.Logger.get(TemplateEngine.class);
+
+    private static final class Entry {
+        final Template template; // null : vue introuvable
+        final Path file; // null : ressource lue dans un WAR non déplié
+        final long lastModified;
+        volatile long lastUsed;
+
+        Entry(Template template, Path file, long lastModified) {
+            this.template = template;
+            this.file = file;
+            this.lastModified = lastModified;
+            this.lastUsed = System.nanoTime();
+        }
+    }
+
+    private final ServletContext context;
+    private final String prefix;
+    private final int maxTemplates;
+    private final boolean reload;
+    private final Map<String, Entry> templates = new ConcurrentHashMap<>();
+
+    public TemplateEngine(ServletContext context, String prefix, int maxTemplates, boolean reload) {
+        this.context = context;
+        this.prefix = prefix.endsWith("/") ? prefix : prefix + "/";
+        this.maxTemplates = maxTemplates;
+        this.reload = reload;
+    }
+
+    /**
+     * Rendu de la vue directement dans out ; model d'abord, puis globals (ex. req::getAttribute).
+     */
+    public void render(String view, Map<String, ?> model, Function<String, Object> globals, Writer out)
+            throws IOException {
+        get(view).render(new Template.Context(this, model, globals), out);
+    }
+
+    /**
+     * Gabarit compilé de la vue (compilé et mis en cache si besoin).
+     */
+    public Template get(String view) throws IOException {
+        Entry entry = templates.get(view);
+        if (entry != null && (!reload || !changed(entry))) {
+            entry.lastUsed = System.nanoTime();
+            if (entry.template == null) {
+                throw new FileNotFoundException("Template not found: " + prefix + view);
+            }
+            return entry.template;
+        }
+        try {
+            entry = load(view);
+        } catch (FileNotFoundException e) {
+            if (!reload) {
+                templates.put(view, new Entry(null, null, 0));
+                if (templates.size() > maxTemplates) {
+                    evict();
+                }
+            }
+            throw e;
+        }
+        templates.put(view, entry);
+        if (templates.size() > maxTemplates) {
+            evict();
+        }
+        return entry.template;
+    }
+
+    public void clear() {
+        templates.clear();
+    }
+
+    private static boolean changed(Entry entry) {
+        if (entry.file == null) {
+            return false;
+        }
+        try {
+            return Files.getLastModifiedTime(entry.file).toMillis() != entry.lastModified;
+        } catch (IOException e) {
+            return true; // supprimé : le rechargement signalera l'erreur
+        }
+    }
+
+    private Entry load(String view) throws IOException {
+        String resource = prefix + view;
+        String realPath = context.getRealPath(resource);
+        if (realPath != null && Files.isRegularFile(Paths.get(realPath))) {
+            Path file = Paths.get(realPath);
+            long lastModified = Files.getLastModifiedTime(file).toMillis();
+            String source = Files.readString(file, StandardCharsets.UTF_8);
+            LOG.debug("Template {} compiled", resource);
+            return new Entry(Template.compile(resource, source), file, lastModified);
+        }
+        try (InputStream in = context.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new FileNotFoundException("Template not found: " + resource);
+            }
+            String source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            return new Entry(Template.compile(resource, source), null, 0);
+        }
+    }
+
+    // Retrait du gabarit le moins récemment utilisé
+    private void evict() {
+        while (templates.size() > maxTemplates) {
+            Map.Entry<String, Entry> oldest = null;
+            for (Map.Entry<String, Entry> candidate : templates.entrySet()) {
+                if (oldest == null || candidate.getValue().lastUsed - oldest.getValue().lastUsed < 0) {
+                    oldest = candidate;
+                }
+            }
+            if (oldest == null || !templates.remove(oldest.getKey(), oldest.getValue())) {
+                return;
+            }
+        }
+    }
+}
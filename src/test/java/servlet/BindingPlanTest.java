@@ -0,0 +1,75 @@
+package servlet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class BindingPlanTest {
+
+    static class Item {
+        String label;
+        int quantity;
+    }
+
+    static class Order {
+        String customer;
+        int[] codes;
+        List<Item> items;
+        List<String> tags;
+        Item main;
+    }
+
+    @Test
+    void bindsScalarsNestedObjectsAndCollections() throws Exception {
+        Order order = (Order) ObjectBinder.bindObject(ParamTreeTest.request(Map.of(
+                "customer", new String[] { "Ada" },
+                "codes[0]", new String[] { "7" },
+                "codes[1]", new String[] { "8" },
+                "items[0].label", new String[] { "pomme" },
+                "items[0].quantity", new String[] { "3" },
+                "items[1].label", new String[] { "poire" },
+                "tags", new String[] { "a", "b" },
+                "main.label", new String[] { "kiwi" })), Order.class);
+        assertEquals("Ada", order.customer);
+        assertArrayEquals(new int[] { 7, 8 }, order.codes);
+        assertEquals(2, order.items.size());
+        assertEquals("pomme", order.items.get(0).label);
+        assertEquals(3, order.items.get(0).quantity);
+        assertEquals("poire", order.items.get(1).label);
+        assertEquals(List.of("a", "b"), order.tags);
+        assertEquals("kiwi", order.main.label);
+    }
+
+    // Indices forgés : tailles bornées par le nombre de paramètres, éléments compactés dans l'ordre
+    @Test
+    void compactsSparseIndices() throws Exception {
+        Order order = (Order) ObjectBinder.bindObject(ParamTreeTest.request(Map.of(
+                "codes[99999]", new String[] { "2" },
+                "codes[5]", new String[] { "1" },
+                "items[999999999].label", new String[] { "loin" })), Order.class);
+        assertArrayEquals(new int[] { 1, 2 }, order.codes);
+        assertEquals(1, order.items.size());
+        assertEquals("loin", order.items.get(0).label);
+    }
+
+    @Test
+    void bindsTopLevelArraysByIndex() throws Exception {
+        Integer[] values = (Integer[]) ObjectBinder.bindObject(ParamTreeTest.request(Map.of(
+                "n[99999]", new String[] { "2" },
+                "n[3]", new String[] { "1" })), Integer[].class);
+        assertArrayEquals(new Integer[] { 1, 2 }, values);
+    }
+
+    @Test
+    void ignoresUnknownFields() throws Exception {
+        Order order = (Order) ObjectBinder.bindObject(ParamTreeTest.request(Map.of(
+                "unknown[3].x", new String[] { "1" })), Order.class);
+        assertNull(order.customer);
+        assertNull(order.items);
+    }
+}
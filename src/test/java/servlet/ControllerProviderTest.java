@@ -0,0 +1,77 @@
+package servlet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import servlet.annotations.Scope;
+
+class ControllerProviderTest {
+
+    static final AtomicInteger CREATED = new AtomicInteger();
+
+    @Scope(Scope.Type.THREAD)
+    static class PerThread {
+        PerThread() {
+            CREATED.incrementAndGet();
+        }
+    }
+
+    @Scope(value = Scope.Type.POOLED, size = 1, timeout = 50)
+    static class Waiting {
+    }
+
+    @Scope(value = Scope.Type.POOLED, size = 1)
+    static class Transient {
+    }
+
+    // Instance de vérification au démarrage, non gardée ; une instance par thread ensuite
+    @Test
+    void perThreadKeepsOneInstancePerThread() throws Exception {
+        CREATED.set(0);
+        ControllerProvider provider = ControllerProvider.forClass(PerThread.class);
+        assertEquals(1, CREATED.get());
+        Object first = provider.acquire();
+        assertEquals(2, CREATED.get());
+        assertSame(first, provider.acquire());
+
+        AtomicReference<Object> other = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            try {
+                other.set(provider.acquire());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        thread.start();
+        thread.join();
+        assertNotSame(first, other.get());
+    }
+
+    @Test
+    void pooledWaitsThenFailsWithATimeout() throws Exception {
+        ControllerProvider provider = ControllerProvider.forClass(Waiting.class);
+        Object instance = provider.acquire();
+        assertThrows(IllegalStateException.class, provider::acquire);
+        provider.release(instance);
+        assertSame(instance, provider.acquire());
+    }
+
+    @Test
+    void pooledWithoutTimeoutCreatesTransientInstances() throws Exception {
+        ControllerProvider provider = ControllerProvider.forClass(Transient.class);
+        Object pooled = provider.acquire();
+        Object extra = provider.acquire();
+        assertNotSame(pooled, extra);
+        provider.release(pooled);
+        provider.release(extra); // pool plein : abandonnée
+        assertSame(pooled, provider.acquire());
+        assertNotSame(extra, provider.acquire());
+    }
+}
@@ -0,0 +1,40 @@
+package servlet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.SessionCookieConfig;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+class EmbeddedContextTest {
+
+    private final ServletContext context = EmbeddedContext.create(Path.of("."));
+
+    // Accesseurs sans objet dans le serveur embarqué : valeurs vides, pas d'exception
+    @Test
+    void harmlessGettersReturnEmptyValues() {
+        assertTrue(context.getServletRegistrations().isEmpty());
+        assertTrue(context.getFilterRegistrations().isEmpty());
+        assertNull(context.getServletRegistration("FrontServlet"));
+        assertNull(context.getFilterRegistration("f"));
+        assertNull(context.getJspConfigDescriptor());
+        SessionCookieConfig cookie = context.getSessionCookieConfig();
+        assertEquals(EmbeddedSessions.COOKIE, cookie.getName());
+        assertTrue(cookie.isHttpOnly());
+        assertThrows(IllegalStateException.class, () -> cookie.setName("SID"));
+    }
+
+    @Test
+    void configurationAfterStartupIsRefused() {
+        assertThrows(IllegalStateException.class, () -> context.addServlet("s", "demo.Servlet"));
+        assertThrows(IllegalStateException.class, () -> context.setInitParameter("a", "b"));
+        assertThrows(IllegalStateException.class, () -> context.setSessionTimeout(5));
+        assertThrows(IllegalStateException.class, () -> context.declareRoles("admin"));
+    }
+}
@@ -0,0 +1,36 @@
+package servlet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class ExchangeRequestTest {
+
+    @Test
+    void keepsNormalPaths() {
+        assertEquals("/", ExchangeRequest.normalize("/"));
+        assertEquals("/css/a.css", ExchangeRequest.normalize("/css/a.css"));
+        assertEquals("/css/", ExchangeRequest.normalize("/css/"));
+    }
+
+    @Test
+    void normalizesDotsAndEmptySegments() {
+        assertEquals("/WEB-INF/web.xml", ExchangeRequest.normalize("/./WEB-INF/web.xml"));
+        assertEquals("/WEB-INF/web.xml", ExchangeRequest.normalize("//WEB-INF/web.xml"));
+        assertEquals("/WEB-INF/web.xml", ExchangeRequest.normalize("/css/../WEB-INF/web.xml"));
+        assertEquals("/css/", ExchangeRequest.normalize("/css/."));
+        assertEquals("/", ExchangeRequest.normalize("/css/.."));
+    }
+
+    @Test
+    void refusesPathsLeavingTheRoot() {
+        assertNull(ExchangeRequest.normalize("/.."));
+        assertNull(ExchangeRequest.normalize("/../etc/passwd"));
+        assertNull(ExchangeRequest.normalize("/css/../../etc/passwd"));
+        assertNull(ExchangeRequest.normalize("/WEB-INF\\web.xml"));
+        assertNull(ExchangeRequest.normalize("/a.css\0.txt"));
+        assertNull(ExchangeRequest.normalize("css/a.css"));
+        assertNull(ExchangeRequest.normalize(""));
+    }
+}
@@ -0,0 +1,45 @@
+package servlet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class ExchangeResponseTest {
+
+    // HEAD : en-têtes et Content-Length du GET, sans corps
+    @Test
+    void headResponsesKeepHeadersAndDropTheBody() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            ExchangeResponse resp = new ExchangeResponse(exchange, 8192);
+            resp.setContentType("text/plain");
+            resp.getOutputStream().write("bonjour".getBytes(StandardCharsets.UTF_8));
+            resp.finish();
+            exchange.close();
+        });
+        server.start();
+        try {
+            URL url = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+            HttpURLConnection head = (HttpURLConnection) url.openConnection();
+            head.setRequestMethod("HEAD");
+            assertEquals(200, head.getResponseCode());
+            assertEquals("7", head.getHeaderField("Content-Length"));
+            assertEquals(0, head.getInputStream().readAllBytes().length);
+
+            HttpURLConnection get = (HttpURLConnection) url.openConnection();
+            assertEquals("bonjour", new String(get.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+            assertFalse(get.getHeaderField("Content-Type").isEmpty());
+        } finally {
+            server.stop(0);
+        }
+    }
+}
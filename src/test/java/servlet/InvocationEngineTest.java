@@ -0,0 +1,94 @@
+package servlet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.junit.jupiter.api.Test;
+
+class InvocationEngineTest {
+
+    public static class Target {
+        public String echo(String value, int count) {
+            return value.repeat(count);
+        }
+
+        public long widen(long value, double ratio) {
+            return (long) (value * ratio);
+        }
+
+        public static int twice(int value) {
+            return value * 2;
+        }
+
+        public void fail() throws Exception {
+            throw new IllegalStateException("contrôleur");
+        }
+
+        public void error() {
+            throw new AssertionError("erreur");
+        }
+    }
+
+    @Test
+    void methodHandleEngineIsUsedByDefault() throws Exception {
+        assertEquals(InvocationEngine.METHOD_HANDLE, engine("echo", null).name());
+        assertEquals(InvocationEngine.REFLECTION, engine("echo", InvocationEngine.REFLECTION).name());
+    }
+
+    @Test
+    void returnsTheSameResults() throws Exception {
+        Target target = new Target();
+        assertEquals(same("echo", target, "ab", 2), "abab");
+        assertEquals(same("widen", target, 3, 1.5f), 4L); // int -> long, float -> double
+        assertEquals(same("widen", target, 'a', (byte) 1), 97L);
+        assertEquals(same("twice", null, 21), 42);
+        assertEquals(same("twice", "ignoré", 21), 42);
+    }
+
+    // Exceptions du contrôleur, Error compris : InvocationTargetException
+    @Test
+    void wrapsControllerExceptions() throws Exception {
+        assertEquals(same("fail", new Target()), InvocationTargetException.class);
+        assertEquals(same("error", new Target()), InvocationTargetException.class);
+    }
+
+    @Test
+    void rejectsBadArgumentsLikeMethodInvoke() throws Exception {
+        Target target = new Target();
+        assertEquals(same("echo", target, 42, 2), IllegalArgumentException.class);
+        assertEquals(same("echo", target, "ab", null), IllegalArgumentException.class);
+        assertEquals(same("echo", target, "ab", 2L), IllegalArgumentException.class);
+        assertEquals(same("echo", target, "ab"), IllegalArgumentException.class);
+        assertEquals(same("echo", "autre", "ab", 2), IllegalArgumentException.class);
+        assertEquals(same("echo", null, "ab", 2), NullPointerException.class);
+        assertEquals(same("widen", target, 1.0, 1.0), IllegalArgumentException.class);
+        assertEquals(same("echo", target, null, 1), InvocationTargetException.class);
+    }
+
+    // Appelle la méthode avec les deux moteurs ; renvoie le résultat commun ou la classe d'exception commune
+    private static Object same(String name, Object controller, Object... args) throws Exception {
+        Object handle = outcome(engine(name, null), controller, args);
+        Object reflection = outcome(engine(name, InvocationEngine.REFLECTION), controller, args);
+        assertEquals(reflection, handle, name);
+        return reflection instanceof Class ? reflection : handle;
+    }
+
+    private static Object outcome(InvocationEngine engine, Object controller, Object[] args) {
+        try {
+            return engine.invoke(controller, args);
+        } catch (Exception e) {
+            return e.getClass();
+        }
+    }
+
+    private static InvocationEngine engine(String name, String preferred) {
+        for (Method method : Target.class.getMethods()) {
+            if (method.getName().equals(name)) {
+                return InvocationEngine.forMethod(method, preferred);
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+}
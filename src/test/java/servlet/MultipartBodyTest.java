@@ -0,0 +1,163 @@
+package servlet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import jakarta.servlet.http.Part;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class MultipartBodyTest {
+
+    private static final String BOUNDARY = "----b0undary";
+
+    @Test
+    void readsFieldsAndFiles() throws IOException {
+        byte[] body = body(field("name", "Ada"), file("doc", "a.txt", "hello".getBytes(StandardCharsets.UTF_8)));
+        List<Part> parts = parse(body, 1024, 1024);
+        assertEquals(2, parts.size());
+        assertEquals("name", parts.get(0).getName());
+        assertNull(parts.get(0).getSubmittedFileName());
+        assertEquals("Ada", ((MultipartBody.StoredPart) parts.get(0)).text(StandardCharsets.UTF_8));
+        assertEquals("a.txt", parts.get(1).getSubmittedFileName());
+        assertEquals("text/plain", parts.get(1).getContentType());
+        assertArrayEquals("hello".getBytes(StandardCharsets.UTF_8), parts.get(1).getInputStream().readAllBytes());
+    }
+
+    // Lectures de 7 octets : boundary à cheval sur deux blocs, partie au-delà du seuil mémoire
+    @Test
+    void spillsLargePartsToTemporaryFiles() throws IOException {
+        byte[] content = new byte[200_000];
+        new Random(42).nextBytes(content);
+        byte[] body = body(file("doc", "big.bin", content), field("after", "ok"));
+        List<Part> parts = MultipartBody.parse(new TrickleInputStream(body), BOUNDARY,
+                StandardCharsets.UTF_8, 1024, body.length, 10);
+        assertEquals(2, parts.size());
+        Part big = parts.get(0);
+        assertEquals(content.length, big.getSize());
+        try (InputStream in = big.getInputStream()) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+        Path file = Files.createTempFile("multipart-test", ".bin");
+        try {
+            big.write(file.toString());
+            assertArrayEquals(content, Files.readAllBytes(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        big.delete();
+        assertEquals("ok", ((MultipartBody.StoredPart) parts.get(1)).text(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void refusesBodiesOverTheLimit() {
+        byte[] body = body(file("doc", "big.bin", new byte[10_000]));
+        assertThrows(IOException.class, () -> parse(body, 1024, 5_000));
+    }
+
+    // Petites parties au-delà du seuil mémoire : un fichier temporaire chacune sans la limite
+    @Test
+    void refusesTooManyParts() throws IOException {
+        byte[][] parts = new byte[11][];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = file("f" + i, "f" + i + ".bin", new byte[] { 1 });
+        }
+        byte[] body = body(parts);
+        IOException error = assertThrows(IOException.class, () -> parse(body, 0, body.length));
+        assertEquals("Plus de 10 parties multipart", error.getMessage());
+        List<Part> accepted = parse(body(java.util.Arrays.copyOf(parts, 10)), 0, body.length);
+        assertEquals(10, accepted.size());
+        for (Part part : accepted) {
+            part.delete();
+        }
+    }
+
+    @Test
+    void refusesOversizedHeaders() {
+        byte[][] parts = new byte[8][];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = ("X-Padding: " + "x".repeat(10_000) + "\r\n").getBytes(StandardCharsets.ISO_8859_1);
+            parts[i] = concat(parts[i], field("f" + i, "v"));
+        }
+        byte[] body = body(parts);
+        assertThrows(IOException.class, () -> parse(body, 1024, body.length));
+        byte[] single = body(concat(("X-Padding: " + "x".repeat(20_000) + "\r\n")
+                .getBytes(StandardCharsets.ISO_8859_1), field("f", "v")));
+        assertThrows(IOException.class, () -> parse(single, 1024, single.length));
+    }
+
+    @Test
+    void refusesTruncatedBodies() {
+        byte[] body = body(file("doc", "a.bin", new byte[100]));
+        byte[] truncated = java.util.Arrays.copyOf(body, body.length - 20);
+        assertThrows(IOException.class, () -> parse(truncated, 1024, 1024));
+    }
+
+    @Test
+    void boundaryFromContentType() {
+        assertEquals("abc", MultipartBody.boundary("multipart/form-data; boundary=abc"));
+        assertEquals("a b", MultipartBody.boundary("multipart/form-data; boundary=\"a b\""));
+        assertNull(MultipartBody.boundary("application/x-www-form-urlencoded"));
+        assertEquals("x", MultipartBody.boundary("Multipart/Form-Data;BOUNDARY=x"));
+        assertNull(MultipartBody.boundary("multipart/form-data"));
+    }
+
+    private static List<Part> parse(byte[] body, long memoryThreshold, long maxSize) throws IOException {
+        return MultipartBody.parse(new ByteArrayInputStream(body), BOUNDARY, StandardCharsets.UTF_8,
+                memoryThreshold, maxSize, 10);
+    }
+
+    private static byte[] field(String name, String value) {
+        return ("Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n" + value)
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] file(String name, String filename, byte[] content) {
+        ByteArrayOutputStream part = new ByteArrayOutputStream();
+        part.writeBytes(("Content-Disposition: form-data; name=\"" + name + "\"; filename=\"" + filename
+                + "\"\r\nContent-Type: text/plain\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        part.writeBytes(content);
+        return part.toByteArray();
+    }
+
+    private static byte[] body(byte[]... parts) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            body.writeBytes(("--" + BOUNDARY + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+            body.writeBytes(part);
+            body.writeBytes("\r\n".getBytes(StandardCharsets.ISO_8859_1));
+        }
+        body.writeBytes(("--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        return body.toByteArray();
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] joined = java.util.Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, joined, a.length, b.length);
+        return joined;
+    }
+
+    private static final class TrickleInputStream extends FilterInputStream {
+        TrickleInputStream(byte[] body) {
+            super(new ByteArrayInputStream(body));
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return super.read(b, off, Math.min(len, 7));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package servlet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class ParamTreeTest {
+
+    @Test
+    void buildsNestedFieldsAndElements() {
+        ParamTree tree = ParamTree.of(request(Map.of(
+                "department[3].employees[12].name", new String[] { "Bob" },
+                "attrs[color]", new String[] { "red" },
+                "tags", new String[] { "a", "b" })));
+        ParamTree.Node employee = tree.root.field("department").indexed().get(3)
+                .field("employees").indexed().get(12);
+        assertEquals("Bob", employee.field("name").value());
+        assertEquals("red", tree.root.field("attrs").field("color").value());
+        assertEquals(List.of("a", "b"), List.of(tree.root.field("tags").values));
+    }
+
+    // Indice forgé : un nœud par paramètre, pas de cases vides
+    @Test
+    void storesLargeIndicesSparsely() {
+        ParamTree tree = ParamTree.of(request(Map.of(
+                "x[99999]", new String[] { "1" },
+                "a[99999][99999]", new String[] { "2" },
+                "b[999999999]", new String[] { "3" })));
+        assertEquals(1, tree.root.field("x").elements().size());
+        ParamTree.Node a = tree.root.field("a");
+        assertEquals(1, a.elements().size());
+        assertEquals(1, a.indexed().get(99999).elements().size());
+        assertEquals("3", tree.root.field("b").indexed().get(999_999_999).value());
+    }
+
+    @Test
+    void nonNumericOrOverlongIndexIsAKey() {
+        ParamTree tree = ParamTree.of(request(Map.of("m[1234567890]", new String[] { "v" })));
+        assertEquals("v", tree.root.field("m").field("1234567890").value());
+    }
+
+    @Test
+    void isSharedByTheRequest() {
+        HttpServletRequest req = request(Map.of("a", new String[] { "1" }));
+        assertSame(ParamTree.of(req), ParamTree.of(req));
+    }
+
+    static HttpServletRequest request(Map<String, String[]> parameters) {
+        Map<String, String[]> ordered = new LinkedHashMap<>(parameters);
+        Map<String, Object> attributes = new HashMap<>();
+        return (HttpServletRequest) Proxy.newProxyInstance(ParamTreeTest.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getParameterMap":
+                            return ordered;
+                        case "getAttribute":
+                            return attributes.get((String) args[0]);
+                        case "setAttribute":
+                            attributes.put((String) args[0], args[1]);
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
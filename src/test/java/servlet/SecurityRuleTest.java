@@ -0,0 +1,166 @@
+package servlet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import servlet.annotations.Authorized;
+import servlet.annotations.Role;
+
+class SecurityRuleTest {
+
+    static class Routes {
+        @Authorized
+        public void authorized() {
+        }
+
+        @Role({ "admin", "manager" })
+        public void managers() {
+        }
+
+        @Role("auditor")
+        public void auditors() {
+        }
+    }
+
+    private final SecurityRule.Roles roles = new SecurityRule.Roles();
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private SecurityRule managers;
+    private SecurityRule auditors;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        managers = rule("managers");
+        auditors = rule("auditors");
+        attributes.put("auth", Boolean.TRUE);
+    }
+
+    @Test
+    void authorizedRequiresAnAuthenticatedSession() throws Exception {
+        SecurityRule authorized = rule("authorized");
+        assertNotNull(authorized.check(request(null)));
+        attributes.remove("auth");
+        assertNotNull(authorized.check(request(attributes)));
+        attributes.put("auth", Boolean.TRUE);
+        assertNull(authorized.check(request(attributes)));
+    }
+
+    @Test
+    void singleRoleIsTestedDirectly() {
+        attributes.put("role", "manager");
+        assertNull(managers.check(request(attributes)));
+        assertNotNull(auditors.check(request(attributes)));
+        assertFalse(attributes.containsKey(SecurityRule.MASK_ATTRIBUTE));
+    }
+
+    @Test
+    void roleArrayMaskIsCachedOnTheSession() {
+        attributes.put("role", new String[] { "user", "admin" });
+        assertNull(managers.check(request(attributes)));
+        Object cached = attributes.get(SecurityRule.MASK_ATTRIBUTE);
+        assertNotNull(cached);
+        assertNotNull(auditors.check(request(attributes)));
+        assertSame(cached, attributes.get(SecurityRule.MASK_ATTRIBUTE));
+    }
+
+    @Test
+    void replacedOrModifiedRolesTakeEffect() {
+        String[] userRoles = { "admin" };
+        attributes.put("role", userRoles);
+        assertNull(managers.check(request(attributes)));
+
+        userRoles[0] = "user"; // retrait en place
+        assertNotNull(managers.check(request(attributes)));
+
+        attributes.put("role", new String[] { "auditor" }); // nouveau tableau
+        assertNull(auditors.check(request(attributes)));
+        assertNotNull(managers.check(request(attributes)));
+    }
+
+    // La logique propre de hasRole est respectée (ici, un joker absent de getRoles())
+    @Test
+    void userSessionHasRoleIsCalled() {
+        attributes.put("role", new UserSession() {
+            @Override
+            public String[] getRoles() {
+                return new String[] { "*" };
+            }
+
+            @Override
+            public boolean hasRole(String role) {
+                return !role.equals("auditor");
+            }
+        });
+        assertNull(managers.check(request(attributes)));
+        assertNotNull(auditors.check(request(attributes)));
+    }
+
+    @Test
+    void missingRoleInformationIsRefused() {
+        assertNotNull(managers.check(request(attributes)));
+        attributes.put("role", 42);
+        assertNotNull(managers.check(request(attributes)));
+    }
+
+    @Test
+    void sessionMapHidesTheCachedMask() {
+        attributes.put("role", new String[] { "admin" });
+        HttpServletRequest req = request(attributes);
+        assertNull(managers.check(req));
+        SessionMap map = new SessionMap(req);
+        assertTrue(attributes.containsKey(SecurityRule.MASK_ATTRIBUTE));
+        assertNull(map.get(SecurityRule.MASK_ATTRIBUTE));
+        assertFalse(map.keySet().contains(SecurityRule.MASK_ATTRIBUTE));
+        assertEquals(2, map.size());
+        map.clear();
+        assertEquals(0, map.size());
+        assertTrue(attributes.containsKey(SecurityRule.MASK_ATTRIBUTE));
+    }
+
+    private SecurityRule rule(String method) throws Exception {
+        return SecurityRule.forMethod(Routes.class.getMethod(method), roles, "auth", "role");
+    }
+
+    // Requête dont la session (ou son absence) est la Map donnée
+    private static HttpServletRequest request(Map<String, Object> sessionAttributes) {
+        HttpSession session = sessionAttributes == null ? null : (HttpSession) Proxy.newProxyInstance(
+                SecurityRuleTest.class.getClassLoader(), new Class<?>[] { HttpSession.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getAttribute":
+                            return sessionAttributes.get((String) args[0]);
+                        case "setAttribute":
+                            sessionAttributes.put((String) args[0], args[1]);
+                            return null;
+                        case "removeAttribute":
+                            sessionAttributes.remove((String) args[0]);
+                            return null;
+                        case "getAttributeNames":
+                            return Collections.enumeration(new java.util.ArrayList<>(sessionAttributes.keySet()));
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        return (HttpServletRequest) Proxy.newProxyInstance(SecurityRuleTest.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("getSession")) {
+                        return session;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,148 @@
+package servlet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StaticResourcesTest {
+
+    @TempDir
+    Path root;
+
+    private StaticResources resources;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.createDirectories(root.resolve("WEB-INF"));
+        Files.createDirectories(root.resolve("META-INF"));
+        Files.createDirectories(root.resolve("css"));
+        Files.writeString(root.resolve("WEB-INF/web.xml"), "<web-app/>");
+        Files.writeString(root.resolve("META-INF/context.xml"), "<Context/>");
+        Files.writeString(root.resolve("css/a.css"), "body{}");
+        resources = new StaticResources(context(root), 1024 * 1024, null);
+    }
+
+    @Test
+    void servesRegularFile() throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        assertTrue(resources.serve("/css/a.css", request("/css/a.css", null), response(body)));
+        assertEquals("body{}", body.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void refusesProtectedDirectoriesWhateverTheSpelling() throws IOException {
+        String[] paths = {
+            "/WEB-INF/web.xml",
+            "/./WEB-INF/web.xml",
+            "//WEB-INF/web.xml",
+            "/css/../WEB-INF/web.xml",
+            "/css/..//WEB-INF/web.xml",
+            "/web-inf/web.xml",
+            "/WEB-INF./web.xml",
+            "/WEB-INF /web.xml",
+            "/WEB-INF\\web.xml",
+            "/%2e/WEB-INF/web.xml",
+            "/META-INF/context.xml",
+            "/./META-INF/context.xml",
+            "/../" + root.getFileName() + "/WEB-INF/web.xml",
+        };
+        for (String path : paths) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            assertFalse(resources.serve(path, request(path, null), response(body)), path);
+            assertEquals(0, body.size(), path);
+        }
+    }
+
+    @Test
+    void refusesLinkLeavingTheRoot(@TempDir Path outside) throws IOException {
+        Path secret = Files.writeString(outside.resolve("secret.css"), "secret");
+        try {
+            Files.createSymbolicLink(root.resolve("css/link.css"), secret);
+        } catch (UnsupportedOperationException | IOException e) {
+            return; // liens symboliques non disponibles
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        assertFalse(resources.serve("/css/link.css", request("/css/link.css", null), response(body)));
+    }
+
+    @Test
+    void requestPathUsesServletPathAndPathInfo() {
+        assertEquals("/css/a.css", StaticResources.requestPath(request("/css", "/a.css")));
+        assertEquals("/css/a.css", StaticResources.requestPath(request("/css/a.css", null)));
+    }
+
+    // getRealPath non normalisé : le pire cas d'un conteneur
+    private static ServletContext context(Path root) {
+        return (ServletContext) Proxy.newProxyInstance(StaticResourcesTest.class.getClassLoader(),
+                new Class<?>[] { ServletContext.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("getRealPath")) {
+                        return root + (String) args[0];
+                    }
+                    return null;
+                });
+    }
+
+    private static HttpServletRequest request(String servletPath, String pathInfo) {
+        Map<String, Object> values = new java.util.HashMap<>();
+        values.put("getMethod", "GET");
+        values.put("getServletPath", servletPath);
+        values.put("getPathInfo", pathInfo);
+        return (HttpServletRequest) Proxy.newProxyInstance(StaticResourcesTest.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class },
+                (proxy, method, args) -> values.containsKey(method.getName())
+                        ? values.get(method.getName()) : defaultValue(method.getReturnType()));
+    }
+
+    private static HttpServletResponse response(ByteArrayOutputStream body) {
+        ServletOutputStream stream = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+            }
+        };
+        return (HttpServletResponse) Proxy.newProxyInstance(StaticResourcesTest.class.getClassLoader(),
+                new Class<?>[] { HttpServletResponse.class },
+                (proxy, method, args) -> method.getName().equals("getOutputStream")
+                        ? stream : defaultValue(method.getReturnType()));
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,65 @@
+package servlet.http;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class RouteTrieTest {
+
+    private final RouteTrie<String> trie = new RouteTrie<>();
+
+    private void add(String template) {
+        trie.insert(template, () -> template);
+    }
+
+    private void assertMatch(String expected, String path, String... variables) {
+        RouteTrie.Match<String> match = trie.match(path);
+        assertEquals(expected, match == null ? null : match.value, path);
+        if (match != null) {
+            assertArrayEquals(variables, match.variables, path);
+        }
+    }
+
+    @Test
+    void literalWinsOverVariableThenBacktracks() {
+        add("/items/new");
+        add("/items/{id}");
+        add("/items/{id}/edit");
+        add("/items/*/raw");
+        assertMatch("/items/new", "/items/new");
+        assertMatch("/items/{id}", "/items/42", "42");
+        // Pas de /items/new/edit littéral : retour sur la capture
+        assertMatch("/items/{id}/edit", "/items/new/edit", "new");
+        assertMatch("/items/*/raw", "/items/42/raw");
+    }
+
+    @Test
+    void catchAllTakesTheRestOfThePath() {
+        add("/assets/**");
+        add("/assets/{name}");
+        assertMatch("/assets/{name}", "/assets/a.css", "a.css");
+        assertMatch("/assets/**", "/assets/css/a.css");
+        assertMatch("/assets/**", "/assets");
+    }
+
+    @Test
+    void trailingSlashAndEmptySegments() {
+        add("/items/{id}");
+        assertMatch("/items/{id}", "/items/42/", "42");
+        assertMatch(null, "/items/");
+        assertMatch(null, "/items//");
+        assertMatch(null, "items/42");
+        assertMatch(null, "");
+    }
+
+    // Valeurs décodées en UTF-8, '+' conservé, %2F dans le segment, échappement invalide gardé
+    @Test
+    void decodesCapturedSegments() {
+        add("/files/{name}/{rest}");
+        assertMatch("/files/{name}/{rest}", "/files/caf%C3%A9/a%20b+c", "café", "a b+c");
+        assertMatch("/files/{name}/{rest}", "/files/a%2Fb/x", "a/b", "x");
+        assertMatch("/files/{name}/{rest}", "/files/100%/%zz%4", "100%", "%zz%4");
+    }
+}
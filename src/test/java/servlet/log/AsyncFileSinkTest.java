@@ -0,0 +1,48 @@
+package servlet.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import org.junit.jupiter.api.Test;
+
+class AsyncFileSinkTest {
+
+    // Canal en échec : événements perdus comptés à part, pas comme abandonnés (tampon plein)
+    @Test
+    void countsWriteFailuresSeparately() {
+        AsyncFileSink sink = new AsyncFileSink(new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer src) throws IOException {
+                throw new IOException("disque plein");
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        }, 64, false);
+        for (int i = 0; i < 3; i++) {
+            sink.publish(new LogEvent(Level.INFO, "test", "message {}", new Object[] { i }));
+        }
+        sink.close();
+        assertEquals(3, sink.failed());
+        assertEquals(0, sink.dropped());
+    }
+
+    // Après l'arrêt, un log ne recrée ni destination ni thread d'écriture
+    @Test
+    void loggingAfterShutdownStartsNoWriterThread() throws InterruptedException {
+        Logger.shutdown();
+        Logger.get(AsyncFileSinkTest.class).warn("après l'arrêt");
+        assertFalse(Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(t -> t.getName().equals("framework-log-writer") && t.isAlive()));
+    }
+}
@@ -0,0 +1,57 @@
+package servlet.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void valueOnBoundaryIsCountedInItsLeBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(8);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(0, snapshot.countAtMost(4));
+        assertEquals(1, snapshot.countAtMost(8));
+        assertEquals(1, snapshot.countAtMost(16));
+    }
+
+    @Test
+    void valueJustAboveBoundaryGoesToNextBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(9);
+        histogram.record(1024);
+        histogram.record(1025);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(0, snapshot.countAtMost(8));
+        assertEquals(1, snapshot.countAtMost(16));
+        assertEquals(2, snapshot.countAtMost(1024));
+        assertEquals(3, snapshot.countAtMost(2048));
+    }
+
+    @Test
+    void zeroAndSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(0);
+        histogram.record(1);
+        histogram.record(2);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1, snapshot.countAtMost(0));
+        assertEquals(2, snapshot.countAtMost(1));
+        assertEquals(3, snapshot.countAtMost(2));
+        assertEquals(2, snapshot.quantile(1.0));
+    }
+
+    @Test
+    void everyPowerOfTwoIsAnInclusiveUpperBound() {
+        for (long limit = 1; limit <= 1L << 38; limit <<= 1) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.record(limit);
+            histogram.record(limit + 1);
+            assertEquals(1, histogram.snapshot().countAtMost(limit), "le=" + limit);
+        }
+    }
+}